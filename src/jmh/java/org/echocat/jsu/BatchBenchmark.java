@@ -0,0 +1,84 @@
+package org.echocat.jsu;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Time per element of {@link Batch} compared to a hand-written loop and the JDK <code>subList</code> idiom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(BatchBenchmark.ELEMENTS)
+public class BatchBenchmark {
+
+    static final int ELEMENTS = 10_000;
+
+    @Param({"10", "1000"})
+    int batchSize;
+
+    List<Integer> source;
+
+    @Setup
+    public void setUp() {
+        source = IntStream.range(0, ELEMENTS).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void batch(Blackhole blackhole) {
+        StreamUtils.batch(source.stream(), batchSize).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void batchRecycled(Blackhole blackhole) {
+        StreamUtils.batch(source.stream(), batchSize, new BatchPool<>(2)).forEach(batch -> {
+            blackhole.consume(batch);
+            batch.close();
+        });
+    }
+
+    @Benchmark
+    public void jdkSubList(Blackhole blackhole) {
+        final var size = source.size();
+        IntStream.range(0, (size + batchSize - 1) / batchSize)
+            .mapToObj(i -> new ArrayList<>(source.subList(i * batchSize, Math.min(size, (i + 1) * batchSize))))
+            .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void loop(Blackhole blackhole) {
+        var batch = new ArrayList<Integer>(batchSize);
+        for (final var element : source) {
+            batch.add(element);
+            if (batch.size() == batchSize) {
+                blackhole.consume(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            blackhole.consume(batch);
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH CSV results (<code>-rf csv</code>) and fails if a benchmark of the <code>current</code> result
+ * is more than <code>maxRegression</code> percent slower than in the <code>baseline</code> result.
+ *
+ * <pre>java org.echocat.jsu.BenchmarkRegressions &lt;baseline.csv&gt; &lt;current.csv&gt; [maxRegression=10]</pre>
+ */
+public final class BenchmarkRegressions {
+
+    static final String ALLOCATION = "gc.alloc.rate.norm";
+    /**
+     * Allocations below this number of bytes per operation are treated as this number, so an increase from almost
+     * nothing to a few bytes (caused by noise) is not reported as huge regression.
+     */
+    static final double MIN_ALLOCATION = 8;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: " + BenchmarkRegressions.class.getName() + " <baseline.csv> <current.csv> [maxRegression=10]");
+            System.exit(2);
+        }
+        final var baseline = read(Paths.get(args[0]));
+        final var current = read(Paths.get(args[1]));
+        final var maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : 10D;
+
+        var regressions = 0;
+        for (final var entry : current.entrySet()) {
+            final var before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            final var change = entry.getValue().changeInPercentTo(before);
+            final var regression = change > maxRegression;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-6s %-80s %+8.1f%%%n", regression ? "SLOWER" : "ok", entry.getKey(), change);
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmarks regressed by more than " + maxRegression + "%.");
+            System.exit(1);
+        }
+    }
+
+    @Nonnull
+    static Map<String, Score> read(@Nonnull Path file) throws IOException {
+        final var lines = Files.readAllLines(file);
+        final var result = new LinkedHashMap<String, Score>();
+        if (lines.isEmpty()) {
+            return result;
+        }
+        final var header = split(lines.get(0));
+        final var benchmark = indexOf(header, "Benchmark");
+        final var mode = indexOf(header, "Mode");
+        final var score = indexOf(header, "Score");
+        final var unit = indexOf(header, "Unit");
+        for (final var line : lines.subList(1, lines.size())) {
+            final var columns = split(line);
+            final var name = columns[benchmark];
+            // Of the secondary results (like the ones of -prof gc) only the allocation per operation is stable enough.
+            if (name.contains(":") && !name.endsWith(":" + ALLOCATION)) {
+                continue;
+            }
+            final var key = new StringBuilder(name);
+            // Benchmarks with parameters have one row per parameter combination.
+            for (int i = unit + 1; i < columns.length; i++) {
+                if (!columns[i].isEmpty()) {
+                    key.append(' ').append(header[i].replace("Param: ", "")).append('=').append(columns[i]);
+                }
+            }
+            result.put(key.toString(), new Score(columns[mode], columns[unit], Double.parseDouble(columns[score])));
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static String[] split(@Nonnull String line) {
+        final var result = line.split(",", -1);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = result[i].replace("\"", "").trim();
+        }
+        return result;
+    }
+
+    private static int indexOf(@Nonnull String[] header, @Nonnull String column) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].equals(column)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("There is no column " + column + ".");
+    }
+
+    static final class Score {
+
+        @Nonnull
+        private final String mode;
+        @Nonnull
+        private final String unit;
+        private final double value;
+
+        Score(@Nonnull String mode, @Nonnull String unit, double value) {
+            this.mode = mode;
+            this.unit = unit;
+            this.value = value;
+        }
+
+        /**
+         * @return how much slower (positive) or faster (negative) this score is compared to the given one.
+         */
+        double changeInPercentTo(@Nonnull Score baseline) {
+            final var ratio = unit.equals("B/op")
+                ? Math.max(value, MIN_ALLOCATION) / Math.max(baseline.value, MIN_ALLOCATION)
+                : value / baseline.value;
+            // For throughput higher is better, for all other modes (times) lower is better.
+            final var slowdown = mode.equals("thrpt") ? 1 / ratio : ratio;
+            return (slowdown - 1) * 100;
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.echocat.jsu;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.echocat.jsu.support.Callable;
+
+import javax.annotation.Nonnull;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.lang.reflect.Proxy.newProxyInstance;
+import static java.sql.Types.INTEGER;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Calls through the {@link java.lang.reflect.Proxy} based path of
+ * {@link AutoCloseableUtils#doOnClose(Class, AutoCloseable, Callable...)} (used for every interface without a
+ * dedicated wrapper) compared to the dedicated wrapper path and direct calls. Run it with <code>-prof gc</code> to
+ * compare the allocations per call of the {@link ResultSet} wrapper with a plain reflective proxy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoOnCloseBenchmark {
+
+    private static final Callable NOOP = () -> {};
+
+    Counter direct;
+    Counter proxy;
+    ResultSet resultSet;
+    ResultSet resultSetWrapper;
+    ResultSet resultSetReflectiveProxy;
+
+    @Setup
+    public void setUp() throws SQLException {
+        direct = new SimpleCounter();
+        proxy = AutoCloseableUtils.doOnClose(Counter.class, new SimpleCounter(), NOOP);
+        resultSet = givenResultSet();
+        resultSetWrapper = AutoCloseableUtils.doOnClose(ResultSet.class, resultSet, NOOP);
+        final var original = resultSet;
+        resultSetReflectiveProxy = (ResultSet) newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (instance, method, args) -> {
+            try {
+                return method.invoke(original, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+    }
+
+    @Benchmark
+    public int callDirect() {
+        return direct.next(1);
+    }
+
+    @Benchmark
+    public int callProxy() {
+        return proxy.next(1);
+    }
+
+    @Benchmark
+    public int callResultSetDirect() throws SQLException {
+        return resultSet.getInt(1);
+    }
+
+    @Benchmark
+    public int callResultSetWrapper() throws SQLException {
+        return resultSetWrapper.getInt(1);
+    }
+
+    @Benchmark
+    public int callResultSetReflectiveProxy() throws SQLException {
+        return resultSetReflectiveProxy.getInt(1);
+    }
+
+    @Benchmark
+    public void createAndCloseProxy() throws Exception {
+        AutoCloseableUtils.doOnClose(Counter.class, direct, NOOP).close();
+    }
+
+    @Benchmark
+    public void createAndCloseWrapper() throws Exception {
+        AutoCloseableUtils.doOnClose(AutoCloseable.class, direct, NOOP).close();
+    }
+
+    @Nonnull
+    private static ResultSet givenResultSet() throws SQLException {
+        final var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(1);
+        metaData.setColumnType(1, INTEGER);
+        final var result = RowSetProvider.newFactory().createCachedRowSet();
+        result.setMetaData(metaData);
+        result.moveToInsertRow();
+        result.updateInt(1, 666);
+        result.insertRow();
+        result.moveToCurrentRow();
+        result.beforeFirst();
+        result.next();
+        return result;
+    }
+
+    public interface Counter extends AutoCloseable {
+
+        int next(int increment);
+
+    }
+
+    static final class SimpleCounter implements Counter {
+
+        private int value;
+
+        @Override
+        public int next(int increment) {
+            return value += increment;
+        }
+
+        @Override
+        public void close() {}
+
+    }
+
+}
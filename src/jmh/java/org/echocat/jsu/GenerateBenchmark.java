@@ -0,0 +1,119 @@
+package org.echocat.jsu;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Time per element of {@link ContinuingSupplier}, {@link StreamUtils#generate(Generator, boolean)},
+ * {@link SplittableGenerator} and {@link StreamUtils#generateConcurrent(Generator)} compared to {@link Stream#iterate},
+ * {@link IntStream#range} and a hand-written loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(GenerateBenchmark.ELEMENTS)
+public class GenerateBenchmark {
+
+    static final int ELEMENTS = 100_000;
+
+    @Benchmark
+    public void continuingSupplier(Blackhole blackhole) {
+        StreamSupport.stream(new ContinuingSupplier<>(counter()), false).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void generate(Blackhole blackhole) {
+        StreamUtils.generate(counter()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void generateInt(Blackhole blackhole) {
+        final var next = new int[1];
+        StreamUtils.generateInt(target -> {
+            if (next[0] >= ELEMENTS) {
+                return false;
+            }
+            target.accept(next[0]++);
+            return true;
+        }).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void jdkIterate(Blackhole blackhole) {
+        Stream.iterate(0, i -> i < ELEMENTS, i -> i + 1).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void loop(Blackhole blackhole) {
+        for (int i = 0; i < ELEMENTS; i++) {
+            blackhole.consume(Integer.valueOf(i));
+        }
+    }
+
+    @Benchmark
+    public long generateParallel() {
+        final var next = new AtomicInteger();
+        return StreamUtils.generate(() -> {
+            final var value = next.getAndIncrement();
+            return value < ELEMENTS ? Optional.of(value) : Optional.empty();
+        }, true).mapToLong(GenerateBenchmark::work).sum();
+    }
+
+    @Benchmark
+    public long generateSplittableParallel() {
+        return StreamUtils.generate(SplittableGenerator.range(0, ELEMENTS), true).mapToLong(value -> work(value.intValue())).sum();
+    }
+
+    @Benchmark
+    public long generateConcurrent() {
+        final var next = new AtomicInteger();
+        return StreamUtils.generateConcurrent(() -> {
+            final var value = next.getAndIncrement();
+            return value < ELEMENTS ? Optional.of(value) : Optional.empty();
+        }).mapToLong(GenerateBenchmark::work).sum();
+    }
+
+    @Benchmark
+    public long jdkIterateParallel() {
+        return Stream.iterate(0, i -> i < ELEMENTS, i -> i + 1).parallel().mapToLong(GenerateBenchmark::work).sum();
+    }
+
+    @Benchmark
+    public long jdkRangeParallel() {
+        return IntStream.range(0, ELEMENTS).parallel().mapToLong(GenerateBenchmark::work).sum();
+    }
+
+    static Generator<Integer> counter() {
+        final var next = new int[1];
+        return () -> next[0] < ELEMENTS ? Optional.of(next[0]++) : Optional.empty();
+    }
+
+    static long work(int value) {
+        var result = (long) value;
+        for (int i = 0; i < 16; i++) {
+            result = result * 6364136223846793005L + 1442695040888963407L;
+        }
+        return result;
+    }
+
+}
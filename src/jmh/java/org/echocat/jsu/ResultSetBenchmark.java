@@ -0,0 +1,93 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.SqlFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.VARCHAR;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Time per row of {@link JdbcUtils#toStream(ResultSet, SqlFunction)} over an in-memory {@link CachedRowSet}
+ * compared to a hand-written <code>while (resultSet.next())</code> loop. The streams are not closed because this
+ * would close the shared {@link ResultSet}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(ResultSetBenchmark.ROWS)
+public class ResultSetBenchmark {
+
+    static final int ROWS = 10_000;
+
+    private static final SqlFunction<ResultSet, Long> ID = row -> row.getLong(1);
+
+    CachedRowSet resultSet;
+
+    @Setup
+    public void setUp() throws SQLException {
+        final var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(2);
+        metaData.setColumnName(1, "id");
+        metaData.setColumnType(1, BIGINT);
+        metaData.setColumnName(2, "name");
+        metaData.setColumnType(2, VARCHAR);
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.moveToInsertRow();
+            resultSet.updateLong(1, row);
+            resultSet.updateString(2, "name" + row);
+            resultSet.insertRow();
+        }
+        resultSet.moveToCurrentRow();
+    }
+
+    @Benchmark
+    public long toStream() throws SQLException {
+        resultSet.beforeFirst();
+        return JdbcUtils.toStream(resultSet, ID).mapToLong(Long::longValue).sum();
+    }
+
+    @Benchmark
+    public long toStreamOfRows() throws SQLException {
+        resultSet.beforeFirst();
+        return JdbcUtils.toStream(resultSet).mapToLong(row -> {
+            try {
+                return row.getLong(1);
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }).sum();
+    }
+
+    @Benchmark
+    public long loop() throws SQLException {
+        resultSet.beforeFirst();
+        var result = 0L;
+        while (resultSet.next()) {
+            result += resultSet.getLong(1);
+        }
+        return result;
+    }
+
+}
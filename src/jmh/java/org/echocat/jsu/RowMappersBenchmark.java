@@ -0,0 +1,164 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.SqlFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.sql.Types.BIGINT;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Time per row of mappers over a wide in-memory {@link CachedRowSet}: reading every column by its label compared to
+ * {@link RowMappers#resolving(SqlFunction)} which reads by the resolved index, and reading some columns by label
+ * into a class compared to {@link RowMappers#forConstructor(Class, String...)} which uses a
+ * {@link java.lang.invoke.MethodHandle}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(RowMappersBenchmark.ROWS)
+public class RowMappersBenchmark {
+
+    static final int COLUMNS = 60;
+    static final int ROWS = 1000;
+
+    private static final String[] LABELS = labels();
+    private static final SqlFunction<ResultSet, long[]> ALL_BY_LABEL = row -> {
+        final var result = new long[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            result[i] = row.getLong(LABELS[i]);
+        }
+        return result;
+    };
+    private static final SqlFunction<ResultSet, long[]> ALL_RESOLVED = RowMappers.resolving(columns -> {
+        final var indexes = new int[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            indexes[i] = columns.indexOf(LABELS[i]);
+        }
+        return row -> {
+            final var result = new long[COLUMNS];
+            for (int i = 0; i < COLUMNS; i++) {
+                result[i] = row.getLong(indexes[i]);
+            }
+            return result;
+        };
+    });
+    // The last columns, because the label lookup of CachedRowSet scans all columns before.
+    private static final SqlFunction<ResultSet, Row> ROW_BY_LABEL = row -> new Row(
+        row.getLong(LABELS[COLUMNS - 4]),
+        row.getLong(LABELS[COLUMNS - 3]),
+        row.getLong(LABELS[COLUMNS - 2]),
+        row.getLong(LABELS[COLUMNS - 1])
+    );
+    private static final SqlFunction<ResultSet, Row> ROW_FOR_CONSTRUCTOR = RowMappers.forConstructor(Row.class,
+        LABELS[COLUMNS - 4], LABELS[COLUMNS - 3], LABELS[COLUMNS - 2], LABELS[COLUMNS - 1]);
+
+    CachedRowSet resultSet;
+
+    @Setup
+    public void setUp() throws SQLException {
+        final var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS);
+        for (int i = 1; i <= COLUMNS; i++) {
+            metaData.setColumnName(i, LABELS[i - 1]);
+            metaData.setColumnLabel(i, LABELS[i - 1]);
+            metaData.setColumnType(i, BIGINT);
+        }
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.moveToInsertRow();
+            for (int i = 1; i <= COLUMNS; i++) {
+                resultSet.updateLong(i, (long) row * i);
+            }
+            resultSet.insertRow();
+        }
+        resultSet.moveToCurrentRow();
+    }
+
+    @Benchmark
+    public long allByLabel() throws SQLException {
+        return sumOf(ALL_BY_LABEL);
+    }
+
+    @Benchmark
+    public long allResolved() throws SQLException {
+        return sumOf(ALL_RESOLVED);
+    }
+
+    @Benchmark
+    public long rowByLabel() throws SQLException {
+        return sumOfRows(ROW_BY_LABEL);
+    }
+
+    @Benchmark
+    public long rowForConstructor() throws SQLException {
+        return sumOfRows(ROW_FOR_CONSTRUCTOR);
+    }
+
+    private long sumOf(@Nonnull SqlFunction<ResultSet, long[]> mapper) throws SQLException {
+        resultSet.beforeFirst();
+        var result = 0L;
+        while (resultSet.next()) {
+            for (final var value : mapper.apply(resultSet)) {
+                result += value;
+            }
+        }
+        return result;
+    }
+
+    private long sumOfRows(@Nonnull SqlFunction<ResultSet, Row> mapper) throws SQLException {
+        resultSet.beforeFirst();
+        var result = 0L;
+        while (resultSet.next()) {
+            final var row = mapper.apply(resultSet);
+            result += row.a + row.b + row.c + row.d;
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static String[] labels() {
+        final var result = new String[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            result[i] = "column_" + i;
+        }
+        return result;
+    }
+
+    public static class Row {
+
+        final long a;
+        final long b;
+        final long c;
+        final long d;
+
+        public Row(long a, long b, long c, long d) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.echocat.jsu;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Time per element of {@link TakeWhile} compared to {@link java.util.stream.Stream#takeWhile} and a hand-written
+ * loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(TakeWhileBenchmark.TAKEN)
+public class TakeWhileBenchmark {
+
+    static final int ELEMENTS = 20_000;
+    static final int TAKEN = 10_000;
+
+    List<Integer> source;
+
+    @Setup
+    public void setUp() {
+        source = IntStream.range(0, ELEMENTS).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void takeWhile(Blackhole blackhole) {
+        StreamSupport.stream(SpliteratorUtils.takeWhile(source.spliterator(), (Integer i) -> i < TAKEN), false)
+            .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamUtilsTakeWhile(Blackhole blackhole) {
+        StreamUtils.takeWhile(source.stream(), (Integer i) -> i < TAKEN).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void jdkTakeWhile(Blackhole blackhole) {
+        source.stream().takeWhile(i -> i < TAKEN).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void loop(Blackhole blackhole) {
+        for (final var element : source) {
+            if (element >= TAKEN) {
+                break;
+            }
+            blackhole.consume(element);
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A batch size for {@link Batch} which tunes itself from the observed time per batch.
+ *
+ * <p>The time between two calls of {@link #get()} is the time to fill and consume one batch of the previously returned
+ * size. Alternatively this could be reported explicitly using {@link #record(int, long)}. Because of this it only works
+ * for sequential streams: {@link Batch} and its primitive variants do not split if their batch size is adaptive.</p>
+ *
+ * <p>With a <code>targetLatency</code> the size is increased additively as long as a batch takes not longer than the
+ * target and decreased multiplicatively otherwise (AIMD). Without a <code>targetLatency</code> the size is moved in the
+ * direction which increases the throughput.</p>
+ */
+public class AdaptiveBatchSize implements Supplier<Integer> {
+
+    protected static final double DECREASE_FACTOR = 0.5D;
+    protected static final double THROUGHPUT_STEP_FACTOR = 1.25D;
+    protected static final double THROUGHPUT_TOLERANCE = 0.05D;
+    protected static final double SMOOTHING = 0.3D;
+
+    @Nonnegative
+    private final int minimum;
+    @Nonnegative
+    private final int maximum;
+    @Nullable
+    private final Duration targetLatency;
+    @Nonnegative
+    private final int increment;
+
+    @Nonnegative
+    private int current;
+    private long lastGetAt = -1;
+    @Nonnegative
+    private int lastSize;
+    private double latencyNanos = Double.NaN;
+    private double throughput = Double.NaN;
+    private double previousThroughputSample = Double.NaN;
+    private int direction = 1;
+
+    public AdaptiveBatchSize(@Nonnegative int minimum, @Nonnegative int maximum) {
+        this(minimum, maximum, null);
+    }
+
+    public AdaptiveBatchSize(@Nonnegative int minimum, @Nonnegative int maximum, @Nullable Duration targetLatency) {
+        if (minimum <= 0) {
+            throw new IllegalArgumentException("The minimum have to be positive but was " + minimum + ".");
+        }
+        if (maximum < minimum) {
+            throw new IllegalArgumentException("The maximum have to be at least " + minimum + " but was " + maximum + ".");
+        }
+        if (targetLatency != null && (targetLatency.isNegative() || targetLatency.isZero())) {
+            throw new IllegalArgumentException("The targetLatency have to be positive but was " + targetLatency + ".");
+        }
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.targetLatency = targetLatency;
+        this.increment = max(1, (maximum - minimum) / 64);
+        this.current = minimum;
+    }
+
+    @Override
+    @Nonnull
+    public synchronized Integer get() {
+        final var now = nanoTime();
+        if (lastGetAt >= 0) {
+            record(lastSize, now - lastGetAt);
+        }
+        lastGetAt = now;
+        lastSize = current;
+        return current;
+    }
+
+    public synchronized void record(@Nonnegative int size, @Nonnegative long nanos) {
+        if (size <= 0 || nanos <= 0) {
+            return;
+        }
+        final var sampleThroughput = size * 1_000_000_000D / nanos;
+        latencyNanos = smooth(latencyNanos, nanos);
+        throughput = smooth(throughput, sampleThroughput);
+
+        final var targetLatency = this.targetLatency;
+        final long next;
+        if (targetLatency != null) {
+            next = nanos <= targetLatency.toNanos()
+                ? (long) current + increment
+                : (long) (current * DECREASE_FACTOR);
+        } else {
+            if (!Double.isNaN(previousThroughputSample) && sampleThroughput < previousThroughputSample * (1D - THROUGHPUT_TOLERANCE)) {
+                direction = -direction;
+            }
+            previousThroughputSample = sampleThroughput;
+            next = direction > 0
+                ? (long) Math.ceil(current * THROUGHPUT_STEP_FACTOR)
+                : (long) Math.floor(current / THROUGHPUT_STEP_FACTOR);
+        }
+        current = (int) max(minimum, min(maximum, next));
+        if (targetLatency == null && (current == minimum || current == maximum)) {
+            direction = current == minimum ? 1 : -1;
+        }
+    }
+
+    @Nonnegative
+    public synchronized int currentSize() {
+        return current;
+    }
+
+    /**
+     * @return smoothed time per batch or <code>null</code> if nothing was recorded yet.
+     */
+    @Nullable
+    public synchronized Duration latency() {
+        return Double.isNaN(latencyNanos) ? null : Duration.ofNanos((long) latencyNanos);
+    }
+
+    /**
+     * @return smoothed number of elements per second or <code>0</code> if nothing was recorded yet.
+     */
+    @Nonnegative
+    public synchronized double throughput() {
+        return Double.isNaN(throughput) ? 0D : throughput;
+    }
+
+    @Nonnegative
+    public int minimum() {
+        return minimum;
+    }
+
+    @Nonnegative
+    public int maximum() {
+        return maximum;
+    }
+
+    @Nullable
+    public Duration targetLatency() {
+        return targetLatency;
+    }
+
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private static double smooth(double previous, double sample) {
+        return Double.isNaN(previous) ? sample : previous + SMOOTHING * (sample - previous);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveBatchSize{current=" + currentSize() + ", latency=" + latency() + ", throughput=" + throughput() + "}";
+    }
+
+}
@@ -5,9 +5,11 @@ import org.echocat.jsu.support.Callable;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.Closeable;
-import java.lang.reflect.InvocationTargetException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 
@@ -15,17 +17,6 @@ import static java.lang.reflect.Proxy.newProxyInstance;
 
 public final class AutoCloseableUtils {
 
-    @Nonnull
-    private static final Method CLOSE_METHOD = resolveCloseMethodOf(AutoCloseable.class);
-    @Nonnull
-    private static final Method CLOSEABLE_CLOSE_METHOD = resolveCloseMethodOf(Closeable.class);
-    @Nonnull
-    private static final Method RESULT_SET_CLOSE_METHOD = resolveCloseMethodOf(ResultSet.class);
-    @Nonnull
-    private static final Method STATEMENT_CLOSE_METHOD = resolveCloseMethodOf(Statement.class);
-    @Nonnull
-    private static final Method CONNECTION_CLOSE_METHOD = resolveCloseMethodOf(Connection.class);
-
     public static void closeQuietly(@Nullable Object closeable) {
         try {
             if (closeable instanceof AutoCloseable) {
@@ -34,49 +25,76 @@ public final class AutoCloseableUtils {
         } catch (final Exception ignored) {}
     }
 
+    /**
+     * @return a wrapper of the given <code>instance</code> which delegates every call to it and executes the given
+     * callables after it was closed. There are dedicated wrappers for {@link ResultSet}, {@link PreparedStatement},
+     * {@link Statement}, {@link Connection}, {@link InputStream}, {@link Closeable} and {@link AutoCloseable}; every
+     * other interface is wrapped using a {@link java.lang.reflect.Proxy}.
+     */
     @Nonnull
     public static <T extends AutoCloseable> T doOnClose(@Nonnull Class<T> type, @Nonnull T instance, @Nullable Callable... callablesExecuteOnClose) {
         if (callablesExecuteOnClose == null || callablesExecuteOnClose.length == 0) {
             return instance;
         }
-        final var specificCloseMethod = typeSpecificCloseMethodOf(instance);
-        //noinspection unchecked
-        return (T) newProxyInstance(type.getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
-            try {
-                return method.invoke(instance, args);
-            } catch (final InvocationTargetException e) {
-                //noinspection ThrowInsideCatchBlockWhichIgnoresCaughtException
-                throw e.getTargetException();
-            } finally {
-                if (CLOSE_METHOD.equals(method) || method.equals(specificCloseMethod)) {
-                    call(callablesExecuteOnClose);
-                }
-            }
-        });
-    }
-
-    @Nullable
-    static Method typeSpecificCloseMethodOf(@Nonnull Object instance) {
-        if (instance instanceof ResultSet) {
-            return RESULT_SET_CLOSE_METHOD;
-        }
-        if (instance instanceof Statement) {
-            return STATEMENT_CLOSE_METHOD;
+        final Object result;
+        if (type == ResultSet.class) {
+            result = new OnCloseResultSet((ResultSet) instance, callablesExecuteOnClose);
+        } else if (type == PreparedStatement.class) {
+            result = new OnClosePreparedStatement((PreparedStatement) instance, callablesExecuteOnClose);
+        } else if (type == Statement.class) {
+            result = new OnCloseStatement<>((Statement) instance, callablesExecuteOnClose);
+        } else if (type == Connection.class) {
+            result = new OnCloseConnection((Connection) instance, callablesExecuteOnClose);
+        } else if (type == InputStream.class) {
+            result = new OnCloseInputStream((InputStream) instance, callablesExecuteOnClose);
+        } else if (type == Closeable.class) {
+            result = new OnCloseCloseable((Closeable) instance, callablesExecuteOnClose);
+        } else if (type == AutoCloseable.class) {
+            result = new OnCloseAutoCloseable(instance, callablesExecuteOnClose);
+        } else {
+            result = newProxyInstance(type.getClassLoader(), new Class[]{type}, new OnCloseInvocationHandler(type, instance, callablesExecuteOnClose));
         }
-        if (instance instanceof Connection) {
-            return CONNECTION_CLOSE_METHOD;
-        }
-        if (instance instanceof Closeable) {
-            return CLOSEABLE_CLOSE_METHOD;
-        }
-        return null;
+        return type.cast(result);
     }
 
     static void call(@Nullable Callable... callablesExecuteOnClose) throws Exception {
-        if (callablesExecuteOnClose != null) {
+        if (callablesExecuteOnClose == null) {
+            return;
+        }
+        final var event = new CloseHookEvent();
+        event.begin();
+        Exception failure = null;
+        try {
             for (final Callable callable : callablesExecuteOnClose) {
                 callable.call();
             }
+        } catch (final Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.hooks = callablesExecuteOnClose.length;
+                event.failure = failure != null ? failure.toString() : null;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Like {@link #call(Callable...)} but every checked exception which is not of the <code>declared</code> type is
+     * wrapped into an {@link UndeclaredThrowableException}.
+     */
+    static <E extends Exception> void call(@Nonnull Class<E> declared, @Nullable Callable... callablesExecuteOnClose) throws E {
+        try {
+            call(callablesExecuteOnClose);
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            if (declared.isInstance(e)) {
+                throw declared.cast(e);
+            }
+            throw new UndeclaredThrowableException(e);
         }
     }
 
@@ -2,46 +2,183 @@ package org.echocat.jsu;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Spliterator;
-import java.util.Spliterators.AbstractSpliterator;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-public class Batch<T> extends AbstractSpliterator<List<T>> {
+import static java.lang.Math.min;
+
+public class Batch<T> implements Spliterator<List<T>> {
+
+    static final int ARRAY_SPLIT_UNIT = 1;
+    static final int MAX_ARRAY_SPLIT_BATCHES = 1 << 10;
 
     @Nonnull
     private final Spliterator<? extends T> source;
     @Nonnull
     @Nonnegative
     private final Supplier<Integer> batchSize;
+    @Nonnegative
+    private final int fixedBatchSize;
+    @Nullable
+    private final List<T> tail;
+    @Nullable
+    private final StageMetrics metrics = StreamMetrics.stage(StreamMetrics.BATCH);
+    @Nonnegative
+    private int tailIndex;
+    @Nonnegative
+    private int arraySplitBatches;
 
     public Batch(
         @Nonnull Spliterator<? extends T> source,
         @Nonnegative @Nonnull Supplier<Integer> batchSize
     ) {
-        super(1, ORDERED | IMMUTABLE);
+        this(source, batchSize, 0, null);
+    }
+
+    public Batch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnegative int batchSize
+    ) {
+        this(source, () -> batchSize, requirePositive(batchSize), null);
+    }
+
+    protected Batch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnegative @Nonnull Supplier<Integer> batchSize,
+        @Nonnegative int fixedBatchSize,
+        @Nullable List<T> tail
+    ) {
         this.source = source;
         this.batchSize = batchSize;
+        this.fixedBatchSize = fixedBatchSize;
+        this.tail = tail;
     }
 
     @Override
     public boolean tryAdvance(@Nonnull Consumer<? super List<T>> consumer) {
+        final var metrics = metrics();
+        final var start = metrics != null ? System.nanoTime() : 0L;
+        final var event = new BatchEvent();
+        event.begin();
         final var batchSize = batchSize().get();
         final var batch = new ArrayList<T>(batchSize);
-        for (int i = 0; i < batchSize; i++) {
-            if (!source().tryAdvance(batch::add)) {
-                if (!batch.isEmpty()) {
-                    consumer.accept(batch);
-                }
-                return false;
-            }
+        final Consumer<T> adder = batch::add;
+        //noinspection StatementWithEmptyBody
+        while (batch.size() < batchSize && tryAdvanceElement(adder)) {}
+        if (batch.isEmpty()) {
+            return false;
+        }
+        if (metrics != null) {
+            metrics.recordBatch(batch.size(), batchSize, System.nanoTime() - start);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.size = batch.size();
+            event.capacity = batchSize;
+            event.commit();
         }
         consumer.accept(batch);
         return true;
     }
 
+    @Nullable
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        if (!isSplittable(batchSize())) {
+            return null;
+        }
+        if (source().hasCharacteristics(SUBSIZED)) {
+            return trySplitSource();
+        }
+        return trySplitIntoArray();
+    }
+
+    @Nullable
+    protected Spliterator<List<T>> trySplitSource() {
+        final var batchSize = batchSize().get();
+        if (source().estimateSize() <= batchSize) {
+            return null;
+        }
+        final Spliterator<? extends T> prefix = source().trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        // Fill up the last batch of the prefix from the front of the remaining elements, so the batches
+        // are exactly the same as without splitting.
+        final var prefixSize = prefix.getExactSizeIfKnown();
+        final var remainder = prefixSize > 0 ? (int) (prefixSize % batchSize) : 0;
+        List<T> carry = null;
+        if (remainder > 0) {
+            carry = new ArrayList<>(batchSize - remainder);
+            final Consumer<T> adder = carry::add;
+            //noinspection StatementWithEmptyBody
+            while (carry.size() < batchSize - remainder && tryAdvanceElement(adder)) {}
+        }
+        return new Batch<>(prefix, batchSize(), fixedBatchSize(), carry);
+    }
+
+    @Nullable
+    protected Spliterator<List<T>> trySplitIntoArray() {
+        if (estimateSize() <= 1) {
+            return null;
+        }
+        final var n = min(arraySplitBatches + ARRAY_SPLIT_UNIT, MAX_ARRAY_SPLIT_BATCHES);
+        final var batches = new ArrayList<List<T>>(n);
+        //noinspection StatementWithEmptyBody
+        while (batches.size() < n && tryAdvance(batches::add)) {}
+        if (batches.isEmpty()) {
+            return null;
+        }
+        arraySplitBatches = batches.size();
+        return batches.spliterator();
+    }
+
+    @Override
+    public long estimateSize() {
+        final var sourceSize = source().estimateSize();
+        if (sourceSize == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        final var elements = sourceSize + tailRemaining();
+        final var fixedBatchSize = fixedBatchSize();
+        if (fixedBatchSize > 0) {
+            return (elements + fixedBatchSize - 1) / fixedBatchSize;
+        }
+        // Every batch contains at least one element.
+        return elements;
+    }
+
+    @Override
+    public int characteristics() {
+        var result = ORDERED | IMMUTABLE | NONNULL;
+        if (fixedBatchSize() > 0) {
+            result |= source().characteristics() & (SIZED | SUBSIZED);
+        }
+        return result;
+    }
+
+    protected boolean tryAdvanceElement(@Nonnull Consumer<T> consumer) {
+        if (source().tryAdvance(consumer)) {
+            return true;
+        }
+        final var tail = this.tail;
+        if (tail != null && tailIndex < tail.size()) {
+            consumer.accept(tail.get(tailIndex++));
+            return true;
+        }
+        return false;
+    }
+
+    @Nonnegative
+    protected int tailRemaining() {
+        final var tail = this.tail;
+        return tail != null ? tail.size() - tailIndex : 0;
+    }
+
     @Nonnull
     protected Spliterator<? extends T> source() {
         return source;
@@ -52,4 +189,34 @@ public class Batch<T> extends AbstractSpliterator<List<T>> {
         return batchSize;
     }
 
+    /**
+     * @return the metrics of {@link StreamMetrics#BATCH} if instrumentation was enabled when this batch was created.
+     */
+    @Nullable
+    protected StageMetrics metrics() {
+        return metrics;
+    }
+
+    @Nonnegative
+    protected int fixedBatchSize() {
+        return fixedBatchSize;
+    }
+
+    /**
+     * An {@link AdaptiveBatchSize} measures the time between two of its {@link AdaptiveBatchSize#get() get()} calls,
+     * which is only meaningful for batches which are created one after another by the consumer; splitting would call
+     * it while buffering batches and from several threads.
+     */
+    static boolean isSplittable(@Nonnull Supplier<Integer> batchSize) {
+        return !(batchSize instanceof AdaptiveBatchSize);
+    }
+
+    @Nonnegative
+    static int requirePositive(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batchSize have to be positive but was " + batchSize + ".");
+        }
+        return batchSize;
+    }
+
 }
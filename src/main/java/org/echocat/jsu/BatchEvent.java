@@ -0,0 +1,28 @@
+package org.echocat.jsu;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The duration of this event is the time which was needed to fill the batch.
+ */
+@Name("org.echocat.jsu.Batch")
+@Label("Batch")
+@Description("A batch was produced by Batch.")
+@Category({"echocat", "Stream Utils"})
+@Enabled(false)
+@StackTrace(false)
+final class BatchEvent extends jdk.jfr.Event {
+
+    @Label("Size")
+    int size;
+
+    @Label("Capacity")
+    @Description("The requested batch size.")
+    int capacity;
+
+}
@@ -0,0 +1,40 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class BatchPool<T> {
+
+    @Nonnull
+    private final BlockingQueue<RecyclableBatch<T>> idle;
+
+    public BatchPool(@Nonnegative int maximumIdle) {
+        if (maximumIdle <= 0) {
+            throw new IllegalArgumentException("The maximumIdle have to be positive but was " + maximumIdle + ".");
+        }
+        idle = new ArrayBlockingQueue<>(maximumIdle);
+    }
+
+    @Nonnull
+    public RecyclableBatch<T> acquire(@Nonnegative int capacity) {
+        final var candidate = idle.poll();
+        if (candidate == null) {
+            return new RecyclableBatch<>(this, capacity);
+        }
+        candidate.reuse(capacity);
+        return candidate;
+    }
+
+    protected void release(@Nonnull RecyclableBatch<T> batch) {
+        //noinspection ResultOfMethodCallIgnored
+        idle.offer(batch);
+    }
+
+    @Nonnegative
+    public int idle() {
+        return idle.size();
+    }
+
+}
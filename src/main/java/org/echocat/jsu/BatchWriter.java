@@ -0,0 +1,238 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+import org.echocat.jsu.support.SqlBiConsumer;
+import org.echocat.jsu.support.UncheckedSqlException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import static org.echocat.jsu.AutoCloseableUtils.closeQuietly;
+import static org.echocat.jsu.Batch.requirePositive;
+import static org.echocat.jsu.JdbcUtils.callQuietly;
+
+/**
+ * Binds every accepted element to a {@link PreparedStatement} using {@link PreparedStatement#addBatch()} and executes
+ * the batch every <code>batchSize</code> elements. If <code>commitEveryBatches</code> is positive auto commit is disabled
+ * while writing and the connection is committed every <code>commitEveryBatches</code> batches and on {@link #close()}.
+ * If writing fails (or {@link #abort()} is called) everything since the last commit is rolled back instead.
+ *
+ * <p>Most drivers still send every element of a batch as a single statement. Use {@link #withRewriteHints(Properties)}
+ * on the properties of the connection to let PostgreSQL and MySQL rewrite a batch into a multi row insert.</p>
+ */
+public class BatchWriter<T> implements Consumer<T>, AutoCloseable {
+
+    /**
+     * Connection property of the PostgreSQL driver to rewrite batched inserts into multi row inserts.
+     */
+    public static final String POSTGRESQL_REWRITE_PROPERTY = "reWriteBatchedInserts";
+    /**
+     * Connection property of the MySQL driver to rewrite batched statements into multi row statements.
+     */
+    public static final String MYSQL_REWRITE_PROPERTY = "rewriteBatchedStatements";
+
+    @Nonnull
+    private final Connection connection;
+    @Nonnull
+    private final PreparedStatement statement;
+    @Nonnull
+    private final SqlBiConsumer<PreparedStatement, ? super T> binder;
+    @Nonnegative
+    private final int batchSize;
+    @Nonnegative
+    private final int commitEveryBatches;
+    @Nullable
+    private final Consumer<int[]> onBatch;
+    @Nonnull
+    private final Callable restoreConnection;
+
+    @Nonnegative
+    private int pending;
+    @Nonnegative
+    private long batches;
+    @Nonnegative
+    private long written;
+    private boolean closed;
+    private boolean failed;
+
+    public BatchWriter(
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nonnull SqlBiConsumer<PreparedStatement, ? super T> binder,
+        @Nonnegative int batchSize,
+        @Nonnegative int commitEveryBatches,
+        @Nullable Consumer<int[]> onBatch
+    ) throws SQLException {
+        if (commitEveryBatches < 0) {
+            throw new IllegalArgumentException("The commitEveryBatches have to be positive or 0 but was " + commitEveryBatches + ".");
+        }
+        this.connection = connection;
+        this.binder = binder;
+        this.batchSize = requirePositive(batchSize);
+        this.commitEveryBatches = commitEveryBatches;
+        this.onBatch = onBatch;
+        this.restoreConnection = commitEveryBatches > 0
+            ? StreamingOptions.defaults().withAutoCommit(false).applyTo(connection)
+            : () -> {};
+        try {
+            this.statement = connection.prepareStatement(sql);
+        } catch (final SQLException | RuntimeException | Error e) {
+            callQuietly(restoreConnection);
+            throw e;
+        }
+    }
+
+    @Nonnull
+    public static Properties withRewriteHints(@Nonnull Properties connectionProperties) {
+        connectionProperties.setProperty(POSTGRESQL_REWRITE_PROPERTY, "true");
+        connectionProperties.setProperty(MYSQL_REWRITE_PROPERTY, "true");
+        return connectionProperties;
+    }
+
+    @Override
+    public void accept(T element) {
+        if (closed) {
+            throw new IllegalStateException("Writer is already closed.");
+        }
+        try {
+            binder().accept(statement(), element);
+            statement().addBatch();
+            if (++pending >= batchSize()) {
+                flush();
+            }
+        } catch (final SQLException e) {
+            failed = true;
+            throw new UncheckedSqlException(e);
+        } catch (final RuntimeException | Error e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Executes all pending elements as one batch.
+     */
+    public void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        final int[] counts;
+        try {
+            counts = statement().executeBatch();
+        } catch (final SQLException | RuntimeException | Error e) {
+            failed = true;
+            throw e;
+        }
+        batches++;
+        written += pending;
+        pending = 0;
+        final var onBatch = onBatch();
+        if (onBatch != null) {
+            onBatch.accept(counts);
+        }
+        if (commitEveryBatches() > 0 && batches % commitEveryBatches() == 0) {
+            connection().commit();
+        }
+    }
+
+    /**
+     * Flushes and commits the pending elements, closes the statement and restores the auto commit mode of the
+     * connection. The connection itself stays open. If writing failed before or fails now, everything since the last
+     * commit is rolled back instead.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!failed) {
+                flush();
+                if (commitEveryBatches() > 0 && batches % commitEveryBatches() != 0) {
+                    connection().commit();
+                }
+            }
+        } catch (final SQLException e) {
+            failed = true;
+            throw new UncheckedSqlException(e);
+        } catch (final RuntimeException | Error e) {
+            failed = true;
+            throw e;
+        } finally {
+            if (failed) {
+                rollbackQuietly();
+            }
+            closeQuietly(statement());
+            callQuietly(restoreConnection);
+        }
+    }
+
+    /**
+     * Discards the pending elements, rolls back everything since the last commit and closes this writer like
+     * {@link #close()}. Use it if the source of the elements failed.
+     */
+    public void abort() {
+        failed = true;
+        close();
+    }
+
+    protected void rollbackQuietly() {
+        if (commitEveryBatches() > 0) {
+            callQuietly(() -> connection().rollback());
+        }
+    }
+
+    /**
+     * @return number of executed batches.
+     */
+    @Nonnegative
+    public long batches() {
+        return batches;
+    }
+
+    /**
+     * @return number of elements which were executed as part of a batch.
+     */
+    @Nonnegative
+    public long written() {
+        return written;
+    }
+
+    @Nonnull
+    protected Connection connection() {
+        return connection;
+    }
+
+    @Nonnull
+    protected PreparedStatement statement() {
+        return statement;
+    }
+
+    @Nonnull
+    protected SqlBiConsumer<PreparedStatement, ? super T> binder() {
+        return binder;
+    }
+
+    @Nonnegative
+    protected int batchSize() {
+        return batchSize;
+    }
+
+    @Nonnegative
+    protected int commitEveryBatches() {
+        return commitEveryBatches;
+    }
+
+    @Nullable
+    protected Consumer<int[]> onBatch() {
+        return onBatch;
+    }
+
+}
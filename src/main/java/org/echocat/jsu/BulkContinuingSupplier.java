@@ -0,0 +1,103 @@
+package org.echocat.jsu;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.echocat.jsu.BulkGenerator.END;
+
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+public class BulkContinuingSupplier<T> extends AbstractSpliterator<T> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /**
+     * Number of consecutive calls without elements after which the thread is parked instead of spinning.
+     */
+    static final int SPINS = 64;
+    static final long MIN_PARK_NANOS = MICROSECONDS.toNanos(1);
+    static final long MAX_PARK_NANOS = MILLISECONDS.toNanos(1);
+
+    @Nonnull
+    private final BulkGenerator<? extends T> generator;
+    @Nonnegative
+    private final int chunkSize;
+    private boolean ended;
+    @Nonnegative
+    private int emptyCalls;
+
+    public BulkContinuingSupplier(@Nonnull BulkGenerator<? extends T> generator) {
+        this(generator, DEFAULT_CHUNK_SIZE);
+    }
+
+    public BulkContinuingSupplier(@Nonnull BulkGenerator<? extends T> generator, @Nonnegative int chunkSize) {
+        super(Long.MAX_VALUE, ORDERED | IMMUTABLE);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunkSize have to be positive but was " + chunkSize + ".");
+        }
+        this.generator = generator;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (!ended) {
+            final var generated = generator().generateInto(action, 1);
+            if (generated == END) {
+                ended = true;
+            } else if (generated > 0) {
+                emptyCalls = 0;
+                return true;
+            } else {
+                backOff();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        final var generator = generator();
+        final var chunkSize = chunkSize();
+        while (!ended) {
+            final var generated = generator.generateInto(action, chunkSize);
+            if (generated == END) {
+                ended = true;
+            } else if (generated > 0) {
+                emptyCalls = 0;
+            } else {
+                backOff();
+            }
+        }
+    }
+
+    /**
+     * Called if the generator currently has nothing available: spins for some calls and parks the thread with an
+     * increasing duration (up to a millisecond) afterwards, so waiting does not burn a core.
+     */
+    protected void backOff() {
+        final var emptyCalls = ++this.emptyCalls;
+        if (emptyCalls <= SPINS) {
+            Thread.onSpinWait();
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Interrupted while waiting for the next elements.");
+        }
+        LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, MIN_PARK_NANOS << Math.min(emptyCalls - SPINS, 20)));
+    }
+
+    @Nonnull
+    protected BulkGenerator<? extends T> generator() {
+        return generator;
+    }
+
+    @Nonnegative
+    protected int chunkSize() {
+        return chunkSize;
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.echocat.jsu;
+
+import java.util.function.Consumer;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+@FunctionalInterface
+public interface BulkGenerator<T> {
+
+    int END = -1;
+
+    /**
+     * Passes up to <code>max</code> elements to the given <code>sink</code>.
+     *
+     * @return the number of elements which were passed to the <code>sink</code> (could be <code>0</code> if currently
+     * nothing is available; the caller backs off before it asks again) or {@link #END} if there will be no more
+     * elements.
+     */
+    int generateInto(@Nonnull Consumer<? super T> sink, @Nonnegative int max);
+
+    @Nonnull
+    static <T> BulkGenerator<T> of(@Nonnull Generator<? extends T> generator) {
+        return new BulkGenerator<>() {
+            private boolean ended;
+
+            @Override
+            public int generateInto(@Nonnull Consumer<? super T> sink, @Nonnegative int max) {
+                if (ended) {
+                    return END;
+                }
+                for (int i = 0; i < max; i++) {
+                    final var next = generator.generate();
+                    if (next.isEmpty()) {
+                        ended = true;
+                        return i > 0 ? i : END;
+                    }
+                    sink.accept(next.get());
+                }
+                return max;
+            }
+        };
+    }
+
+}
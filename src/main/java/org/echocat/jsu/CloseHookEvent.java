@@ -0,0 +1,27 @@
+package org.echocat.jsu;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The duration of this event is the time which was needed to run all close hooks of
+ * {@link AutoCloseableUtils#doOnClose(Class, AutoCloseable, org.echocat.jsu.support.Callable...)}.
+ */
+@Name("org.echocat.jsu.CloseHook")
+@Label("Close Hooks")
+@Description("Close hooks registered using AutoCloseableUtils.doOnClose() were executed.")
+@Category({"echocat", "Stream Utils"})
+@Enabled(false)
+final class CloseHookEvent extends jdk.jfr.Event {
+
+    @Label("Hooks")
+    int hooks;
+
+    @Label("Failure")
+    @Description("The exception thrown by a hook, if any.")
+    String failure;
+
+}
@@ -0,0 +1,234 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Holds up to <code>capacity</code> rows of a {@link ResultSet} as one primitive array per column plus a bitmap per
+ * column which marks the <code>NULL</code> values. Columns are addressed by their position starting with
+ * <code>0</code>. Instances are reused by {@link ColumnarBatch}; they must not be used after the next batch was
+ * requested.
+ */
+public class ColumnVectors {
+
+    public enum Type {
+        INT,
+        LONG,
+        DOUBLE,
+        BYTES,
+        STRING;
+
+        /**
+         * @return the type for the given {@link Types SQL type}. Decimals are represented as {@link #STRING} to not
+         * lose precision.
+         */
+        @Nonnull
+        public static Type of(int sqlType) {
+            switch (sqlType) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                    return INT;
+                case Types.BIGINT:
+                    return LONG;
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return DOUBLE;
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.LONGVARBINARY:
+                case Types.BLOB:
+                    return BYTES;
+                default:
+                    return STRING;
+            }
+        }
+    }
+
+    @Nonnull
+    private final Type[] types;
+    @Nonnull
+    private final Object[] vectors;
+    @Nonnull
+    private final BitSet[] nulls;
+    @Nonnegative
+    private final int capacity;
+    @Nonnegative
+    private int size;
+
+    public ColumnVectors(@Nonnull Type[] types, @Nonnegative int capacity) {
+        this.types = types.clone();
+        this.capacity = Batch.requirePositive(capacity);
+        this.vectors = new Object[types.length];
+        this.nulls = new BitSet[types.length];
+        for (int column = 0; column < types.length; column++) {
+            vectors[column] = vectorFor(types[column], capacity);
+            nulls[column] = new BitSet(capacity);
+        }
+    }
+
+    /**
+     * Replaces the content with up to {@link #capacity()} rows of the given <code>resultSet</code>.
+     *
+     * @return <code>false</code> if there are no more rows.
+     */
+    public boolean fill(@Nonnull ResultSet resultSet) throws SQLException {
+        final var previousSize = size;
+        size = 0;
+        for (final var bitmap : nulls) {
+            bitmap.clear();
+        }
+        while (size < capacity && resultSet.next()) {
+            for (int column = 0; column < types.length; column++) {
+                read(resultSet, column, size);
+            }
+            size++;
+        }
+        for (int column = 0; size < previousSize && column < types.length; column++) {
+            if (types[column] == Type.BYTES || types[column] == Type.STRING) {
+                // Do not retain the values of the previous batch.
+                Arrays.fill((Object[]) vectors[column], size, previousSize, null);
+            }
+        }
+        return size > 0;
+    }
+
+    protected void read(@Nonnull ResultSet resultSet, @Nonnegative int column, @Nonnegative int row) throws SQLException {
+        final var columnIndex = column + 1;
+        switch (types[column]) {
+            case INT: {
+                final var value = resultSet.getInt(columnIndex);
+                ((int[]) vectors[column])[row] = value;
+                if (value == 0 && resultSet.wasNull()) {
+                    nulls[column].set(row);
+                }
+                break;
+            }
+            case LONG: {
+                final var value = resultSet.getLong(columnIndex);
+                ((long[]) vectors[column])[row] = value;
+                if (value == 0L && resultSet.wasNull()) {
+                    nulls[column].set(row);
+                }
+                break;
+            }
+            case DOUBLE: {
+                final var value = resultSet.getDouble(columnIndex);
+                ((double[]) vectors[column])[row] = value;
+                if (value == 0D && resultSet.wasNull()) {
+                    nulls[column].set(row);
+                }
+                break;
+            }
+            case BYTES: {
+                final var value = resultSet.getBytes(columnIndex);
+                ((byte[][]) vectors[column])[row] = value;
+                if (value == null) {
+                    nulls[column].set(row);
+                }
+                break;
+            }
+            default: {
+                final var value = resultSet.getString(columnIndex);
+                ((String[]) vectors[column])[row] = value;
+                if (value == null) {
+                    nulls[column].set(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of rows; only the first <code>size</code> elements of every vector are valid.
+     */
+    @Nonnegative
+    public int size() {
+        return size;
+    }
+
+    @Nonnegative
+    public int capacity() {
+        return capacity;
+    }
+
+    @Nonnegative
+    public int columnCount() {
+        return types.length;
+    }
+
+    @Nonnull
+    public Type type(@Nonnegative int column) {
+        return types[column];
+    }
+
+    @Nonnull
+    public int[] ints(@Nonnegative int column) {
+        return vector(column, Type.INT);
+    }
+
+    @Nonnull
+    public long[] longs(@Nonnegative int column) {
+        return vector(column, Type.LONG);
+    }
+
+    @Nonnull
+    public double[] doubles(@Nonnegative int column) {
+        return vector(column, Type.DOUBLE);
+    }
+
+    @Nonnull
+    public byte[][] bytes(@Nonnegative int column) {
+        return vector(column, Type.BYTES);
+    }
+
+    @Nonnull
+    public String[] strings(@Nonnegative int column) {
+        return vector(column, Type.STRING);
+    }
+
+    /**
+     * @return the bitmap which has a bit set for every row which is <code>NULL</code> in the given column.
+     */
+    @Nonnull
+    public BitSet nulls(@Nonnegative int column) {
+        return nulls[column];
+    }
+
+    public boolean isNull(@Nonnegative int column, @Nonnegative int row) {
+        return nulls[column].get(row);
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private <V> V vector(@Nonnegative int column, @Nonnull Type expected) {
+        if (types[column] != expected) {
+            throw new IllegalArgumentException("Column " + column + " is of type " + types[column] + " and not " + expected + ".");
+        }
+        return (V) vectors[column];
+    }
+
+    @Nonnull
+    private static Object vectorFor(@Nonnull Type type, @Nonnegative int capacity) {
+        switch (type) {
+            case INT:
+                return new int[capacity];
+            case LONG:
+                return new long[capacity];
+            case DOUBLE:
+                return new double[capacity];
+            case BYTES:
+                return new byte[capacity][];
+            default:
+                return new String[capacity];
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.UncheckedSqlException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.function.Consumer;
+
+/**
+ * Reads a {@link ResultSet} into {@link ColumnVectors} of up to <code>batchSize</code> rows. The same
+ * {@link ColumnVectors} instance is refilled for every batch, so it never splits: buffered batches would all be the
+ * same instance holding only the last rows read.
+ */
+public class ColumnarBatch extends AbstractSpliterator<ColumnVectors> {
+
+    @Nonnull
+    private final ResultSet source;
+    @Nullable
+    private final ColumnVectors.Type[] types;
+    @Nonnegative
+    private final int batchSize;
+
+    @Nullable
+    private ColumnVectors vectors;
+    private boolean exhausted;
+
+    /**
+     * @param types the types of the columns or <code>null</code> to derive them from the {@link ResultSet#getMetaData() meta data}.
+     */
+    public ColumnarBatch(@Nonnull ResultSet source, @Nullable ColumnVectors.Type[] types, @Nonnegative int batchSize) {
+        super(Long.MAX_VALUE, ORDERED | NONNULL);
+        this.source = source;
+        this.types = types;
+        this.batchSize = Batch.requirePositive(batchSize);
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super ColumnVectors> action) {
+        if (exhausted) {
+            return false;
+        }
+        try {
+            final var vectors = vectors();
+            if (!vectors.fill(source())) {
+                exhausted = true;
+                return false;
+            }
+            // A partially filled batch means the result set has no more rows; do not call next() again.
+            exhausted = vectors.size() < vectors.capacity();
+            action.accept(vectors);
+            return true;
+        } catch (final SQLException e) {
+            throw new UncheckedSqlException(e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<ColumnVectors> trySplit() {
+        return null;
+    }
+
+    @Nonnull
+    protected ColumnVectors vectors() throws SQLException {
+        var result = vectors;
+        if (result == null) {
+            var types = this.types;
+            if (types == null) {
+                final var metaData = source().getMetaData();
+                types = new ColumnVectors.Type[metaData.getColumnCount()];
+                for (int column = 0; column < types.length; column++) {
+                    types[column] = ColumnVectors.Type.of(metaData.getColumnType(column + 1));
+                }
+            }
+            result = new ColumnVectors(types, batchSize());
+            vectors = result;
+        }
+        return result;
+    }
+
+    @Nonnull
+    protected ResultSet source() {
+        return source;
+    }
+
+    @Nonnegative
+    protected int batchSize() {
+        return batchSize;
+    }
+
+}
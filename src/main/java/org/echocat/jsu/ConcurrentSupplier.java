@@ -0,0 +1,66 @@
+package org.echocat.jsu;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Calls a thread safe {@link Generator} from every split without any encounter order (it does not report
+ * {@link #ORDERED}). Splits share the generator and halve the estimated size, so a parallel stream creates some
+ * splits per worker thread and then every thread pulls from the generator directly instead of buffering elements
+ * into arrays like {@link ContinuingSupplier}.
+ */
+public class ConcurrentSupplier<T> implements Spliterator<T> {
+
+    @Nonnull
+    private final Generator<? extends T> generator;
+    @Nonnegative
+    private long estimatedSize;
+
+    public ConcurrentSupplier(@Nonnull Generator<? extends T> generator) {
+        this(generator, Long.MAX_VALUE);
+    }
+
+    protected ConcurrentSupplier(@Nonnull Generator<? extends T> generator, @Nonnegative long estimatedSize) {
+        this.generator = generator;
+        this.estimatedSize = estimatedSize;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super T> action) {
+        final var next = generator().generate();
+        if (next.isEmpty()) {
+            return false;
+        }
+        action.accept(next.get());
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<T> trySplit() {
+        if (estimatedSize <= 1) {
+            return null;
+        }
+        estimatedSize >>>= 1;
+        return new ConcurrentSupplier<>(generator(), estimatedSize);
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return CONCURRENT;
+    }
+
+    @Nonnull
+    protected Generator<? extends T> generator() {
+        return generator;
+    }
+
+}
@@ -1,7 +1,11 @@
 package org.echocat.jsu;
 
+import java.util.Spliterators;
 import java.util.Spliterators.AbstractSpliterator;
 import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 import javax.annotation.Nonnull;
 
 public class ContinuingSupplier<T> extends AbstractSpliterator<T> {
@@ -29,4 +33,70 @@ public class ContinuingSupplier<T> extends AbstractSpliterator<T> {
         return generator;
     }
 
+    public static class OfInt extends Spliterators.AbstractIntSpliterator {
+
+        @Nonnull
+        private final IntGenerator generator;
+
+        public OfInt(@Nonnull IntGenerator generator) {
+            super(Long.MAX_VALUE, ORDERED | IMMUTABLE);
+            this.generator = generator;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            return generator().generate(action);
+        }
+
+        @Nonnull
+        protected IntGenerator generator() {
+            return generator;
+        }
+
+    }
+
+    public static class OfLong extends Spliterators.AbstractLongSpliterator {
+
+        @Nonnull
+        private final LongGenerator generator;
+
+        public OfLong(@Nonnull LongGenerator generator) {
+            super(Long.MAX_VALUE, ORDERED | IMMUTABLE);
+            this.generator = generator;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            return generator().generate(action);
+        }
+
+        @Nonnull
+        protected LongGenerator generator() {
+            return generator;
+        }
+
+    }
+
+    public static class OfDouble extends Spliterators.AbstractDoubleSpliterator {
+
+        @Nonnull
+        private final DoubleGenerator generator;
+
+        public OfDouble(@Nonnull DoubleGenerator generator) {
+            super(Long.MAX_VALUE, ORDERED | IMMUTABLE);
+            this.generator = generator;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            return generator().generate(action);
+        }
+
+        @Nonnull
+        protected DoubleGenerator generator() {
+            return generator;
+        }
+
+    }
+
 }
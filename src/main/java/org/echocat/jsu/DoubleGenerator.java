@@ -0,0 +1,15 @@
+package org.echocat.jsu;
+
+import java.util.function.DoubleConsumer;
+import javax.annotation.Nonnull;
+
+@FunctionalInterface
+public interface DoubleGenerator {
+
+    /**
+     * @return <code>true</code> if a next value exists and was passed to the given <code>target</code> or
+     * <code>false</code> if the end was reached.
+     */
+    boolean generate(@Nonnull DoubleConsumer target);
+
+}
@@ -0,0 +1,98 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Counts the elements of the <code>source</code> into the given <code>metrics</code>. To keep the counters cheap the
+ * elements are counted locally and added every {@value #FLUSH_EVERY} elements, at the end and on {@link #flush()}.
+ */
+public class InstrumentedSpliterator<T> implements Spliterator<T> {
+
+    static final int FLUSH_EVERY = 1024;
+
+    @Nonnull
+    private final Spliterator<T> source;
+    @Nonnull
+    private final StageMetrics metrics;
+
+    private long unflushed;
+
+    public InstrumentedSpliterator(@Nonnull Spliterator<T> source, @Nonnull StageMetrics metrics) {
+        this.source = source;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super T> action) {
+        if (!source().tryAdvance(action)) {
+            flush();
+            return false;
+        }
+        if (++unflushed >= FLUSH_EVERY) {
+            flush();
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(@Nonnull Consumer<? super T> action) {
+        try {
+            source().forEachRemaining(element -> {
+                unflushed++;
+                action.accept(element);
+            });
+        } finally {
+            flush();
+        }
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<T> trySplit() {
+        final var prefix = source().trySplit();
+        return prefix != null ? new InstrumentedSpliterator<>(prefix, metrics()) : null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source().estimateSize();
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return source().getExactSizeIfKnown();
+    }
+
+    @Override
+    public int characteristics() {
+        return source().characteristics();
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source().getComparator();
+    }
+
+    public void flush() {
+        final var unflushed = this.unflushed;
+        if (unflushed > 0) {
+            this.unflushed = 0;
+            metrics().recordElements(unflushed);
+        }
+    }
+
+    @Nonnull
+    protected Spliterator<T> source() {
+        return source;
+    }
+
+    @Nonnull
+    protected StageMetrics metrics() {
+        return metrics;
+    }
+
+}
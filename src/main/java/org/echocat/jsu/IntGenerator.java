@@ -0,0 +1,15 @@
+package org.echocat.jsu;
+
+import java.util.function.IntConsumer;
+import javax.annotation.Nonnull;
+
+@FunctionalInterface
+public interface IntGenerator {
+
+    /**
+     * @return <code>true</code> if a next value exists and was passed to the given <code>target</code> or
+     * <code>false</code> if the end was reached.
+     */
+    boolean generate(@Nonnull IntConsumer target);
+
+}
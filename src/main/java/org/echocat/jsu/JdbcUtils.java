@@ -1,32 +1,36 @@
 package org.echocat.jsu;
 
 import static org.echocat.jsu.AutoCloseableUtils.closeQuietly;
+import static org.echocat.jsu.StreamMetrics.RESULT_SET;
 import static org.echocat.jsu.StreamUtils.generate;
+import static org.echocat.jsu.support.Threads.threadFactory;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+import org.echocat.jsu.support.Callable;
+import org.echocat.jsu.support.SqlBiConsumer;
 import org.echocat.jsu.support.SqlFunction;
+import org.echocat.jsu.support.SqlSupplier;
 import org.echocat.jsu.support.UncheckedSqlException;
 
 public final class JdbcUtils {
 
     @Nonnull
     public static Stream<ResultSet> toStream(@Nonnull ResultSet resultSet) {
-        return generate(() -> {
-            try {
-                if (!resultSet.next()) {
-                    return Optional.empty();
-                }
-                return Optional.of(resultSet);
-            } catch (final SQLException e) {
-                throw new UncheckedSqlException(e);
-            }
-        }).onClose(() -> closeQuietly(resultSet));
+        return LeakDetector.track(rowsOf(resultSet), resultSet);
     }
 
     @Nonnull
@@ -46,4 +50,258 @@ public final class JdbcUtils {
         });
     }
 
+    /**
+     * Like {@link #toStream(ResultSet, SqlFunction)} but the rows are read and mapped by a background thread up to
+     * <code>depth</code> rows ahead of the consumer. See {@link ResultSetPrefetch}.
+     */
+    @Nonnull
+    public static <T> Stream<T> toPrefetchingStream(@Nonnull ResultSet resultSet, @Nonnull SqlFunction<ResultSet, T> mapper, int depth) {
+        return toPrefetchingStream(resultSet, mapper, depth, threadFactory("jsu-result-set-"));
+    }
+
+    @Nonnull
+    public static <T> Stream<T> toPrefetchingStream(@Nonnull ResultSet resultSet, @Nonnull SqlFunction<ResultSet, T> mapper, int depth, @Nonnull ThreadFactory threadFactory) {
+        final var prefetch = new ResultSetPrefetch<>(resultSet, mapper, depth, threadFactory);
+        return StreamSupport.stream(prefetch, false)
+            .onClose(prefetch::close);
+    }
+
+    /**
+     * Streams the given <code>resultSet</code> as batches of up to <code>batchSize</code> rows with one primitive
+     * array per column. The same {@link ColumnVectors} instance is refilled for every batch, so it must not be used
+     * after the next batch was requested.
+     */
+    @Nonnull
+    public static Stream<ColumnVectors> toColumnarStream(@Nonnull ResultSet resultSet, int batchSize) {
+        return toColumnarStream(resultSet, null, batchSize);
+    }
+
+    /**
+     * @param types the types of the columns or <code>null</code> to derive them from the meta data of the <code>resultSet</code>.
+     */
+    @Nonnull
+    public static Stream<ColumnVectors> toColumnarStream(@Nonnull ResultSet resultSet, @Nullable ColumnVectors.Type[] types, int batchSize) {
+        return StreamSupport.stream(new ColumnarBatch(resultSet, types, batchSize), false)
+            .onClose(() -> closeQuietly(resultSet));
+    }
+
+    @Nonnull
+    public static <T> Stream<T> stream(
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nullable List<?> params,
+        @Nonnull StreamingOptions options,
+        @Nonnull SqlFunction<ResultSet, T> mapper
+    ) {
+        try {
+            final var restoreConnection = options.applyTo(connection);
+            PreparedStatement statement = null;
+            try {
+                statement = connection.prepareStatement(sql, options.resultSetType(), options.resultSetConcurrency());
+                options.applyTo(statement);
+                bind(statement, params);
+                final var resultSet = statement.executeQuery();
+                final var finalStatement = statement;
+                final AutoCloseable closeLeaked = () -> {
+                    closeQuietly(resultSet);
+                    closeQuietly(finalStatement);
+                    callQuietly(restoreConnection);
+                };
+                return LeakDetector.track(rowsOf(resultSet, mapper)
+                    .onClose(() -> closeQuietly(finalStatement))
+                    .onClose(() -> callQuietly(restoreConnection)), closeLeaked);
+            } catch (final SQLException | RuntimeException | Error e) {
+                closeQuietly(statement);
+                callQuietly(restoreConnection);
+                throw e;
+            }
+        } catch (final SQLException e) {
+            throw new UncheckedSqlException(e);
+        }
+    }
+
+    @Nonnull
+    public static <T> Stream<T> stream(
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nonnull StreamingOptions options,
+        @Nonnull SqlFunction<ResultSet, T> mapper
+    ) {
+        return stream(connection, sql, null, options, mapper);
+    }
+
+    /**
+     * Streams the result of a keyset paginated query: every page of at most <code>pageSize</code> rows is read by its
+     * own short query which starts after the key of the last row of the previous page. See {@link KeysetPages} for
+     * the requirements of <code>sql</code>; the key has to be unique and has to be the column of the
+     * <code>ORDER BY</code>, otherwise rows are skipped or read twice.
+     *
+     * @param startAfter the key after which the stream starts. Use the key of the last consumed element to resume a
+     *                   stream.
+     * @param prefetch   if <code>true</code> the next page is read in background while the current one is consumed.
+     *                   The queries then run on the given <code>connection</code> from another thread, so it must not
+     *                   be used by anyone else until the stream is closed; closing waits for a running query.
+     */
+    @Nonnull
+    public static <T, K> Stream<T> streamByKeyset(
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nullable List<?> params,
+        @Nonnull K startAfter,
+        int pageSize,
+        @Nonnull SqlFunction<ResultSet, K> keyOf,
+        @Nonnull SqlFunction<ResultSet, T> mapper,
+        boolean prefetch
+    ) {
+        final var pages = generate(new KeysetPages<>(connection, sql, params, startAfter, pageSize, keyOf, mapper));
+        return (prefetch ? StreamUtils.prefetch(pages, 1) : pages)
+            .flatMap(List::stream);
+    }
+
+    @Nonnull
+    public static <T, K> Stream<T> streamByKeyset(
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nonnull K startAfter,
+        int pageSize,
+        @Nonnull SqlFunction<ResultSet, K> keyOf,
+        @Nonnull SqlFunction<ResultSet, T> mapper
+    ) {
+        return streamByKeyset(connection, sql, null, startAfter, pageSize, keyOf, mapper, false);
+    }
+
+    /**
+     * Streams the key range <code>[from, to)</code> of a query in parallel: the range is divided into
+     * <code>partitions</code> partitions which are read using their own connection of <code>connections</code>. See
+     * {@link PartitionedScan} for the requirements of <code>sql</code>. Closing the stream closes every cursor and
+     * connection which is still open.
+     */
+    @Nonnull
+    public static <T> Stream<T> streamPartitioned(
+        @Nonnull SqlSupplier<Connection> connections,
+        @Nonnull String sql,
+        @Nullable List<?> params,
+        long from,
+        long to,
+        int partitions,
+        @Nonnull LongFunction<?> toParameter,
+        @Nonnull StreamingOptions options,
+        @Nonnull SqlFunction<ResultSet, T> mapper
+    ) {
+        final var scan = new PartitionedScan<>(connections, sql, params, from, to, partitions, toParameter, options, mapper);
+        return StreamSupport.stream(scan, true)
+            .onClose(scan::close);
+    }
+
+    @Nonnull
+    public static <T> Stream<T> streamPartitioned(
+        @Nonnull SqlSupplier<Connection> connections,
+        @Nonnull String sql,
+        @Nullable List<?> params,
+        long from,
+        long to,
+        int partitions,
+        @Nonnull StreamingOptions options,
+        @Nonnull SqlFunction<ResultSet, T> mapper
+    ) {
+        return streamPartitioned(connections, sql, params, from, to, partitions, key -> key, options, mapper);
+    }
+
+    /**
+     * Writes all elements of the given sequential <code>stream</code> using a {@link BatchWriter}.
+     *
+     * @return the number of written elements.
+     */
+    public static <T> long write(
+        @Nonnull Stream<? extends T> stream,
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nonnull SqlBiConsumer<PreparedStatement, ? super T> binder,
+        int batchSize
+    ) {
+        return write(stream, connection, sql, binder, batchSize, 0, null);
+    }
+
+    /**
+     * Writes all elements of the given sequential <code>stream</code> using a {@link BatchWriter}. If the stream,
+     * the <code>binder</code> or the database fails, everything since the last commit is rolled back, the statement
+     * is closed and the auto commit mode of the <code>connection</code> is restored.
+     *
+     * @return the number of written elements.
+     */
+    public static <T> long write(
+        @Nonnull Stream<? extends T> stream,
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nonnull SqlBiConsumer<PreparedStatement, ? super T> binder,
+        int batchSize,
+        int commitEveryBatches,
+        @Nullable Consumer<int[]> onBatch
+    ) {
+        if (stream.isParallel()) {
+            throw new IllegalArgumentException("The stream have to be sequential but was parallel.");
+        }
+        final BatchWriter<T> writer;
+        try {
+            writer = new BatchWriter<>(connection, sql, binder, batchSize, commitEveryBatches, onBatch);
+        } catch (final SQLException e) {
+            throw new UncheckedSqlException(e);
+        }
+        try {
+            stream.forEach(writer);
+        } catch (final RuntimeException | Error e) {
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+        return writer.written();
+    }
+
+    public static void bind(@Nonnull PreparedStatement statement, @Nullable List<?> params) throws SQLException {
+        if (params != null) {
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+        }
+    }
+
+    /**
+     * Like {@link #toStream(ResultSet, SqlFunction)} but not tracked by the {@link LeakDetector}.
+     */
+    @Nonnull
+    static <T> Stream<T> rowsOf(@Nonnull ResultSet resultSet, @Nonnull SqlFunction<ResultSet, T> mapper) {
+        return rowsOf(resultSet).map(unchecked(mapper));
+    }
+
+    @Nonnull
+    private static Stream<ResultSet> rowsOf(@Nonnull ResultSet resultSet) {
+        return StreamMetrics.stream(SpliteratorUtils.generate(StreamMetrics.timed(() -> {
+            try {
+                if (!resultSet.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(resultSet);
+            } catch (final SQLException e) {
+                throw new UncheckedSqlException(e);
+            }
+        }, RESULT_SET)), false, RESULT_SET).onClose(() -> closeQuietly(resultSet));
+    }
+
+    @Nonnull
+    private static <T> Function<ResultSet, T> unchecked(@Nonnull SqlFunction<ResultSet, T> mapper) {
+        return input -> {
+            try {
+                return mapper.apply(input);
+            } catch (final SQLException e) {
+                throw new UncheckedSqlException(e);
+            }
+        };
+    }
+
+    static void callQuietly(@Nonnull Callable callable) {
+        try {
+            callable.call();
+        } catch (final Exception ignored) {}
+    }
+
 }
@@ -0,0 +1,61 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnull;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Registers every stage as MXBean named <code>org.echocat.jsu:type=StreamStage,name=&lt;stage&gt;</code>. Closing
+ * this listener unregisters them again.
+ */
+public class JmxMetricsListener implements MetricsListener, AutoCloseable {
+
+    @Nonnull
+    private final MBeanServer server;
+    @Nonnull
+    private final Queue<ObjectName> registered = new ConcurrentLinkedQueue<>();
+
+    public JmxMetricsListener() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxMetricsListener(@Nonnull MBeanServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void onStage(@Nonnull StageMetrics stage) {
+        try {
+            final var name = objectNameOf(stage);
+            server().registerMBean(stage, name);
+            registered.add(name);
+        } catch (final JMException e) {
+            throw new IllegalStateException("Could not register " + stage + ".", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        ObjectName name;
+        while ((name = registered.poll()) != null) {
+            try {
+                server().unregisterMBean(name);
+            } catch (final JMException ignored) {}
+        }
+    }
+
+    @Nonnull
+    public static ObjectName objectNameOf(@Nonnull StageMetrics stage) throws JMException {
+        return new ObjectName("org.echocat.jsu:type=StreamStage,name=" + ObjectName.quote(stage.getName()));
+    }
+
+    @Nonnull
+    protected MBeanServer server() {
+        return server;
+    }
+
+}
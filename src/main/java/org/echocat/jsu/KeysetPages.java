@@ -0,0 +1,140 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.SqlFunction;
+import org.echocat.jsu.support.UncheckedSqlException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.echocat.jsu.Batch.requirePositive;
+
+/**
+ * Generates the pages of a keyset paginated query. Every page is read by its own short query instead of one cursor
+ * which is held open for the whole result.
+ *
+ * <p>The <code>sql</code> has to end with two placeholders: the key after which the page starts (exclusive) and the
+ * maximum number of rows of the page, for example
+ * <code>SELECT id, name FROM users WHERE id &gt; ? ORDER BY id LIMIT ?</code>. They are bound after the given
+ * <code>params</code>. The key returned by <code>keyOf</code> has to be unique and has to be the column of the
+ * <code>ORDER BY</code>, otherwise rows are skipped or read twice at the borders of the pages.</p>
+ */
+public class KeysetPages<T, K> implements Generator<List<T>> {
+
+    @Nonnull
+    private final Connection connection;
+    @Nonnull
+    private final String sql;
+    @Nullable
+    private final List<?> params;
+    @Nonnegative
+    private final int pageSize;
+    @Nonnull
+    private final SqlFunction<ResultSet, K> keyOf;
+    @Nonnull
+    private final SqlFunction<ResultSet, T> mapper;
+
+    @Nonnull
+    private volatile K lastKey;
+    private boolean exhausted;
+
+    public KeysetPages(
+        @Nonnull Connection connection,
+        @Nonnull String sql,
+        @Nullable List<?> params,
+        @Nonnull K startAfter,
+        @Nonnegative int pageSize,
+        @Nonnull SqlFunction<ResultSet, K> keyOf,
+        @Nonnull SqlFunction<ResultSet, T> mapper
+    ) {
+        this.connection = connection;
+        this.sql = sql;
+        this.params = params;
+        this.lastKey = startAfter;
+        this.pageSize = requirePositive(pageSize);
+        this.keyOf = keyOf;
+        this.mapper = mapper;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<List<T>> generate() {
+        if (exhausted) {
+            return Optional.empty();
+        }
+        try (final var statement = connection().prepareStatement(sql())) {
+            final var params = params();
+            JdbcUtils.bind(statement, params);
+            final var offset = params != null ? params.size() : 0;
+            statement.setObject(offset + 1, lastKey());
+            statement.setInt(offset + 2, pageSize());
+            final var result = new ArrayList<T>(pageSize());
+            K key = null;
+            try (final var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    key = keyOf().apply(resultSet);
+                    result.add(mapper().apply(resultSet));
+                }
+            }
+            if (result.size() < pageSize()) {
+                exhausted = true;
+            }
+            if (result.isEmpty()) {
+                return Optional.empty();
+            }
+            if (key == null) {
+                throw new IllegalStateException("The key of the last row of the page must not be null.");
+            }
+            lastKey = key;
+            return Optional.of(result);
+        } catch (final SQLException e) {
+            throw new UncheckedSqlException(e);
+        }
+    }
+
+    /**
+     * @return the key of the last row which was read. A new instance which starts after this key continues where this
+     * one stopped.
+     */
+    @Nonnull
+    public K lastKey() {
+        return lastKey;
+    }
+
+    @Nonnull
+    protected Connection connection() {
+        return connection;
+    }
+
+    @Nonnull
+    protected String sql() {
+        return sql;
+    }
+
+    @Nullable
+    protected List<?> params() {
+        return params;
+    }
+
+    @Nonnegative
+    protected int pageSize() {
+        return pageSize;
+    }
+
+    @Nonnull
+    protected SqlFunction<ResultSet, K> keyOf() {
+        return keyOf;
+    }
+
+    @Nonnull
+    protected SqlFunction<ResultSet, T> mapper() {
+        return mapper;
+    }
+
+}
@@ -0,0 +1,188 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.LeakedResourceException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.BaseStream;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static org.echocat.jsu.AutoCloseableUtils.closeQuietly;
+
+/**
+ * Detects streams which become unreachable without being closed. Only a fraction (<code>samplingRate</code>) of all
+ * streams is tracked, for those the stack trace of their creation is recorded. Leaks are passed to the
+ * <code>reporter</code> and - if <code>closeLeaks</code> is enabled - the resource of the stream is closed.
+ *
+ * <p>Streams of {@link StreamUtils#generate(Generator)}, {@link JdbcUtils#toStream(java.sql.ResultSet)} and
+ * {@link JdbcUtils#stream(java.sql.Connection, String, java.util.List, StreamingOptions, org.echocat.jsu.support.SqlFunction)}
+ * are tracked by the detector which was {@link #install(LeakDetector) installed}. If there is none, tracking costs a
+ * single volatile read.</p>
+ */
+public class LeakDetector {
+
+    @Nullable
+    private static volatile LeakDetector installed;
+
+    private final double samplingRate;
+    private final boolean closeLeaks;
+    @Nonnull
+    private final Consumer<? super LeakedResourceException> reporter;
+
+    private final LongAdder tracked = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+    private final LongAdder closedLeaks = new LongAdder();
+
+    public LeakDetector(double samplingRate, boolean closeLeaks) {
+        this(samplingRate, closeLeaks, null);
+    }
+
+    /**
+     * @param samplingRate fraction of streams to track between <code>0</code> (none) and <code>1</code> (all).
+     * @param reporter     receives every leak or <code>null</code> to log it as warning.
+     */
+    public LeakDetector(double samplingRate, boolean closeLeaks, @Nullable Consumer<? super LeakedResourceException> reporter) {
+        if (!(samplingRate >= 0 && samplingRate <= 1)) {
+            throw new IllegalArgumentException("The samplingRate have to be between 0 and 1 but was " + samplingRate + ".");
+        }
+        this.samplingRate = samplingRate;
+        this.closeLeaks = closeLeaks;
+        this.reporter = reporter != null ? reporter : LeakDetector::log;
+    }
+
+    /**
+     * Makes the given <code>detector</code> track all streams created by this library from now on. <code>null</code>
+     * disables leak detection (default).
+     */
+    public static void install(@Nullable LeakDetector detector) {
+        installed = detector;
+    }
+
+    @Nullable
+    public static LeakDetector installed() {
+        return installed;
+    }
+
+    /**
+     * Tracks the given <code>stream</code> with the {@link #installed() installed} detector, if any.
+     */
+    @Nonnull
+    public static <S extends BaseStream<?, S>> S track(@Nonnull S stream, @Nullable Object resource) {
+        final var detector = installed;
+        if (detector == null) {
+            return stream;
+        }
+        return detector.register(stream, resource);
+    }
+
+    /**
+     * Tracks the given <code>stream</code> if it is sampled. If it becomes unreachable before it was closed the leak
+     * is reported and the given <code>resource</code> is closed (if it is an {@link AutoCloseable} and
+     * <code>closeLeaks</code> is enabled).
+     */
+    @Nonnull
+    public <S extends BaseStream<?, S>> S register(@Nonnull S stream, @Nullable Object resource) {
+        final var samplingRate = samplingRate();
+        if (samplingRate <= 0 || (samplingRate < 1 && ThreadLocalRandom.current().nextDouble() >= samplingRate)) {
+            return stream;
+        }
+        tracked.increment();
+        // The state must not reference the stream, otherwise it would never become unreachable.
+        final var state = new State(this, resource, new LeakedResourceException(
+            "A stream (" + (resource != null ? resource.getClass().getName() : "without resource")
+                + ") became unreachable without being closed. It was created at the following location."
+        ));
+        final var cleanable = CleanerHolder.CLEANER.register(stream, state);
+        return stream.onClose(() -> {
+            state.closed = true;
+            cleanable.clean();
+        });
+    }
+
+    /**
+     * @return the number of streams which were sampled and are tracked.
+     */
+    public long tracked() {
+        return tracked.sum();
+    }
+
+    /**
+     * @return the number of tracked streams which became unreachable without being closed.
+     */
+    public long leaked() {
+        return leaked.sum();
+    }
+
+    /**
+     * @return the number of leaked resources which were closed by this detector.
+     */
+    public long closedLeaks() {
+        return closedLeaks.sum();
+    }
+
+    protected void onLeak(@Nullable Object resource, @Nonnull LeakedResourceException allocatedAt) {
+        leaked.increment();
+        try {
+            reporter().accept(allocatedAt);
+        } finally {
+            if (closeLeaks() && resource instanceof AutoCloseable) {
+                closeQuietly(resource);
+                closedLeaks.increment();
+            }
+        }
+    }
+
+    protected double samplingRate() {
+        return samplingRate;
+    }
+
+    protected boolean closeLeaks() {
+        return closeLeaks;
+    }
+
+    @Nonnull
+    protected Consumer<? super LeakedResourceException> reporter() {
+        return reporter;
+    }
+
+    private static void log(@Nonnull LeakedResourceException leak) {
+        System.getLogger(LeakDetector.class.getName()).log(WARNING, leak.getMessage(), leak);
+    }
+
+    private static final class State implements Runnable {
+
+        @Nonnull
+        private final LeakDetector detector;
+        @Nullable
+        private final Object resource;
+        @Nonnull
+        private final LeakedResourceException allocatedAt;
+        private volatile boolean closed;
+
+        private State(@Nonnull LeakDetector detector, @Nullable Object resource, @Nonnull LeakedResourceException allocatedAt) {
+            this.detector = detector;
+            this.resource = resource;
+            this.allocatedAt = allocatedAt;
+        }
+
+        @Override
+        public void run() {
+            if (!closed) {
+                detector.onLeak(resource, allocatedAt);
+            }
+        }
+
+    }
+
+    private static final class CleanerHolder {
+
+        @Nonnull
+        private static final Cleaner CLEANER = Cleaner.create();
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.echocat.jsu;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.echocat.jsu.PollingGenerator.Result.END;
+import static org.echocat.jsu.PollingGenerator.Result.TIMEOUT;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.function.Consumer;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Collects elements of a {@link PollingGenerator} into batches of up to <code>maxSize</code> elements. A batch is
+ * emitted even if it is not full once <code>linger</code> has elapsed since its first element has arrived and no
+ * further element is immediately available.
+ */
+public class LingeringBatch<T> extends AbstractSpliterator<List<T>> {
+
+    private static final long WAIT_FOR_FIRST_ELEMENT_NANOS = Duration.ofSeconds(1).toNanos();
+
+    @Nonnull
+    private final PollingGenerator<? extends T> generator;
+    @Nonnegative
+    private final int maxSize;
+    @Nonnull
+    private final Duration linger;
+    private boolean ended;
+
+    public LingeringBatch(
+        @Nonnull PollingGenerator<? extends T> generator,
+        @Nonnegative int maxSize,
+        @Nonnull Duration linger
+    ) {
+        super(Long.MAX_VALUE, ORDERED | IMMUTABLE | NONNULL);
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maxSize have to be positive but was " + maxSize + ".");
+        }
+        if (linger.isNegative()) {
+            throw new IllegalArgumentException("The linger must not be negative but was " + linger + ".");
+        }
+        this.generator = generator;
+        this.maxSize = maxSize;
+        this.linger = linger;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super List<T>> consumer) {
+        if (ended) {
+            return false;
+        }
+        final var maxSize = maxSize();
+        final var batch = new ArrayList<T>(maxSize);
+        final Consumer<T> adder = batch::add;
+        try {
+            // Linger starts not before the first element of the batch has arrived.
+            while (batch.isEmpty()) {
+                if (poll(adder, WAIT_FOR_FIRST_ELEMENT_NANOS) == END) {
+                    ended = true;
+                    return false;
+                }
+            }
+            final var deadline = System.nanoTime() + linger().toNanos();
+            while (batch.size() < maxSize) {
+                // After the deadline everything which is already available is still taken (like linger.ms=0 of Kafka).
+                final var remaining = Math.max(0, deadline - System.nanoTime());
+                final var result = poll(adder, remaining);
+                if (result == END) {
+                    ended = true;
+                    break;
+                }
+                if (result == TIMEOUT && remaining == 0) {
+                    break;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next element.", e);
+        }
+        consumer.accept(batch);
+        return true;
+    }
+
+    @Nonnull
+    protected PollingGenerator.Result poll(@Nonnull Consumer<T> target, @Nonnegative long timeoutNanos) throws InterruptedException {
+        return generator().poll(target, timeoutNanos, NANOSECONDS);
+    }
+
+    @Nonnull
+    protected PollingGenerator<? extends T> generator() {
+        return generator;
+    }
+
+    @Nonnegative
+    protected int maxSize() {
+        return maxSize;
+    }
+
+    @Nonnull
+    protected Duration linger() {
+        return linger;
+    }
+
+}
@@ -0,0 +1,190 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import static java.lang.Math.min;
+
+public class LongBatch implements Spliterator<long[]> {
+
+    @Nonnull
+    private final Spliterator.OfLong source;
+    @Nonnull
+    @Nonnegative
+    private final Supplier<Integer> batchSize;
+    @Nonnegative
+    private final int fixedBatchSize;
+    @Nullable
+    private final long[] tail;
+    @Nonnegative
+    private int tailIndex;
+    @Nonnegative
+    private int arraySplitBatches;
+
+    @Nonnull
+    private final LongConsumer adder = this::add;
+    @Nullable
+    private long[] current;
+    @Nonnegative
+    private int currentSize;
+
+    public LongBatch(
+        @Nonnull Spliterator.OfLong source,
+        @Nonnegative @Nonnull Supplier<Integer> batchSize
+    ) {
+        this(source, batchSize, 0, null);
+    }
+
+    public LongBatch(
+        @Nonnull Spliterator.OfLong source,
+        @Nonnegative int batchSize
+    ) {
+        this(source, () -> batchSize, Batch.requirePositive(batchSize), null);
+    }
+
+    protected LongBatch(
+        @Nonnull Spliterator.OfLong source,
+        @Nonnegative @Nonnull Supplier<Integer> batchSize,
+        @Nonnegative int fixedBatchSize,
+        @Nullable long[] tail
+    ) {
+        this.source = source;
+        this.batchSize = batchSize;
+        this.fixedBatchSize = fixedBatchSize;
+        this.tail = tail;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super long[]> consumer) {
+        final var batch = fill(new long[batchSize().get()]);
+        if (batch.length == 0) {
+            return false;
+        }
+        consumer.accept(batch);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<long[]> trySplit() {
+        if (!Batch.isSplittable(batchSize())) {
+            return null;
+        }
+        if (source().hasCharacteristics(SUBSIZED)) {
+            return trySplitSource();
+        }
+        return trySplitIntoArray();
+    }
+
+    @Nullable
+    protected Spliterator<long[]> trySplitSource() {
+        final var batchSize = batchSize().get();
+        if (source().estimateSize() <= batchSize) {
+            return null;
+        }
+        final var prefix = source().trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        // Fill up the last batch of the prefix from the front of the remaining elements, so the batches
+        // are exactly the same as without splitting.
+        final var prefixSize = prefix.getExactSizeIfKnown();
+        final var remainder = prefixSize > 0 ? (int) (prefixSize % batchSize) : 0;
+        final var carry = remainder > 0 ? fill(new long[batchSize - remainder]) : null;
+        return new LongBatch(prefix, batchSize(), fixedBatchSize(), carry);
+    }
+
+    @Nullable
+    protected Spliterator<long[]> trySplitIntoArray() {
+        if (estimateSize() <= 1) {
+            return null;
+        }
+        final var n = min(arraySplitBatches + Batch.ARRAY_SPLIT_UNIT, Batch.MAX_ARRAY_SPLIT_BATCHES);
+        final var batches = new ArrayList<long[]>(n);
+        //noinspection StatementWithEmptyBody
+        while (batches.size() < n && tryAdvance(batches::add)) {}
+        if (batches.isEmpty()) {
+            return null;
+        }
+        arraySplitBatches = batches.size();
+        return batches.spliterator();
+    }
+
+    @Override
+    public long estimateSize() {
+        final var sourceSize = source().estimateSize();
+        if (sourceSize == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        final var elements = sourceSize + tailRemaining();
+        final var fixedBatchSize = fixedBatchSize();
+        if (fixedBatchSize > 0) {
+            return (elements + fixedBatchSize - 1) / fixedBatchSize;
+        }
+        // Every batch contains at least one element.
+        return elements;
+    }
+
+    @Override
+    public int characteristics() {
+        var result = ORDERED | IMMUTABLE | NONNULL;
+        if (fixedBatchSize() > 0) {
+            result |= source().characteristics() & (SIZED | SUBSIZED);
+        }
+        return result;
+    }
+
+    @Nonnull
+    protected long[] fill(@Nonnull long[] target) {
+        current = target;
+        currentSize = 0;
+        try {
+            //noinspection StatementWithEmptyBody
+            while (currentSize < target.length && source().tryAdvance(adder)) {}
+            final var tail = this.tail;
+            if (tail != null) {
+                final var n = min(target.length - currentSize, tail.length - tailIndex);
+                System.arraycopy(tail, tailIndex, target, currentSize, n);
+                tailIndex += n;
+                currentSize += n;
+            }
+            return currentSize == target.length ? target : Arrays.copyOf(target, currentSize);
+        } finally {
+            current = null;
+        }
+    }
+
+    private void add(long element) {
+        //noinspection ConstantConditions
+        current[currentSize++] = element;
+    }
+
+    @Nonnegative
+    protected int tailRemaining() {
+        final var tail = this.tail;
+        return tail != null ? tail.length - tailIndex : 0;
+    }
+
+    @Nonnull
+    protected Spliterator.OfLong source() {
+        return source;
+    }
+
+    @Nonnull
+    protected Supplier<Integer> batchSize() {
+        return batchSize;
+    }
+
+    @Nonnegative
+    protected int fixedBatchSize() {
+        return fixedBatchSize;
+    }
+
+}
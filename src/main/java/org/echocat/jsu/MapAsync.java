@@ -0,0 +1,189 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Threads;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Applies the <code>mapper</code> to up to <code>maxInFlight</code> elements of the <code>source</code> at the same
+ * time using the given <code>executor</code>. If <code>ordered</code> the results are emitted in the order of the
+ * source; otherwise as soon as they are completed.
+ */
+public class MapAsync<T, R> implements Spliterator<R>, AutoCloseable {
+
+    @Nonnull
+    private static final Executor DEFAULT_EXECUTOR = Threads.executor("jsu-async-");
+
+    @Nonnull
+    private final Spliterator<? extends T> source;
+    @Nonnull
+    private final Function<? super T, ? extends R> mapper;
+    @Nonnegative
+    private final int maxInFlight;
+    @Nonnull
+    private final Executor executor;
+    private final boolean ordered;
+
+    @Nonnull
+    private final Queue<CompletableFuture<R>> pending;
+    @Nonnull
+    private final Set<CompletableFuture<R>> running = ConcurrentHashMap.newKeySet();
+    @Nonnull
+    private final Consumer<T> submitter = this::submit;
+    @Nonnegative
+    private int inFlight;
+    private boolean sourceEnded;
+    private volatile boolean closed;
+
+    public MapAsync(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnull Function<? super T, ? extends R> mapper,
+        @Nonnegative int maxInFlight,
+        @Nullable Executor executor,
+        boolean ordered
+    ) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maxInFlight have to be positive but was " + maxInFlight + ".");
+        }
+        this.source = source;
+        this.mapper = mapper;
+        this.maxInFlight = maxInFlight;
+        this.executor = executor != null ? executor : DEFAULT_EXECUTOR;
+        this.ordered = ordered;
+        this.pending = ordered ? new ArrayDeque<>(maxInFlight) : new LinkedBlockingQueue<>();
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super R> action) {
+        if (closed) {
+            return false;
+        }
+        fill();
+        if (inFlight == 0) {
+            return false;
+        }
+        final var next = ordered ? pending.remove() : take();
+        inFlight--;
+        action.accept(await(next));
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<R> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        final var size = source().estimateSize();
+        return size == Long.MAX_VALUE ? size : size + inFlight;
+    }
+
+    @Override
+    public int characteristics() {
+        return ordered ? source().characteristics() & ORDERED : 0;
+    }
+
+    /**
+     * Cancels all running calls. Already started calls will not be interrupted but their results are dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (final var future : running) {
+            future.cancel(false);
+        }
+        pending.clear();
+        inFlight = 0;
+    }
+
+    protected void fill() {
+        while (!sourceEnded && inFlight < maxInFlight()) {
+            if (!source().tryAdvance(submitter)) {
+                sourceEnded = true;
+            }
+        }
+    }
+
+    protected void submit(T element) {
+        final var mapper = mapper();
+        final CompletableFuture<R> future = CompletableFuture.supplyAsync(() -> mapper.apply(element), executor());
+        inFlight++;
+        running.add(future);
+        if (ordered) {
+            pending.add(future);
+            future.whenComplete((result, failure) -> running.remove(future));
+        } else {
+            future.whenComplete((result, failure) -> {
+                running.remove(future);
+                pending.add(future);
+            });
+        }
+    }
+
+    @Nonnull
+    protected CompletableFuture<R> take() {
+        try {
+            return ((LinkedBlockingQueue<CompletableFuture<R>>) pending).take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for the next result.", e);
+        }
+    }
+
+    @Nullable
+    protected R await(@Nonnull CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Nonnull
+    protected Spliterator<? extends T> source() {
+        return source;
+    }
+
+    @Nonnull
+    protected Function<? super T, ? extends R> mapper() {
+        return mapper;
+    }
+
+    @Nonnegative
+    protected int maxInFlight() {
+        return maxInFlight;
+    }
+
+    @Nonnull
+    protected Executor executor() {
+        return executor;
+    }
+
+    protected boolean ordered() {
+        return ordered;
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Publishes the metrics of a {@link StreamMetrics}, for example to JMX (see {@link JmxMetricsListener}) or by
+ * binding the counters and {@link org.echocat.jsu.support.Histogram histograms} to a metrics library.
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    /**
+     * Called once for every stage when it is used the first time.
+     */
+    void onStage(@Nonnull StageMetrics stage);
+
+}
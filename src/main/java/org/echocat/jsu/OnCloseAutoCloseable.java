@@ -0,0 +1,47 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Closes an {@link AutoCloseable} and executes the given callables afterwards.
+ */
+@SuppressWarnings("try") // Throws whatever the delegate throws, like the proxy did before.
+final class OnCloseAutoCloseable implements AutoCloseable {
+
+    @Nonnull
+    private final AutoCloseable delegate;
+    @Nonnull
+    private final Callable[] callablesExecuteOnClose;
+
+    OnCloseAutoCloseable(@Nonnull AutoCloseable delegate, @Nonnull Callable[] callablesExecuteOnClose) {
+        this.delegate = delegate;
+        this.callablesExecuteOnClose = callablesExecuteOnClose;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            delegate.close();
+        } finally {
+            AutoCloseableUtils.call(Exception.class, callablesExecuteOnClose);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return delegate.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Closes a {@link Closeable} and executes the given callables afterwards.
+ */
+final class OnCloseCloseable implements Closeable {
+
+    @Nonnull
+    private final Closeable delegate;
+    @Nonnull
+    private final Callable[] callablesExecuteOnClose;
+
+    OnCloseCloseable(@Nonnull Closeable delegate, @Nonnull Callable[] callablesExecuteOnClose) {
+        this.delegate = delegate;
+        this.callablesExecuteOnClose = callablesExecuteOnClose;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            delegate.close();
+        } finally {
+            AutoCloseableUtils.call(IOException.class, callablesExecuteOnClose);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return delegate.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+
+import javax.annotation.Nonnull;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Delegates every call to an {@link InputStream} and executes the given callables after it was closed.
+ */
+final class OnCloseInputStream extends FilterInputStream {
+
+    @Nonnull
+    private final Callable[] callablesExecuteOnClose;
+
+    OnCloseInputStream(@Nonnull InputStream delegate, @Nonnull Callable[] callablesExecuteOnClose) {
+        super(delegate);
+        this.callablesExecuteOnClose = callablesExecuteOnClose;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            AutoCloseableUtils.call(IOException.class, callablesExecuteOnClose);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return in.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return in.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return in.toString();
+    }
+
+}
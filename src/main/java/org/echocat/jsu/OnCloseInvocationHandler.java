@@ -0,0 +1,109 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Delegates every call of a proxy to an instance of a type for which there is no dedicated wrapper and executes the
+ * given callables after <code>close()</code> was called. Every method is invoked using a {@link MethodHandle} which is
+ * created once per method and cached per type.
+ */
+final class OnCloseInvocationHandler implements InvocationHandler {
+
+    @Nonnull
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    @Nonnull
+    private static final MethodHandle REFLECTIVE;
+
+    static {
+        try {
+            REFLECTIVE = MethodHandles.lookup().findStatic(OnCloseInvocationHandler.class, "invokeReflective", methodType(Object.class, Method.class, Object.class, Object[].class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    @Nonnull
+    private static final ClassValue<Invokers> INVOKERS = new ClassValue<>() {
+        @Override
+        protected Invokers computeValue(Class<?> type) {
+            return new Invokers(AutoCloseableUtils.resolveCloseMethodOf(type));
+        }
+    };
+
+    @Nonnull
+    private final Invokers invokers;
+    @Nonnull
+    private final Object delegate;
+    @Nonnull
+    private final Callable[] callablesExecuteOnClose;
+
+    OnCloseInvocationHandler(@Nonnull Class<?> type, @Nonnull Object delegate, @Nonnull Callable[] callablesExecuteOnClose) {
+        this.invokers = INVOKERS.get(type);
+        this.delegate = delegate;
+        this.callablesExecuteOnClose = callablesExecuteOnClose;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        try {
+            final var invoker = invokers.byMethod.computeIfAbsent(method, OnCloseInvocationHandler::invokerFor);
+            final Object[] arguments = args != null ? args : NO_ARGUMENTS;
+            return (Object) invoker.invokeExact(delegate, arguments);
+        } finally {
+            if (invokers.closeMethod.equals(method)) {
+                AutoCloseableUtils.call(callablesExecuteOnClose);
+            }
+        }
+    }
+
+    @Nullable
+    private static Object invokeReflective(@Nonnull Method method, @Nonnull Object delegate, @Nonnull Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (final InvocationTargetException e) {
+            //noinspection ThrowInsideCatchBlockWhichIgnoresCaughtException
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * @return <code>(Object, Object[])Object</code> handle of the given <code>method</code>. If it is not accessible
+     * using a {@link MethodHandle} the returned handle falls back to {@link Method#invoke(Object, Object...)}, which is
+     * cached as well, so the method is not looked up again on every call.
+     */
+    @Nonnull
+    static MethodHandle invokerFor(@Nonnull Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(methodType(Object.class, Object.class, Object[].class));
+        } catch (final IllegalAccessException ignored) {
+            return MethodHandles.insertArguments(REFLECTIVE, 0, method);
+        }
+    }
+
+    private static final class Invokers {
+
+        @Nonnull
+        private final Method closeMethod;
+        @Nonnull
+        private final Map<Method, MethodHandle> byMethod = new ConcurrentHashMap<>();
+
+        private Invokers(@Nonnull Method closeMethod) {
+            this.closeMethod = closeMethod;
+        }
+
+    }
+
+}
@@ -0,0 +1,266 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+import org.echocat.jsu.support.SqlFunction;
+import org.echocat.jsu.support.SqlSupplier;
+import org.echocat.jsu.support.UncheckedSqlException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+import static org.echocat.jsu.AutoCloseableUtils.closeQuietly;
+import static org.echocat.jsu.JdbcUtils.callQuietly;
+
+/**
+ * Scans the key range <code>[from, to)</code> of a query. {@link #trySplit()} divides the key range until there are
+ * <code>partitions</code> partitions; every partition reads its range using its own connection and cursor.
+ *
+ * <p>The <code>sql</code> has to end with two placeholders for the inclusive start and the exclusive end of the key
+ * range of a partition, for example <code>SELECT id, name FROM users WHERE id &gt;= ? AND id &lt; ?</code>. They are
+ * bound after the given <code>params</code> using <code>toParameter</code>; this allows date keys as epoch based
+ * numbers.</p>
+ */
+public class PartitionedScan<T> implements Spliterator<T>, AutoCloseable {
+
+    @Nonnull
+    private final SqlSupplier<Connection> connections;
+    @Nonnull
+    private final String sql;
+    @Nullable
+    private final List<?> params;
+    @Nonnull
+    private final LongFunction<?> toParameter;
+    @Nonnull
+    private final StreamingOptions options;
+    @Nonnull
+    private final SqlFunction<ResultSet, T> mapper;
+    @Nonnull
+    private final Queue<PartitionedScan<?>> opened;
+
+    private final long to;
+    private long from;
+    @Nonnegative
+    private int partitions;
+
+    @Nullable
+    private Connection connection;
+    @Nullable
+    private Callable restoreConnection;
+    @Nullable
+    private PreparedStatement statement;
+    @Nullable
+    private ResultSet resultSet;
+    private volatile boolean exhausted;
+
+    public PartitionedScan(
+        @Nonnull SqlSupplier<Connection> connections,
+        @Nonnull String sql,
+        @Nullable List<?> params,
+        long from,
+        long to,
+        @Nonnegative int partitions,
+        @Nonnull LongFunction<?> toParameter,
+        @Nonnull StreamingOptions options,
+        @Nonnull SqlFunction<ResultSet, T> mapper
+    ) {
+        this(connections, sql, params, from, to, partitions, toParameter, options, mapper, new ConcurrentLinkedQueue<>());
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("The partitions have to be positive but was " + partitions + ".");
+        }
+        if (to < from) {
+            throw new IllegalArgumentException("The to have to be at least " + from + " but was " + to + ".");
+        }
+    }
+
+    protected PartitionedScan(
+        @Nonnull SqlSupplier<Connection> connections,
+        @Nonnull String sql,
+        @Nullable List<?> params,
+        long from,
+        long to,
+        @Nonnegative int partitions,
+        @Nonnull LongFunction<?> toParameter,
+        @Nonnull StreamingOptions options,
+        @Nonnull SqlFunction<ResultSet, T> mapper,
+        @Nonnull Queue<PartitionedScan<?>> opened
+    ) {
+        this.connections = connections;
+        this.sql = sql;
+        this.params = params;
+        this.from = from;
+        this.to = to;
+        this.partitions = partitions;
+        this.toParameter = toParameter;
+        this.options = options;
+        this.mapper = mapper;
+        this.opened = opened;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super T> action) {
+        if (exhausted) {
+            return false;
+        }
+        try {
+            final var resultSet = open();
+            if (!resultSet.next()) {
+                closeOwn();
+                return false;
+            }
+            action.accept(mapper().apply(resultSet));
+            return true;
+        } catch (final SQLException e) {
+            closeOwn();
+            throw new UncheckedSqlException(e);
+        }
+    }
+
+    /**
+     * Hands the lower half of the remaining partitions and the proportional part of the remaining key range over to a
+     * new instance, so every partition ends up with (nearly) the same number of keys.
+     */
+    @Nullable
+    @Override
+    public Spliterator<T> trySplit() {
+        final var width = width();
+        if (partitions <= 1 || resultSet != null || exhausted || Long.compareUnsigned(width, 2) < 0) {
+            return null;
+        }
+        final var prefixPartitions = partitions / 2;
+        final var middle = from + Math.max(1, proportionOf(width, prefixPartitions, partitions));
+        final var prefix = new PartitionedScan<>(connections(), sql(), params(), from, middle, prefixPartitions, toParameter(), options(), mapper(), opened);
+        from = middle;
+        partitions -= prefixPartitions;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (exhausted) {
+            return 0;
+        }
+        final var width = width();
+        // Wider than Long.MAX_VALUE if negative.
+        return width >= 0 ? width : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the number of remaining keys as an unsigned value; the range <code>[Long.MIN_VALUE, Long.MAX_VALUE)</code>
+     * does not fit into a signed one.
+     */
+    protected long width() {
+        return to - from;
+    }
+
+    /**
+     * @return <code>floor(width * numerator / denominator)</code> for the unsigned <code>width</code> without overflow.
+     */
+    static long proportionOf(long width, @Nonnegative int numerator, @Nonnegative int denominator) {
+        final var quotient = Long.divideUnsigned(width, denominator);
+        final var remainder = Long.remainderUnsigned(width, denominator);
+        return quotient * numerator + remainder * numerator / denominator;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    /**
+     * Closes the cursor and the connection of this partition and of every partition split from it.
+     */
+    @Override
+    public void close() {
+        PartitionedScan<?> candidate;
+        while ((candidate = opened.poll()) != null) {
+            candidate.closeOwn();
+        }
+        closeOwn();
+    }
+
+    @Nonnull
+    protected ResultSet open() throws SQLException {
+        final var existing = resultSet;
+        if (existing != null) {
+            return existing;
+        }
+        opened.add(this);
+        connection = connections().get();
+        restoreConnection = options().applyTo(connection);
+        statement = connection.prepareStatement(sql(), options().resultSetType(), options().resultSetConcurrency());
+        options().applyTo(statement);
+        final var params = params();
+        JdbcUtils.bind(statement, params);
+        final var offset = params != null ? params.size() : 0;
+        statement.setObject(offset + 1, toParameter().apply(from));
+        statement.setObject(offset + 2, toParameter().apply(to));
+        final var result = statement.executeQuery();
+        resultSet = result;
+        return result;
+    }
+
+    protected synchronized void closeOwn() {
+        exhausted = true;
+        closeQuietly(resultSet);
+        closeQuietly(statement);
+        final var restoreConnection = this.restoreConnection;
+        if (restoreConnection != null) {
+            callQuietly(restoreConnection);
+        }
+        closeQuietly(connection);
+        this.restoreConnection = null;
+        this.statement = null;
+        this.connection = null;
+        opened.remove(this);
+    }
+
+    @Nonnull
+    protected SqlSupplier<Connection> connections() {
+        return connections;
+    }
+
+    @Nonnull
+    protected String sql() {
+        return sql;
+    }
+
+    @Nullable
+    protected List<?> params() {
+        return params;
+    }
+
+    @Nonnull
+    protected LongFunction<?> toParameter() {
+        return toParameter;
+    }
+
+    @Nonnull
+    protected StreamingOptions options() {
+        return options;
+    }
+
+    @Nonnull
+    protected SqlFunction<ResultSet, T> mapper() {
+        return mapper;
+    }
+
+    protected long from() {
+        return from;
+    }
+
+    protected long to() {
+        return to;
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.echocat.jsu;
+
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+@FunctionalInterface
+public interface PollingGenerator<T> {
+
+    /**
+     * Waits up to the given <code>timeout</code> for the next element and passes it to the given <code>target</code>.
+     */
+    @Nonnull
+    Result poll(@Nonnull Consumer<? super T> target, @Nonnegative long timeout, @Nonnull TimeUnit unit) throws InterruptedException;
+
+    enum Result {
+        /** An element was passed to the target. */
+        GENERATED,
+        /** No element was available within the timeout. */
+        TIMEOUT,
+        /** There will be no more elements. */
+        END
+    }
+
+    /**
+     * Polls the given <code>queue</code>, which will never end.
+     */
+    @Nonnull
+    static <T> PollingGenerator<T> of(@Nonnull BlockingQueue<? extends T> queue) {
+        return of(queue, null);
+    }
+
+    /**
+     * Polls the given <code>queue</code> until an element which is equal to <code>endMarker</code> was taken.
+     */
+    @Nonnull
+    static <T> PollingGenerator<T> of(@Nonnull BlockingQueue<? extends T> queue, @Nullable Object endMarker) {
+        return (target, timeout, unit) -> {
+            final var next = queue.poll(timeout, unit);
+            if (next == null) {
+                return Result.TIMEOUT;
+            }
+            if (endMarker != null && Objects.equals(next, endMarker)) {
+                return Result.END;
+            }
+            target.accept(next);
+            return Result.GENERATED;
+        };
+    }
+
+}
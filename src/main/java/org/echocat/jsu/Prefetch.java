@@ -0,0 +1,218 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Reads the <code>source</code> in a background thread into a bounded queue of the given <code>depth</code> ahead of
+ * the consumer. Exceptions of the <code>source</code> are thrown at the consumer in the same order as they occurred.
+ *
+ * <p>{@link #close()} interrupts the background thread and waits up to {@link #CLOSE_TIMEOUT} for it, so the
+ * <code>source</code> could be closed afterwards without being read concurrently.</p>
+ */
+public class Prefetch<T> implements Spliterator<T>, AutoCloseable {
+
+    @Nonnull
+    protected static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Object END = new Object();
+    private static final Object NULL = new Object();
+
+    @Nonnull
+    private final Spliterator<? extends T> source;
+    @Nonnegative
+    private final int depth;
+    @Nonnull
+    private final ThreadFactory threadFactory;
+    @Nonnull
+    private final BlockingQueue<Object> queue;
+    private final long estimatedSize;
+    private final int characteristics;
+
+    @Nullable
+    private volatile Thread producer;
+    private volatile boolean closed;
+    private boolean ended;
+
+    public Prefetch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnegative int depth,
+        @Nonnull ThreadFactory threadFactory
+    ) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("The depth have to be positive but was " + depth + ".");
+        }
+        this.source = source;
+        this.depth = depth;
+        this.threadFactory = threadFactory;
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.estimatedSize = source.estimateSize();
+        this.characteristics = source.characteristics() & (ORDERED | DISTINCT | NONNULL | IMMUTABLE);
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super T> action) {
+        if (ended || closed) {
+            return false;
+        }
+        start();
+        final var next = take();
+        if (next == END) {
+            ended = true;
+            return false;
+        }
+        if (next instanceof Failure) {
+            ended = true;
+            throw ((Failure) next).toUnchecked();
+        }
+        @SuppressWarnings("unchecked")
+        final var element = next == NULL ? null : (T) next;
+        action.accept(element);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        final var producer = this.producer;
+        if (producer != null) {
+            producer.interrupt();
+        }
+        queue.clear();
+        // Wake up a consumer which is maybe waiting in another thread.
+        //noinspection ResultOfMethodCallIgnored
+        queue.offer(END);
+        // Many sources (like JDBC or blocking I/O) ignore interrupts, so wait until the source is not read anymore.
+        if (producer != null && producer != Thread.currentThread()) {
+            try {
+                producer.join(CLOSE_TIMEOUT.toMillis());
+            } catch (final InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected void start() {
+        if (producer == null) {
+            final var producer = threadFactory().newThread(this::produce);
+            this.producer = producer;
+            producer.start();
+        }
+    }
+
+    protected void produce() {
+        try {
+            source().forEachRemaining(element -> put(element != null ? element : NULL));
+            put(END);
+        } catch (final Cancelled ignored) {
+        } catch (final Throwable e) {
+            try {
+                put(new Failure(e));
+            } catch (final Cancelled ignored) {}
+        }
+    }
+
+    @Nonnull
+    protected Object take() {
+        try {
+            return queue.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for the next element.", e);
+        }
+    }
+
+    protected void put(@Nonnull Object element) {
+        if (closed) {
+            throw Cancelled.INSTANCE;
+        }
+        try {
+            queue.put(element);
+        } catch (final InterruptedException ignored) {
+            throw Cancelled.INSTANCE;
+        }
+    }
+
+    @Nonnull
+    protected Spliterator<? extends T> source() {
+        return source;
+    }
+
+    /**
+     * @return the thread which reads the <code>source</code> or <code>null</code> if it was not started yet.
+     */
+    @Nullable
+    protected Thread producer() {
+        return producer;
+    }
+
+    @Nonnull
+    protected ThreadFactory threadFactory() {
+        return threadFactory;
+    }
+
+    @Nonnegative
+    protected int depth() {
+        return depth;
+    }
+
+    private static final class Failure {
+
+        @Nonnull
+        private final Throwable cause;
+
+        private Failure(@Nonnull Throwable cause) {
+            this.cause = cause;
+        }
+
+        @Nonnull
+        private RuntimeException toUnchecked() {
+            if (cause instanceof RuntimeException) {
+                return (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return new UndeclaredThrowableException(cause);
+        }
+
+    }
+
+    private static final class Cancelled extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Cancelled INSTANCE = new Cancelled();
+
+        private Cancelled() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
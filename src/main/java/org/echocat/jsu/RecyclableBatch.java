@@ -0,0 +1,95 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import static java.util.Objects.checkIndex;
+
+/**
+ * A batch which is returned to its {@link BatchPool} on {@link #close()}. It must not be used after it was closed.
+ */
+public class RecyclableBatch<T> extends AbstractList<T> implements RandomAccess, AutoCloseable, Consumer<T> {
+
+    @Nonnull
+    private final BatchPool<T> pool;
+    @Nonnull
+    private Object[] elements;
+    @Nonnegative
+    private int size;
+    private boolean released;
+
+    protected RecyclableBatch(@Nonnull BatchPool<T> pool, @Nonnegative int capacity) {
+        this.pool = pool;
+        this.elements = new Object[capacity];
+    }
+
+    @Override
+    public T get(int index) {
+        checkIndex(index, size);
+        return elementAt(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(@Nonnull Consumer<? super T> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elementAt(i));
+        }
+    }
+
+    @Override
+    public void accept(T element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(1, size * 2));
+        }
+        elements[size++] = element;
+    }
+
+    @Override
+    public boolean add(T element) {
+        accept(element);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        clear();
+        pool().release(this);
+    }
+
+    protected void reuse(@Nonnegative int capacity) {
+        if (elements.length < capacity) {
+            elements = new Object[capacity];
+        }
+        released = false;
+    }
+
+    @Nonnull
+    protected BatchPool<T> pool() {
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(@Nonnegative int index) {
+        return (T) elements[index];
+    }
+
+}
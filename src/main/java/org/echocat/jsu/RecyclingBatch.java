@@ -0,0 +1,115 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Like {@link Batch} but takes every batch from a {@link BatchPool}. The consumer has to {@link RecyclableBatch#close()}
+ * every batch to give it back to the pool; otherwise the pool will create new ones.
+ */
+public class RecyclingBatch<T> implements Spliterator<RecyclableBatch<T>> {
+
+    @Nonnull
+    private final Spliterator<? extends T> source;
+    @Nonnull
+    @Nonnegative
+    private final Supplier<Integer> batchSize;
+    @Nonnegative
+    private final int fixedBatchSize;
+    @Nonnull
+    private final BatchPool<T> pool;
+
+    public RecyclingBatch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnegative @Nonnull Supplier<Integer> batchSize,
+        @Nonnull BatchPool<T> pool
+    ) {
+        this(source, batchSize, 0, pool);
+    }
+
+    public RecyclingBatch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnegative int batchSize,
+        @Nonnull BatchPool<T> pool
+    ) {
+        this(source, () -> batchSize, Batch.requirePositive(batchSize), pool);
+    }
+
+    protected RecyclingBatch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnegative @Nonnull Supplier<Integer> batchSize,
+        @Nonnegative int fixedBatchSize,
+        @Nonnull BatchPool<T> pool
+    ) {
+        this.source = source;
+        this.batchSize = batchSize;
+        this.fixedBatchSize = fixedBatchSize;
+        this.pool = pool;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super RecyclableBatch<T>> consumer) {
+        // A fixed size is never boxed; the supplier would create an Integer per batch for sizes above 127.
+        final var fixedBatchSize = fixedBatchSize();
+        final int batchSize = fixedBatchSize > 0 ? fixedBatchSize : batchSize().get();
+        final var batch = pool().acquire(batchSize);
+        //noinspection StatementWithEmptyBody
+        while (batch.size() < batchSize && source().tryAdvance(batch)) {}
+        if (batch.isEmpty()) {
+            batch.close();
+            return false;
+        }
+        consumer.accept(batch);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<RecyclableBatch<T>> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        final var sourceSize = source().estimateSize();
+        if (sourceSize == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        final var fixedBatchSize = fixedBatchSize();
+        if (fixedBatchSize > 0) {
+            return (sourceSize + fixedBatchSize - 1) / fixedBatchSize;
+        }
+        // Every batch contains at least one element.
+        return sourceSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    @Nonnull
+    protected Spliterator<? extends T> source() {
+        return source;
+    }
+
+    @Nonnull
+    protected Supplier<Integer> batchSize() {
+        return batchSize;
+    }
+
+    @Nonnegative
+    protected int fixedBatchSize() {
+        return fixedBatchSize;
+    }
+
+    @Nonnull
+    protected BatchPool<T> pool() {
+        return pool;
+    }
+
+}
@@ -0,0 +1,263 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+import org.echocat.jsu.support.UncheckedSqlException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Collects resources (for example streams of {@link JdbcUtils} and {@link StreamUtils}) and closes all of them in
+ * reverse order of their registration once the scope is closed. If closing fails the first exception is thrown and
+ * all further ones are added to it as suppressed.
+ *
+ * <p>With an <code>executor</code> resources registered using {@link #registerAsync(AutoCloseable)} are closed in
+ * background. The reverse order is kept: resources registered before them are closed after the background closing
+ * is done. {@link #close()} waits at most <code>timeout</code> for them in total; after that it continues without
+ * them and their result is only available using {@link #asyncClosed()}.</p>
+ */
+public class ResourceScope implements AutoCloseable {
+
+    @Nullable
+    private final Executor executor;
+    @Nonnull
+    private final Duration timeout;
+    @Nonnull
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    @Nonnull
+    private final CompletableFuture<Void> asyncClosed = new CompletableFuture<>();
+
+    private boolean closed;
+
+    public ResourceScope() {
+        this(null, Duration.ZERO);
+    }
+
+    /**
+     * @param executor closes the resources registered using {@link #registerAsync(AutoCloseable)} or
+     *                 <code>null</code> to close them synchronously, too.
+     * @param timeout  how long {@link #close()} waits for the resources which are closed by the
+     *                 <code>executor</code>.
+     */
+    public ResourceScope(@Nullable Executor executor, @Nonnull Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("The timeout have to be positive or 0 but was " + timeout + ".");
+        }
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    @Nonnull
+    public <T extends AutoCloseable> T register(@Nonnull T resource) {
+        return register(resource, false);
+    }
+
+    /**
+     * Like {@link #register(AutoCloseable)} but the resource is closed by the <code>executor</code> of this scope
+     * (if any). Use this for resources which are expensive to close, like a cursor which still has unread rows.
+     */
+    @Nonnull
+    public <T extends AutoCloseable> T registerAsync(@Nonnull T resource) {
+        return register(resource, true);
+    }
+
+    public void onClose(@Nonnull Callable callable) {
+        register(callable::call);
+    }
+
+    @Nonnull
+    protected <T extends AutoCloseable> T register(@Nonnull T resource, boolean async) {
+        synchronized (entries) {
+            if (!closed) {
+                entries.push(new Entry(resource, async));
+                return resource;
+            }
+        }
+        AutoCloseableUtils.closeQuietly(resource);
+        throw new IllegalStateException("The scope is already closed.");
+    }
+
+    @Override
+    public void close() {
+        final List<Entry> toClose;
+        synchronized (entries) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(entries);
+            entries.clear();
+        }
+
+        final var executor = executor();
+        final var deadline = System.nanoTime() + timeout().toNanos();
+        Throwable failure = null;
+        var async = CompletableFuture.<Throwable>completedFuture(null);
+        final var group = new ArrayList<AutoCloseable>();
+        for (final var entry : toClose) {
+            if (entry.async && executor != null) {
+                group.add(entry.resource);
+                continue;
+            }
+            if (!group.isEmpty()) {
+                async = closeAsync(async, group, executor);
+                group.clear();
+                // Resources registered before the async ones (like their connection) have to be closed after them.
+                // Failures of the background closing are reported at the end using asyncClosed.
+                failure = await(async.exceptionally(ignored -> null), deadline, failure);
+            }
+            failure = closeAndCollect(entry.resource, failure);
+        }
+        if (!group.isEmpty()) {
+            async = closeAsync(async, group, executor);
+        }
+        async.whenComplete((asyncFailure, e) -> {
+            if (e != null) {
+                asyncClosed.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+            } else if (asyncFailure != null) {
+                asyncClosed.completeExceptionally(asyncFailure);
+            } else {
+                asyncClosed.complete(null);
+            }
+        });
+        failure = await(asyncClosed, deadline, failure);
+        if (failure != null) {
+            throw toUnchecked(failure);
+        }
+    }
+
+    /**
+     * @return a future which is completed once all resources closed in background are closed.
+     */
+    @Nonnull
+    public CompletableFuture<Void> asyncClosed() {
+        return asyncClosed;
+    }
+
+    public boolean isClosed() {
+        synchronized (entries) {
+            return closed;
+        }
+    }
+
+    /**
+     * Closes the given <code>resources</code> using the given <code>executor</code> after all resources of
+     * <code>previous</code> were closed.
+     *
+     * @return a future of the first failure of all resources closed in background so far.
+     */
+    @Nonnull
+    protected static CompletableFuture<Throwable> closeAsync(@Nonnull CompletableFuture<Throwable> previous, @Nonnull List<AutoCloseable> resources, @Nonnull Executor executor) {
+        final var toClose = List.copyOf(resources);
+        return previous.thenApplyAsync(previousFailure -> {
+            final var failure = closeAll(toClose);
+            return failure != null ? collect(failure, previousFailure) : previousFailure;
+        }, executor);
+    }
+
+    /**
+     * Waits until the given <code>future</code> is done but not after the given <code>deadline</code>.
+     */
+    @Nullable
+    protected static Throwable await(@Nonnull CompletableFuture<?> future, long deadline, @Nullable Throwable failure) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+            return failure;
+        } catch (final ExecutionException e) {
+            return collect(e.getCause(), failure);
+        } catch (final TimeoutException ignored) {
+            // The resources are still closed in background, see asyncClosed().
+            return failure;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return collect(e, failure);
+        }
+    }
+
+    @Nullable
+    protected static Throwable closeAll(@Nonnull List<AutoCloseable> resources) {
+        Throwable failure = null;
+        for (final var resource : resources) {
+            failure = closeAndCollect(resource, failure);
+        }
+        return failure;
+    }
+
+    @Nullable
+    protected static Throwable closeAndCollect(@Nonnull AutoCloseable resource, @Nullable Throwable failure) {
+        try {
+            resource.close();
+            return failure;
+        } catch (final Throwable e) {
+            return collect(e, failure);
+        }
+    }
+
+    @Nonnull
+    protected static Throwable collect(@Nonnull Throwable e, @Nullable Throwable failure) {
+        if (failure == null) {
+            return e;
+        }
+        if (failure != e) {
+            failure.addSuppressed(e);
+        }
+        return failure;
+    }
+
+    @Nonnull
+    protected static RuntimeException toUnchecked(@Nonnull Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e instanceof SQLException) {
+            return new UncheckedSqlException((SQLException) e);
+        }
+        if (e instanceof IOException) {
+            return new UncheckedIOException((IOException) e);
+        }
+        return new UndeclaredThrowableException(e);
+    }
+
+    @Nullable
+    protected Executor executor() {
+        return executor;
+    }
+
+    @Nonnull
+    protected Duration timeout() {
+        return timeout;
+    }
+
+    private static final class Entry {
+
+        @Nonnull
+        private final AutoCloseable resource;
+        private final boolean async;
+
+        private Entry(@Nonnull AutoCloseable resource, boolean async) {
+            this.resource = resource;
+            this.async = async;
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.SqlFunction;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.sql.ResultSet;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Stream;
+
+import static org.echocat.jsu.AutoCloseableUtils.closeQuietly;
+
+/**
+ * Iterates a {@link ResultSet} and maps its rows in a background thread ahead of the consumer, so fetching the next rows
+ * from the database overlaps with processing the current ones. The <code>mapper</code> has to create values which do
+ * not depend on the current row of the {@link ResultSet}.
+ *
+ * <p>{@link #close()} cancels the statement of a cursor which is still read, waits for the background thread and
+ * closes the {@link ResultSet}.</p>
+ */
+public class ResultSetPrefetch<T> extends Prefetch<T> {
+
+    @Nonnull
+    private final ResultSet resultSet;
+    @Nonnull
+    private final Stream<T> rows;
+
+    public ResultSetPrefetch(
+        @Nonnull ResultSet resultSet,
+        @Nonnull SqlFunction<ResultSet, T> mapper,
+        @Nonnegative int depth,
+        @Nonnull ThreadFactory threadFactory
+    ) {
+        this(resultSet, JdbcUtils.rowsOf(resultSet, mapper), depth, threadFactory);
+    }
+
+    private ResultSetPrefetch(
+        @Nonnull ResultSet resultSet,
+        @Nonnull Stream<T> rows,
+        @Nonnegative int depth,
+        @Nonnull ThreadFactory threadFactory
+    ) {
+        super(rows.spliterator(), depth, threadFactory);
+        this.resultSet = resultSet;
+        this.rows = rows;
+    }
+
+    @Override
+    public void close() {
+        final var producer = producer();
+        final var reading = producer != null && producer.isAlive();
+        if (reading) {
+            try {
+                // Interrupting does not abort a blocking fetch of most drivers but cancelling the statement does.
+                final var statement = resultSet().getStatement();
+                if (statement != null) {
+                    statement.cancel();
+                }
+            } catch (final Exception ignored) {}
+        }
+        super.close();
+        // Closes the ResultSet and records the close of the rows if StreamMetrics are installed.
+        closeQuietly(rows());
+    }
+
+    @Nonnull
+    protected ResultSet resultSet() {
+        return resultSet;
+    }
+
+    /**
+     * @return the stream of mapped rows which is read by the background thread.
+     */
+    @Nonnull
+    protected Stream<T> rows() {
+        return rows;
+    }
+
+}
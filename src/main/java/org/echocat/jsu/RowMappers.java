@@ -0,0 +1,323 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.SqlFunction;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Creates row mappers which resolve column labels only once per {@link ResultSet} using its
+ * {@link ResultSetMetaData} and read every row afterwards by column index.
+ */
+public final class RowMappers {
+
+    @Nonnull
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    @Nonnull
+    private static final Map<Class<?>, String> GETTERS = createGetters();
+    @Nonnull
+    private static final Map<Class<?>, Class<?>> BOXED_TO_PRIMITIVE = createBoxedToPrimitive();
+
+    /**
+     * The given <code>factory</code> is called once per {@link ResultSet} with its {@link Columns} and has to return
+     * the mapper for all rows of this {@link ResultSet}.
+     */
+    @Nonnull
+    public static <T> SqlFunction<ResultSet, T> resolving(@Nonnull SqlFunction<Columns, SqlFunction<ResultSet, T>> factory) {
+        return new Resolving<>(factory);
+    }
+
+    /**
+     * Maps every row to an instance of the given record <code>type</code> using its canonical constructor. Every
+     * record component is read from the column with the same label (or the same label in <code>snake_case</code>).
+     */
+    @Nonnull
+    public static <T> SqlFunction<ResultSet, T> forRecord(@Nonnull Class<T> type) {
+        final var components = recordComponentsOf(type);
+        final var names = new String[components.length];
+        final var types = new Class<?>[components.length];
+        try {
+            for (int i = 0; i < components.length; i++) {
+                final var componentType = components[i].getClass();
+                names[i] = (String) componentType.getMethod("getName").invoke(components[i]);
+                types[i] = (Class<?>) componentType.getMethod("getType").invoke(components[i]);
+            }
+            return forConstructor(type.getDeclaredConstructor(types), names);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Could not resolve canonical constructor of " + type.getName() + ".", e);
+        }
+    }
+
+    /**
+     * Maps every row to an instance of the given <code>type</code> using its only public constructor with as many
+     * parameters as <code>columnLabels</code> are given. Parameter <code>n</code> is read from column label
+     * <code>n</code>. If there are several of them use {@link #forConstructor(Constructor, String...)} to choose one.
+     */
+    @Nonnull
+    public static <T> SqlFunction<ResultSet, T> forConstructor(@Nonnull Class<T> type, @Nonnull String... columnLabels) {
+        Constructor<?> match = null;
+        for (final var candidate : type.getConstructors()) {
+            if (candidate.getParameterCount() == columnLabels.length) {
+                if (match != null) {
+                    throw new IllegalArgumentException("There is more than one public constructor of " + type.getName() + " with " + columnLabels.length + " parameters; use forConstructor(Constructor, String...) to choose one.");
+                }
+                match = candidate;
+            }
+        }
+        if (match == null) {
+            throw new IllegalArgumentException("There is no public constructor of " + type.getName() + " with " + columnLabels.length + " parameters.");
+        }
+        @SuppressWarnings("unchecked")
+        final var constructor = (Constructor<T>) match;
+        return forConstructor(constructor, columnLabels);
+    }
+
+    @Nonnull
+    public static <T> SqlFunction<ResultSet, T> forConstructor(@Nonnull Constructor<T> constructor, @Nonnull String... columnLabels) {
+        final var parameterTypes = constructor.getParameterTypes();
+        if (parameterTypes.length != columnLabels.length) {
+            throw new IllegalArgumentException("Constructor " + constructor + " requires " + parameterTypes.length + " columns but got " + columnLabels.length + ".");
+        }
+        final MethodHandle target;
+        try {
+            constructor.setAccessible(true);
+            target = LOOKUP.unreflectConstructor(constructor);
+        } catch (final IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Could not access " + constructor + ".", e);
+        }
+        final var type = constructor.getDeclaringClass();
+        return resolving(columns -> {
+            final var getters = new MethodHandle[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                getters[i] = getterFor(parameterTypes[i], columns.indexOf(columnLabels[i]));
+            }
+            // (ResultSet)T := target(getter0(rs), getter1(rs), ...)
+            final var filtered = MethodHandles.filterArguments(target, 0, getters);
+            final var row = MethodHandles.permuteArguments(filtered, methodType(type, ResultSet.class), new int[getters.length])
+                .asType(methodType(Object.class, ResultSet.class));
+            return resultSet -> {
+                try {
+                    return type.cast(row.invokeExact(resultSet));
+                } catch (final SQLException | RuntimeException | Error e) {
+                    throw e;
+                } catch (final Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            };
+        });
+    }
+
+    @Nonnull
+    static MethodHandle getterFor(@Nonnull Class<?> type, @Nonnegative int columnIndex) {
+        try {
+            final var primitive = BOXED_TO_PRIMITIVE.get(type);
+            if (primitive != null) {
+                // Boxed primitives have to be null if the column is NULL.
+                final var getter = LOOKUP.findStatic(RowMappers.class, "getNullable", methodType(Object.class, ResultSet.class, int.class, MethodHandle.class));
+                final var primitiveGetter = getterFor(primitive, columnIndex).asType(methodType(Object.class, ResultSet.class));
+                return MethodHandles.insertArguments(getter, 1, columnIndex, primitiveGetter)
+                    .asType(methodType(type, ResultSet.class));
+            }
+            final var getterName = GETTERS.get(type);
+            if (getterName != null) {
+                final var getter = LOOKUP.findVirtual(ResultSet.class, getterName, methodType(type, int.class));
+                return MethodHandles.insertArguments(getter, 1, columnIndex);
+            }
+            final var getter = LOOKUP.findVirtual(ResultSet.class, "getObject", methodType(Object.class, int.class, Class.class));
+            return MethodHandles.insertArguments(getter, 1, columnIndex, type)
+                .asType(methodType(type, ResultSet.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Could not create getter for " + type.getName() + ".", e);
+        }
+    }
+
+    @Nullable
+    private static Object getNullable(@Nonnull ResultSet resultSet, @Nonnegative int columnIndex, @Nonnull MethodHandle primitiveGetter) throws Throwable {
+        final var result = primitiveGetter.invokeExact(resultSet);
+        return resultSet.wasNull() ? null : result;
+    }
+
+    @Nonnull
+    static Object[] recordComponentsOf(@Nonnull Class<?> type) {
+        try {
+            final Method getRecordComponents = Class.class.getMethod("getRecordComponents");
+            final var result = (Object[]) getRecordComponents.invoke(type);
+            if (result == null) {
+                throw new IllegalArgumentException(type.getName() + " is not a record.");
+            }
+            return result;
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalArgumentException("Records are not supported by this JVM.", e);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Could not resolve record components of " + type.getName() + ".", e);
+        }
+    }
+
+    @Nonnull
+    private static Map<Class<?>, String> createGetters() {
+        final var result = new HashMap<Class<?>, String>();
+        result.put(boolean.class, "getBoolean");
+        result.put(byte.class, "getByte");
+        result.put(short.class, "getShort");
+        result.put(int.class, "getInt");
+        result.put(long.class, "getLong");
+        result.put(float.class, "getFloat");
+        result.put(double.class, "getDouble");
+        result.put(String.class, "getString");
+        result.put(BigDecimal.class, "getBigDecimal");
+        result.put(byte[].class, "getBytes");
+        result.put(Date.class, "getDate");
+        result.put(Time.class, "getTime");
+        result.put(Timestamp.class, "getTimestamp");
+        return result;
+    }
+
+    @Nonnull
+    private static Map<Class<?>, Class<?>> createBoxedToPrimitive() {
+        final var result = new HashMap<Class<?>, Class<?>>();
+        result.put(Boolean.class, boolean.class);
+        result.put(Byte.class, byte.class);
+        result.put(Short.class, short.class);
+        result.put(Integer.class, int.class);
+        result.put(Long.class, long.class);
+        result.put(Float.class, float.class);
+        result.put(Double.class, double.class);
+        return result;
+    }
+
+    /**
+     * The columns of a {@link ResultSet} by their labels.
+     */
+    public static final class Columns {
+
+        @Nonnull
+        private final Map<String, Integer> labelToIndex;
+        @Nonnull
+        private final Map<String, String> ambiguous = new HashMap<>();
+
+        Columns(@Nonnull ResultSetMetaData metaData) throws SQLException {
+            final var count = metaData.getColumnCount();
+            labelToIndex = new HashMap<>(count * 2);
+            final var labels = new HashMap<String, String>(count * 2);
+            for (int i = 1; i <= count; i++) {
+                final var label = metaData.getColumnLabel(i);
+                final var normalized = normalize(label);
+                final var existing = labels.putIfAbsent(normalized, label);
+                if (existing == null) {
+                    labelToIndex.put(normalized, i);
+                } else if (!existing.equalsIgnoreCase(label)) {
+                    // Like a_b and ab: different columns which could not be told apart without _.
+                    ambiguous.putIfAbsent(normalized, existing + " and " + label);
+                }
+                // Otherwise it is a duplicate label and the first column wins.
+            }
+        }
+
+        /**
+         * @return the index (starting with <code>1</code>) of the column with the given <code>label</code>. The
+         * comparison ignores case and <code>_</code>, so <code>firstName</code> matches <code>first_name</code>.
+         * @throws SQLException if there is no such column or if several columns only differ by <code>_</code>.
+         */
+        @Nonnegative
+        public int indexOf(@Nonnull String label) throws SQLException {
+            final var normalized = normalize(label);
+            final var ambiguousLabels = ambiguous.get(normalized);
+            if (ambiguousLabels != null) {
+                throw new SQLException("The column " + label + " is ambiguous between " + ambiguousLabels + ".");
+            }
+            final var result = labelToIndex.get(normalized);
+            if (result == null) {
+                throw new SQLException("There is no column " + label + ".");
+            }
+            return result;
+        }
+
+        @Nonnegative
+        public int size() {
+            return labelToIndex.size();
+        }
+
+        @Nonnull
+        private static String normalize(@Nonnull String label) {
+            return label.replace("_", "").toLowerCase(Locale.ROOT);
+        }
+
+    }
+
+    /**
+     * Thread safe, because the same mapper is usually kept in a constant and used by parallel streams. The last
+     * resolved mapper is cached in one immutable {@link Resolved} so the usual case needs no lock. All others are
+     * kept per {@link ResultSet} without keeping it (and its statement and connection) reachable; every
+     * {@link ResultSet} is resolved only once.
+     */
+    private static final class Resolving<T> implements SqlFunction<ResultSet, T> {
+
+        @Nonnull
+        private final SqlFunction<Columns, SqlFunction<ResultSet, T>> factory;
+        @Nonnull
+        private final Map<ResultSet, SqlFunction<ResultSet, T>> resolved = new WeakHashMap<>();
+        @Nullable
+        private volatile Resolved<T> last;
+
+        private Resolving(@Nonnull SqlFunction<Columns, SqlFunction<ResultSet, T>> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public T apply(@Nonnull ResultSet resultSet) throws SQLException {
+            final var last = this.last;
+            if (last != null && last.resultSet.get() == resultSet) {
+                return last.delegate.apply(resultSet);
+            }
+            SqlFunction<ResultSet, T> delegate;
+            synchronized (resolved) {
+                delegate = resolved.get(resultSet);
+                if (delegate == null) {
+                    delegate = factory.apply(new Columns(resultSet.getMetaData()));
+                    if (delegate == null) {
+                        throw new IllegalStateException("Factory " + factory + " returned no mapper.");
+                    }
+                    resolved.put(resultSet, delegate);
+                }
+            }
+            this.last = new Resolved<>(resultSet, delegate);
+            return delegate.apply(resultSet);
+        }
+
+    }
+
+    private static final class Resolved<T> {
+
+        @Nonnull
+        private final WeakReference<ResultSet> resultSet;
+        @Nonnull
+        private final SqlFunction<ResultSet, T> delegate;
+
+        private Resolved(@Nonnull ResultSet resultSet, @Nonnull SqlFunction<ResultSet, T> delegate) {
+            this.resultSet = new WeakReference<>(resultSet);
+            this.delegate = delegate;
+        }
+
+    }
+
+}
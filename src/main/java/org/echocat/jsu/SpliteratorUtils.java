@@ -1,11 +1,19 @@
 package org.echocat.jsu;
 
+import static org.echocat.jsu.support.Threads.threadFactory;
+
+import java.time.Duration;
 import java.util.List;
 import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public final class SpliteratorUtils {
 
@@ -21,7 +29,62 @@ public final class SpliteratorUtils {
 
     @Nonnull
     public static <T> Spliterator<List<T>> batch(@Nonnull Spliterator<? extends T> source, @Nonnegative int batchSize) {
-        return batch(source, () -> batchSize);
+        return new Batch<>(source, batchSize);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<List<T>> batch(@Nonnull Spliterator<? extends T> source, @Nonnull ToLongFunction<? super T> weigher, @Nonnegative long maxWeight) {
+        return new WeightedBatch<>(source, weigher, maxWeight);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<List<T>> batch(@Nonnull Spliterator<? extends T> source, @Nonnull ToLongFunction<? super T> weigher, @Nonnegative long maxWeight, @Nonnegative int maxCount) {
+        return new WeightedBatch<>(source, weigher, maxWeight, maxCount);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<List<T>> batch(@Nonnull PollingGenerator<? extends T> generator, @Nonnegative int maxSize, @Nonnull Duration linger) {
+        return new LingeringBatch<>(generator, maxSize, linger);
+    }
+
+    @Nonnull
+    public static Spliterator<int[]> batch(@Nonnull Spliterator.OfInt source, @Nonnegative @Nonnull Supplier<Integer> batchSize) {
+        return new IntBatch(source, batchSize);
+    }
+
+    @Nonnull
+    public static Spliterator<int[]> batch(@Nonnull Spliterator.OfInt source, @Nonnegative int batchSize) {
+        return new IntBatch(source, batchSize);
+    }
+
+    @Nonnull
+    public static Spliterator<long[]> batch(@Nonnull Spliterator.OfLong source, @Nonnegative @Nonnull Supplier<Integer> batchSize) {
+        return new LongBatch(source, batchSize);
+    }
+
+    @Nonnull
+    public static Spliterator<long[]> batch(@Nonnull Spliterator.OfLong source, @Nonnegative int batchSize) {
+        return new LongBatch(source, batchSize);
+    }
+
+    @Nonnull
+    public static Spliterator<double[]> batch(@Nonnull Spliterator.OfDouble source, @Nonnegative @Nonnull Supplier<Integer> batchSize) {
+        return new DoubleBatch(source, batchSize);
+    }
+
+    @Nonnull
+    public static Spliterator<double[]> batch(@Nonnull Spliterator.OfDouble source, @Nonnegative int batchSize) {
+        return new DoubleBatch(source, batchSize);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<RecyclableBatch<T>> batch(@Nonnull Spliterator<? extends T> source, @Nonnegative @Nonnull Supplier<Integer> batchSize, @Nonnull BatchPool<T> pool) {
+        return new RecyclingBatch<>(source, batchSize, pool);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<RecyclableBatch<T>> batch(@Nonnull Spliterator<? extends T> source, @Nonnegative int batchSize, @Nonnull BatchPool<T> pool) {
+        return new RecyclingBatch<>(source, batchSize, pool);
     }
 
     @Nonnull
@@ -29,4 +92,68 @@ public final class SpliteratorUtils {
         return new ContinuingSupplier<>(generator);
     }
 
+    @Nonnull
+    public static <T> Spliterator<T> generate(@Nonnull SplittableGenerator<? extends T> generator) {
+        return new SplittingSupplier<>(generator);
+    }
+
+    /**
+     * Like {@link #generate(SplittableGenerator)} but records every fork of the <code>generator</code> as the given
+     * <code>stage</code> of {@link StreamMetrics}.
+     */
+    @Nonnull
+    public static <T> Spliterator<T> generate(@Nonnull SplittableGenerator<? extends T> generator, @Nonnull String stage) {
+        return new SplittingSupplier<>(generator, stage);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<T> generateConcurrent(@Nonnull Generator<? extends T> generator) {
+        return new ConcurrentSupplier<>(generator);
+    }
+
+    @Nonnull
+    public static <T> Prefetch<T> prefetch(@Nonnull Spliterator<? extends T> source, @Nonnegative int depth) {
+        return prefetch(source, depth, threadFactory("jsu-prefetch-"));
+    }
+
+    @Nonnull
+    public static <T> Prefetch<T> prefetch(@Nonnull Spliterator<? extends T> source, @Nonnegative int depth, @Nonnull ThreadFactory threadFactory) {
+        return new Prefetch<>(source, depth, threadFactory);
+    }
+
+    @Nonnull
+    public static <T, R> MapAsync<T, R> mapAsync(@Nonnull Spliterator<? extends T> source, @Nonnull Function<? super T, ? extends R> mapper, @Nonnegative int maxInFlight, @Nullable Executor executor) {
+        return new MapAsync<>(source, mapper, maxInFlight, executor, true);
+    }
+
+    @Nonnull
+    public static <T, R> MapAsync<T, R> mapAsyncUnordered(@Nonnull Spliterator<? extends T> source, @Nonnull Function<? super T, ? extends R> mapper, @Nonnegative int maxInFlight, @Nullable Executor executor) {
+        return new MapAsync<>(source, mapper, maxInFlight, executor, false);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<T> generateBulk(@Nonnull BulkGenerator<? extends T> generator) {
+        return new BulkContinuingSupplier<>(generator);
+    }
+
+    @Nonnull
+    public static <T> Spliterator<T> generateBulk(@Nonnull BulkGenerator<? extends T> generator, @Nonnegative int chunkSize) {
+        return new BulkContinuingSupplier<>(generator, chunkSize);
+    }
+
+    @Nonnull
+    public static Spliterator.OfInt generateInt(@Nonnull IntGenerator generator) {
+        return new ContinuingSupplier.OfInt(generator);
+    }
+
+    @Nonnull
+    public static Spliterator.OfLong generateLong(@Nonnull LongGenerator generator) {
+        return new ContinuingSupplier.OfLong(generator);
+    }
+
+    @Nonnull
+    public static Spliterator.OfDouble generateDouble(@Nonnull DoubleGenerator generator) {
+        return new ContinuingSupplier.OfDouble(generator);
+    }
+
 }
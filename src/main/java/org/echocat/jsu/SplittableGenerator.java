@@ -0,0 +1,113 @@
+package org.echocat.jsu;
+
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Generator} which could fork independent sub-generators (like ranges of IDs, shards or partitioned queues),
+ * so parallel streams could generate elements in every thread without sharing a single generator.
+ */
+public interface SplittableGenerator<T> extends Generator<T> {
+
+    /**
+     * Forks a generator which takes over a part of the remaining elements of this generator. All elements of the
+     * returned generator have to come before the then remaining elements of this one.
+     *
+     * @return the forked generator or <code>null</code> if this generator could not be split (anymore).
+     */
+    @Nullable
+    SplittableGenerator<T> trySplit();
+
+    /**
+     * @return the estimated number of remaining elements or {@link Long#MAX_VALUE} if unknown.
+     */
+    @Nonnegative
+    default long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Generates all values from <code>startInclusive</code> to <code>endExclusive</code>. Splits hand over the
+     * first half of the remaining values.
+     */
+    @Nonnull
+    static SplittableGenerator<Long> range(long startInclusive, long endExclusive) {
+        if (endExclusive < startInclusive) {
+            throw new IllegalArgumentException("The endExclusive have to be greater than or equal to startInclusive (" + startInclusive + ") but was " + endExclusive + ".");
+        }
+        return new SplittableGenerator<>() {
+            private long next = startInclusive;
+
+            @Nonnull
+            @Override
+            public Optional<Long> generate() {
+                return next < endExclusive ? Optional.of(next++) : Optional.empty();
+            }
+
+            @Nullable
+            @Override
+            public SplittableGenerator<Long> trySplit() {
+                final var remaining = endExclusive - next;
+                if (remaining < 2) {
+                    return null;
+                }
+                final var middle = next + remaining / 2;
+                final var result = range(next, middle);
+                next = middle;
+                return result;
+            }
+
+            @Override
+            public long estimateSize() {
+                return endExclusive - next;
+            }
+        };
+    }
+
+    /**
+     * Generates all elements of the given <code>shards</code> one after another. Splits hand over the first half of
+     * the remaining shards; a single shard is never split.
+     */
+    @Nonnull
+    static <T> SplittableGenerator<T> ofShards(@Nonnull List<? extends Generator<? extends T>> shards) {
+        final List<Generator<? extends T>> copy = List.copyOf(shards);
+        return ofShards(copy, 0, copy.size());
+    }
+
+    @Nonnull
+    private static <T> SplittableGenerator<T> ofShards(@Nonnull List<Generator<? extends T>> shards, @Nonnegative int from, @Nonnegative int to) {
+        return new SplittableGenerator<>() {
+            private int index = from;
+
+            @Nonnull
+            @Override
+            public Optional<T> generate() {
+                while (index < to) {
+                    final Optional<? extends T> next = shards.get(index).generate();
+                    if (next.isPresent()) {
+                        return Optional.of(next.get());
+                    }
+                    index++;
+                }
+                return Optional.empty();
+            }
+
+            @Nullable
+            @Override
+            public SplittableGenerator<T> trySplit() {
+                final var remaining = to - index;
+                if (remaining < 2) {
+                    return null;
+                }
+                final var middle = index + remaining / 2;
+                final var result = SplittableGenerator.<T>ofShards(shards, index, middle);
+                index = middle;
+                return result;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.echocat.jsu;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Like {@link ContinuingSupplier} but splits by forking the {@link SplittableGenerator} instead of buffering elements
+ * of a single generator into arrays. If a <code>stage</code> is given every fork is {@link StreamMetrics#timed(Generator, String) timed}
+ * like the original generator.
+ */
+public class SplittingSupplier<T> implements Spliterator<T> {
+
+    @Nonnull
+    private final SplittableGenerator<? extends T> generator;
+    @Nullable
+    private final String stage;
+    @Nonnull
+    private final Generator<? extends T> timed;
+
+    public SplittingSupplier(@Nonnull SplittableGenerator<? extends T> generator) {
+        this(generator, null);
+    }
+
+    public SplittingSupplier(@Nonnull SplittableGenerator<? extends T> generator, @Nullable String stage) {
+        this.generator = generator;
+        this.stage = stage;
+        this.timed = stage != null ? StreamMetrics.timed(generator, stage) : generator;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super T> action) {
+        final var next = timed().generate();
+        if (next.isEmpty()) {
+            return false;
+        }
+        action.accept(next.get());
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<T> trySplit() {
+        final var fork = generator().trySplit();
+        return fork != null ? new SplittingSupplier<>(fork, stage()) : null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return generator().estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | IMMUTABLE;
+    }
+
+    @Nonnull
+    protected SplittableGenerator<? extends T> generator() {
+        return generator;
+    }
+
+    @Nullable
+    protected String stage() {
+        return stage;
+    }
+
+    /**
+     * @return the {@link #generator()} which records metrics and stall events of the {@link #stage()}.
+     */
+    @Nonnull
+    protected Generator<? extends T> timed() {
+        return timed;
+    }
+
+}
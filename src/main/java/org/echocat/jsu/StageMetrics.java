@@ -0,0 +1,166 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Histogram;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of all streams of one stage (like {@link StreamMetrics#GENERATE}) of a {@link StreamMetrics}. All
+ * durations are in nanoseconds.
+ */
+public class StageMetrics implements StageMetricsMXBean {
+
+    @Nonnull
+    private final String name;
+
+    private final LongAdder elements = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder batchCapacity = new LongAdder();
+    private final Histogram latency = new Histogram();
+    private final Histogram lifetime = new Histogram();
+    private final Histogram batchSizes = new Histogram();
+
+    public StageMetrics(@Nonnull String name) {
+        this.name = name;
+    }
+
+    public void recordElements(@Nonnegative long count) {
+        elements.add(count);
+    }
+
+    /**
+     * @return the time of opening which has to be passed to {@link #recordClose(long)}.
+     */
+    public long recordOpen() {
+        opened.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * @return the time from opening to closing.
+     */
+    public long recordClose(long openedAt) {
+        final var result = System.nanoTime() - openedAt;
+        closed.increment();
+        lifetime.record(result);
+        return result;
+    }
+
+    /**
+     * Records the duration of a single call to the source of this stage, like {@link Generator#generate()} or
+     * {@link java.sql.ResultSet#next()}.
+     */
+    public void recordLatency(@Nonnegative long nanos) {
+        latency.record(nanos);
+    }
+
+    public void recordBatch(@Nonnegative int size, @Nonnegative int capacity, @Nonnegative long fillNanos) {
+        batchSizes.record(size);
+        batchCapacity.add(capacity);
+        latency.record(fillNanos);
+    }
+
+    @Nonnull
+    public Histogram latency() {
+        return latency;
+    }
+
+    @Nonnull
+    public Histogram lifetime() {
+        return lifetime;
+    }
+
+    @Nonnull
+    public Histogram batchSizes() {
+        return batchSizes;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getElements() {
+        return elements.sum();
+    }
+
+    @Override
+    public long getOpened() {
+        return opened.sum();
+    }
+
+    @Override
+    public long getClosed() {
+        return closed.sum();
+    }
+
+    @Override
+    public long getLatencyCount() {
+        return latency.count();
+    }
+
+    @Override
+    public double getLatencyMean() {
+        return latency.mean();
+    }
+
+    @Override
+    public long getLatencyP50() {
+        return latency.valueAtPercentile(50);
+    }
+
+    @Override
+    public long getLatencyP99() {
+        return latency.valueAtPercentile(99);
+    }
+
+    @Override
+    public long getLatencyMax() {
+        return latency.max();
+    }
+
+    @Override
+    public double getLifetimeMean() {
+        return lifetime.mean();
+    }
+
+    @Override
+    public long getLifetimeP99() {
+        return lifetime.valueAtPercentile(99);
+    }
+
+    @Override
+    public long getLifetimeMax() {
+        return lifetime.max();
+    }
+
+    @Override
+    public long getBatches() {
+        return batchSizes.count();
+    }
+
+    @Override
+    public double getBatchSizeMean() {
+        return batchSizes.mean();
+    }
+
+    /**
+     * @return the ratio of elements in all batches to their capacity (the requested batch size).
+     */
+    @Override
+    public double getBatchFillRatio() {
+        final var capacity = batchCapacity.sum();
+        return capacity > 0 ? (double) batchSizes.sum() / capacity : 0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
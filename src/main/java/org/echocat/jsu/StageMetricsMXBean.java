@@ -0,0 +1,39 @@
+package org.echocat.jsu;
+
+/**
+ * The metrics of a {@link StageMetrics stage} as exposed by {@link JmxMetricsListener}. All durations are in
+ * nanoseconds.
+ */
+public interface StageMetricsMXBean {
+
+    String getName();
+
+    long getElements();
+
+    long getOpened();
+
+    long getClosed();
+
+    long getLatencyCount();
+
+    double getLatencyMean();
+
+    long getLatencyP50();
+
+    long getLatencyP99();
+
+    long getLatencyMax();
+
+    double getLifetimeMean();
+
+    long getLifetimeP99();
+
+    long getLifetimeMax();
+
+    long getBatches();
+
+    double getBatchSizeMean();
+
+    double getBatchFillRatio();
+
+}
@@ -0,0 +1,73 @@
+package org.echocat.jsu;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Emitted if a single {@link Generator#generate()} or {@link java.sql.ResultSet#next()} call took longer than the
+ * threshold (default <code>10 ms</code>) which could be configured like for every other JFR event.
+ */
+@Name("org.echocat.jsu.Stall")
+@Label("Stream Stall")
+@Description("A single call to the source of a stream took longer than the threshold.")
+@Category({"echocat", "Stream Utils"})
+@Enabled(false)
+@Threshold("10 ms")
+final class StallEvent extends jdk.jfr.Event {
+
+    @Nonnull
+    private static final EventType TYPE = EventType.getEventType(StallEvent.class);
+
+    @Label("Stage")
+    String stage;
+
+    /**
+     * @return <code>true</code> if a recording currently enables this event. This is checked once per stream to
+     * avoid wrapping every call of its source if no recording is interested in stalls.
+     */
+    static boolean isTypeEnabled() {
+        return TYPE.isEnabled();
+    }
+
+    @Nonnull
+    static <T> BulkGenerator<T> timedBulk(@Nonnull BulkGenerator<T> generator, @Nonnull String stage) {
+        return (sink, max) -> {
+            final var event = new StallEvent();
+            event.begin();
+            try {
+                return generator.generateInto(sink, max);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.stage = stage;
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    @Nonnull
+    static <T> Generator<T> timed(@Nonnull Generator<T> generator, @Nonnull String stage) {
+        return () -> {
+            final var event = new StallEvent();
+            event.begin();
+            try {
+                return generator.generate();
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.stage = stage;
+                    event.commit();
+                }
+            }
+        };
+    }
+
+}
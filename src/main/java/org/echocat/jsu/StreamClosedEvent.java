@@ -0,0 +1,39 @@
+package org.echocat.jsu;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+@Name("org.echocat.jsu.StreamClosed")
+@Label("Stream Closed")
+@Description("A stream instrumented by StreamMetrics was closed.")
+@Category({"echocat", "Stream Utils"})
+@Enabled(false)
+@StackTrace(false)
+final class StreamClosedEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Lifetime")
+    @Description("Time from opening to closing of the stream.")
+    @Timespan(Timespan.NANOSECONDS)
+    long lifetime;
+
+    static void emit(@Nonnull String stage, @Nonnegative long lifetime) {
+        final var event = new StreamClosedEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.lifetime = lifetime;
+            event.commit();
+        }
+    }
+
+}
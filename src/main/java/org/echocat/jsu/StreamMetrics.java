@@ -0,0 +1,203 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Collections.unmodifiableCollection;
+
+/**
+ * Collects {@link StageMetrics} of the streams of this library per stage and publishes them to its
+ * {@link MetricsListener listeners}. Instrumentation is disabled until an instance is
+ * {@link #install(StreamMetrics) installed}; while it is disabled every instrumentation point costs a single
+ * volatile read.
+ *
+ * <p>Built-in stages are {@link #GENERATE} ({@link StreamUtils#generate(Generator)}), {@link #RESULT_SET}
+ * ({@link JdbcUtils#toStream(java.sql.ResultSet)} and {@link JdbcUtils}<code>.stream(..)</code>) and {@link #BATCH}
+ * ({@link Batch}). Other streams could be instrumented using {@link #instrument(Stream, String)}.</p>
+ *
+ * <p>Instrumented streams also emit JFR events when they are opened and closed. These events (like all other JFR
+ * events of this library) are disabled by default and have to be enabled by the recording.</p>
+ */
+public class StreamMetrics {
+
+    /**
+     * Elements, lifetime and duration of every {@link Generator#generate()} call of streams created by
+     * {@link StreamUtils#generate(Generator)}.
+     */
+    public static final String GENERATE = "generate";
+    /**
+     * Elements, lifetime and duration of every {@link java.sql.ResultSet#next()} call of streams of a
+     * {@link java.sql.ResultSet}.
+     */
+    public static final String RESULT_SET = "resultSet";
+    /**
+     * Sizes, fill ratio and fill duration of every batch of {@link Batch}.
+     */
+    public static final String BATCH = "batch";
+
+    @Nullable
+    private static volatile StreamMetrics installed;
+
+    @Nonnull
+    private final ConcurrentMap<String, StageMetrics> stages = new ConcurrentHashMap<>();
+    @Nonnull
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+    public StreamMetrics(@Nonnull MetricsListener... listeners) {
+        this.listeners.addAll(List.of(listeners));
+    }
+
+    /**
+     * Makes the given <code>metrics</code> instrument all streams created by this library from now on.
+     * <code>null</code> disables instrumentation (default).
+     */
+    public static void install(@Nullable StreamMetrics metrics) {
+        installed = metrics;
+    }
+
+    @Nullable
+    public static StreamMetrics installed() {
+        return installed;
+    }
+
+    /**
+     * @return the metrics of the given <code>stage</code> of the {@link #installed() installed} instance or
+     * <code>null</code> if instrumentation is disabled.
+     */
+    @Nullable
+    public static StageMetrics stage(@Nonnull String name) {
+        final var metrics = installed;
+        return metrics != null ? metrics.stageOf(name) : null;
+    }
+
+    /**
+     * Counts the elements and tracks the time from open to close of the given <code>stream</code> if
+     * instrumentation is enabled.
+     */
+    @Nonnull
+    public static <T> Stream<T> instrument(@Nonnull Stream<T> stream, @Nonnull String stage) {
+        final var metrics = stage(stage);
+        if (metrics == null) {
+            return stream;
+        }
+        return instrument(stream.spliterator(), stream.isParallel(), metrics)
+            .onClose(stream::close);
+    }
+
+    @Nonnull
+    static <T> Stream<T> stream(@Nonnull Spliterator<T> spliterator, boolean parallel, @Nonnull String stage) {
+        final var metrics = stage(stage);
+        if (metrics == null) {
+            return StreamSupport.stream(spliterator, parallel);
+        }
+        return instrument(spliterator, parallel, metrics);
+    }
+
+    /**
+     * @return a generator which records the duration of every {@link Generator#generate()} call if
+     * instrumentation is enabled and emits a {@link StallEvent} for slow calls if a JFR recording enables it.
+     */
+    @Nonnull
+    public static <T> Generator<T> timed(@Nonnull Generator<? extends T> generator, @Nonnull String stage) {
+        @SuppressWarnings("unchecked")
+        final var typed = (Generator<T>) generator;
+        final var metrics = stage(stage);
+        var result = typed;
+        if (metrics != null) {
+            result = () -> {
+                final var start = System.nanoTime();
+                try {
+                    return typed.generate();
+                } finally {
+                    metrics.recordLatency(System.nanoTime() - start);
+                }
+            };
+        }
+        if (StallEvent.isTypeEnabled()) {
+            result = StallEvent.timed(result, stage);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #timed(Generator, String)} but records every {@link BulkGenerator#generateInto(java.util.function.Consumer, int)} call.
+     */
+    @Nonnull
+    public static <T> BulkGenerator<T> timedBulk(@Nonnull BulkGenerator<? extends T> generator, @Nonnull String stage) {
+        @SuppressWarnings("unchecked")
+        final var typed = (BulkGenerator<T>) generator;
+        final var metrics = stage(stage);
+        var result = typed;
+        if (metrics != null) {
+            result = (sink, max) -> {
+                final var start = System.nanoTime();
+                try {
+                    return typed.generateInto(sink, max);
+                } finally {
+                    metrics.recordLatency(System.nanoTime() - start);
+                }
+            };
+        }
+        if (StallEvent.isTypeEnabled()) {
+            result = StallEvent.timedBulk(result, stage);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static <T> Stream<T> instrument(@Nonnull Spliterator<T> spliterator, boolean parallel, @Nonnull StageMetrics metrics) {
+        final var instrumented = new InstrumentedSpliterator<>(spliterator, metrics);
+        final var openedAt = metrics.recordOpen();
+        StreamOpenedEvent.emit(metrics.getName());
+        return StreamSupport.stream(instrumented, parallel)
+            .onClose(instrumented::flush)
+            .onClose(() -> StreamClosedEvent.emit(metrics.getName(), metrics.recordClose(openedAt)));
+    }
+
+    @Nonnull
+    public StageMetrics stageOf(@Nonnull String name) {
+        final var existing = stages.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        final var created = new StageMetrics(name);
+        final var previous = stages.putIfAbsent(name, created);
+        if (previous != null) {
+            return previous;
+        }
+        for (final var listener : listeners) {
+            listener.onStage(created);
+        }
+        return created;
+    }
+
+    @Nonnull
+    public Optional<StageMetrics> findStage(@Nonnull String name) {
+        return Optional.ofNullable(stages.get(name));
+    }
+
+    @Nonnull
+    public Collection<StageMetrics> stages() {
+        return unmodifiableCollection(stages.values());
+    }
+
+    /**
+     * Adds the given <code>listener</code> and notifies it about all already existing stages.
+     */
+    public void addListener(@Nonnull MetricsListener listener) {
+        listeners.add(listener);
+        for (final var stage : stages.values()) {
+            listener.onStage(stage);
+        }
+    }
+
+}
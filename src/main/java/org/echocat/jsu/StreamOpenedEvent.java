@@ -0,0 +1,31 @@
+package org.echocat.jsu;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import javax.annotation.Nonnull;
+
+@Name("org.echocat.jsu.StreamOpened")
+@Label("Stream Opened")
+@Description("A stream instrumented by StreamMetrics was opened.")
+@Category({"echocat", "Stream Utils"})
+@Enabled(false)
+@StackTrace(false)
+final class StreamOpenedEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+
+    static void emit(@Nonnull String stage) {
+        final var event = new StreamOpenedEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.commit();
+        }
+    }
+
+}
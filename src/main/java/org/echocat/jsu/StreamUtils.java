@@ -1,14 +1,25 @@
 package org.echocat.jsu;
 
 import static org.echocat.jsu.AutoCloseableUtils.closeQuietly;
+import static org.echocat.jsu.StreamMetrics.GENERATE;
+import static org.echocat.jsu.support.Threads.threadFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public final class StreamUtils {
 
@@ -27,7 +38,74 @@ public final class StreamUtils {
 
     @Nonnull
     public static <T> Stream<List<T>> batch(@Nonnull Stream<? extends T> source, @Nonnegative int batchSize) {
-        return batch(source, () -> batchSize);
+        return StreamSupport.<List<T>>stream(SpliteratorUtils.batch(source.spliterator(), batchSize), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T> Stream<List<T>> batch(@Nonnull Stream<? extends T> source, @Nonnull ToLongFunction<? super T> weigher, @Nonnegative long maxWeight) {
+        return StreamSupport.<List<T>>stream(SpliteratorUtils.batch(source.spliterator(), weigher, maxWeight), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T> Stream<List<T>> batch(@Nonnull Stream<? extends T> source, @Nonnull ToLongFunction<? super T> weigher, @Nonnegative long maxWeight, @Nonnegative int maxCount) {
+        return StreamSupport.<List<T>>stream(SpliteratorUtils.batch(source.spliterator(), weigher, maxWeight, maxCount), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T> Stream<List<T>> batch(@Nonnull PollingGenerator<? extends T> generator, @Nonnegative int maxSize, @Nonnull Duration linger) {
+        return StreamSupport.<List<T>>stream(SpliteratorUtils.batch(generator, maxSize, linger), false)
+            .onClose(() -> closeQuietly(generator));
+    }
+
+    @Nonnull
+    public static Stream<int[]> batch(@Nonnull IntStream source, @Nonnegative @Nonnull Supplier<Integer> batchSize) {
+        return StreamSupport.stream(SpliteratorUtils.batch(source.spliterator(), batchSize), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static Stream<int[]> batch(@Nonnull IntStream source, @Nonnegative int batchSize) {
+        return StreamSupport.stream(SpliteratorUtils.batch(source.spliterator(), batchSize), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static Stream<long[]> batch(@Nonnull LongStream source, @Nonnegative @Nonnull Supplier<Integer> batchSize) {
+        return StreamSupport.stream(SpliteratorUtils.batch(source.spliterator(), batchSize), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static Stream<long[]> batch(@Nonnull LongStream source, @Nonnegative int batchSize) {
+        return StreamSupport.stream(SpliteratorUtils.batch(source.spliterator(), batchSize), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static Stream<double[]> batch(@Nonnull DoubleStream source, @Nonnegative @Nonnull Supplier<Integer> batchSize) {
+        return StreamSupport.stream(SpliteratorUtils.batch(source.spliterator(), batchSize), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static Stream<double[]> batch(@Nonnull DoubleStream source, @Nonnegative int batchSize) {
+        return StreamSupport.stream(SpliteratorUtils.batch(source.spliterator(), batchSize), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T> Stream<RecyclableBatch<T>> batch(@Nonnull Stream<? extends T> source, @Nonnegative @Nonnull Supplier<Integer> batchSize, @Nonnull BatchPool<T> pool) {
+        return StreamSupport.<RecyclableBatch<T>>stream(SpliteratorUtils.batch(source.spliterator(), batchSize, pool), false)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T> Stream<RecyclableBatch<T>> batch(@Nonnull Stream<? extends T> source, @Nonnegative int batchSize, @Nonnull BatchPool<T> pool) {
+        return StreamSupport.<RecyclableBatch<T>>stream(SpliteratorUtils.batch(source.spliterator(), batchSize, pool), false)
+            .onClose(() -> closeQuietly(source));
     }
 
     @Nonnull
@@ -37,8 +115,120 @@ public final class StreamUtils {
 
     @Nonnull
     public static <T> Stream<T> generate(@Nonnull Generator<? extends T> generator, boolean parallel) {
-        return StreamSupport.<T>stream(SpliteratorUtils.generate(generator), parallel)
-            .onClose(() -> AutoCloseableUtils.closeQuietly(generator));
+        return trackIfCloseable(StreamMetrics.<T>stream(SpliteratorUtils.generate(StreamMetrics.timed(generator, GENERATE)), parallel, GENERATE)
+            .onClose(() -> AutoCloseableUtils.closeQuietly(generator)), generator);
+    }
+
+    /**
+     * Like {@link #generate(Generator, boolean)} but a parallel stream splits by forking the given
+     * <code>generator</code>, so every thread generates its own elements.
+     */
+    @Nonnull
+    public static <T> Stream<T> generate(@Nonnull SplittableGenerator<? extends T> generator, boolean parallel) {
+        return trackIfCloseable(StreamMetrics.<T>stream(SpliteratorUtils.generate(generator, GENERATE), parallel, GENERATE)
+            .onClose(() -> AutoCloseableUtils.closeQuietly(generator)), generator);
+    }
+
+    /**
+     * @return a parallel stream without encounter order which calls the given <code>generator</code> from every
+     * worker thread concurrently. The <code>generator</code> has to be thread safe and has to keep returning
+     * {@link java.util.Optional#empty()} once it has ended.
+     */
+    @Nonnull
+    public static <T> Stream<T> generateConcurrent(@Nonnull Generator<? extends T> generator) {
+        return trackIfCloseable(StreamMetrics.<T>stream(SpliteratorUtils.generateConcurrent(StreamMetrics.timed(generator, GENERATE)), true, GENERATE)
+            .onClose(() -> AutoCloseableUtils.closeQuietly(generator)), generator);
+    }
+
+    /**
+     * Only generators which are {@link AutoCloseable} hold something which could leak.
+     */
+    @Nonnull
+    private static <T> Stream<T> trackIfCloseable(@Nonnull Stream<T> stream, @Nonnull Object generator) {
+        return generator instanceof AutoCloseable ? LeakDetector.track(stream, generator) : stream;
+    }
+
+    @Nonnull
+    public static <T> Stream<T> prefetch(@Nonnull Stream<? extends T> source, @Nonnegative int depth) {
+        return prefetch(source, depth, threadFactory("jsu-prefetch-"));
+    }
+
+    @Nonnull
+    public static <T> Stream<T> prefetch(@Nonnull Stream<? extends T> source, @Nonnegative int depth, @Nonnull ThreadFactory threadFactory) {
+        final var prefetch = SpliteratorUtils.<T>prefetch(source.spliterator(), depth, threadFactory);
+        return StreamSupport.<T>stream(prefetch, false)
+            .onClose(prefetch::close)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T, R> Stream<R> mapAsync(@Nonnull Stream<? extends T> source, @Nonnull Function<? super T, ? extends R> mapper, @Nonnegative int maxInFlight) {
+        return mapAsync(source, mapper, maxInFlight, null);
+    }
+
+    @Nonnull
+    public static <T, R> Stream<R> mapAsync(@Nonnull Stream<? extends T> source, @Nonnull Function<? super T, ? extends R> mapper, @Nonnegative int maxInFlight, @Nullable Executor executor) {
+        final var mapAsync = SpliteratorUtils.<T, R>mapAsync(source.spliterator(), mapper, maxInFlight, executor);
+        return StreamSupport.<R>stream(mapAsync, false)
+            .onClose(mapAsync::close)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T, R> Stream<R> mapAsyncUnordered(@Nonnull Stream<? extends T> source, @Nonnull Function<? super T, ? extends R> mapper, @Nonnegative int maxInFlight) {
+        return mapAsyncUnordered(source, mapper, maxInFlight, null);
+    }
+
+    @Nonnull
+    public static <T, R> Stream<R> mapAsyncUnordered(@Nonnull Stream<? extends T> source, @Nonnull Function<? super T, ? extends R> mapper, @Nonnegative int maxInFlight, @Nullable Executor executor) {
+        final var mapAsync = SpliteratorUtils.<T, R>mapAsyncUnordered(source.spliterator(), mapper, maxInFlight, executor);
+        return StreamSupport.<R>stream(mapAsync, false)
+            .onClose(mapAsync::close)
+            .onClose(() -> closeQuietly(source));
+    }
+
+    @Nonnull
+    public static <T> Stream<T> generateBulk(@Nonnull BulkGenerator<? extends T> generator) {
+        return generateBulk(generator, BulkContinuingSupplier.DEFAULT_CHUNK_SIZE, false);
+    }
+
+    @Nonnull
+    public static <T> Stream<T> generateBulk(@Nonnull BulkGenerator<? extends T> generator, @Nonnegative int chunkSize, boolean parallel) {
+        return trackIfCloseable(StreamMetrics.<T>stream(SpliteratorUtils.generateBulk(StreamMetrics.timedBulk(generator, GENERATE), chunkSize), parallel, GENERATE)
+            .onClose(() -> AutoCloseableUtils.closeQuietly(generator)), generator);
+    }
+
+    @Nonnull
+    public static IntStream generateInt(@Nonnull IntGenerator generator) {
+        return generateInt(generator, false);
+    }
+
+    @Nonnull
+    public static IntStream generateInt(@Nonnull IntGenerator generator, boolean parallel) {
+        return StreamSupport.intStream(SpliteratorUtils.generateInt(generator), parallel)
+            .onClose(() -> closeQuietly(generator));
+    }
+
+    @Nonnull
+    public static LongStream generateLong(@Nonnull LongGenerator generator) {
+        return generateLong(generator, false);
+    }
+
+    @Nonnull
+    public static LongStream generateLong(@Nonnull LongGenerator generator, boolean parallel) {
+        return StreamSupport.longStream(SpliteratorUtils.generateLong(generator), parallel)
+            .onClose(() -> closeQuietly(generator));
+    }
+
+    @Nonnull
+    public static DoubleStream generateDouble(@Nonnull DoubleGenerator generator) {
+        return generateDouble(generator, false);
+    }
+
+    @Nonnull
+    public static DoubleStream generateDouble(@Nonnull DoubleGenerator generator, boolean parallel) {
+        return StreamSupport.doubleStream(SpliteratorUtils.generateDouble(generator), parallel)
+            .onClose(() -> closeQuietly(generator));
     }
 
 }
@@ -0,0 +1,188 @@
+package org.echocat.jsu;
+
+import org.echocat.jsu.support.Callable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+
+/**
+ * Describes how a statement should be prepared to stream its results. Instances are immutable; every
+ * <code>with*</code> method returns a modified copy.
+ */
+public final class StreamingOptions {
+
+    @Nonnull
+    private static final StreamingOptions DEFAULTS = new StreamingOptions(TYPE_FORWARD_ONLY, CONCUR_READ_ONLY, null, null, null);
+
+    private final int resultSetType;
+    private final int resultSetConcurrency;
+    @Nullable
+    private final Integer fetchSize;
+    @Nullable
+    private final Duration queryTimeout;
+    @Nullable
+    private final Boolean autoCommit;
+
+    private StreamingOptions(
+        int resultSetType,
+        int resultSetConcurrency,
+        @Nullable Integer fetchSize,
+        @Nullable Duration queryTimeout,
+        @Nullable Boolean autoCommit
+    ) {
+        this.resultSetType = resultSetType;
+        this.resultSetConcurrency = resultSetConcurrency;
+        this.fetchSize = fetchSize;
+        this.queryTimeout = queryTimeout;
+        this.autoCommit = autoCommit;
+    }
+
+    /**
+     * @return {@link ResultSet#TYPE_FORWARD_ONLY}, {@link ResultSet#CONCUR_READ_ONLY} and the driver's defaults for
+     * everything else.
+     */
+    @Nonnull
+    public static StreamingOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return options which make the MySQL driver stream row by row instead of reading the whole result into memory.
+     */
+    @Nonnull
+    public static StreamingOptions forMySql() {
+        return defaults().withFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * @return options which make the PostgreSQL driver use a cursor that fetches <code>fetchSize</code> rows per
+     * round trip. This requires auto commit to be disabled while the stream is open.
+     */
+    @Nonnull
+    public static StreamingOptions forPostgreSql(int fetchSize) {
+        return defaults().withFetchSize(fetchSize).withAutoCommit(false);
+    }
+
+    @Nonnull
+    public StreamingOptions withResultSetType(int resultSetType) {
+        return new StreamingOptions(resultSetType, resultSetConcurrency, fetchSize, queryTimeout, autoCommit);
+    }
+
+    @Nonnull
+    public StreamingOptions withResultSetConcurrency(int resultSetConcurrency) {
+        return new StreamingOptions(resultSetType, resultSetConcurrency, fetchSize, queryTimeout, autoCommit);
+    }
+
+    @Nonnull
+    public StreamingOptions withFetchSize(@Nullable Integer fetchSize) {
+        return new StreamingOptions(resultSetType, resultSetConcurrency, fetchSize, queryTimeout, autoCommit);
+    }
+
+    @Nonnull
+    public StreamingOptions withQueryTimeout(@Nullable Duration queryTimeout) {
+        return new StreamingOptions(resultSetType, resultSetConcurrency, fetchSize, queryTimeout, autoCommit);
+    }
+
+    /**
+     * @param autoCommit the auto commit mode of the connection while the stream is open or <code>null</code> to leave
+     *                   it untouched. The previous mode is restored once the stream is closed.
+     */
+    @Nonnull
+    public StreamingOptions withAutoCommit(@Nullable Boolean autoCommit) {
+        return new StreamingOptions(resultSetType, resultSetConcurrency, fetchSize, queryTimeout, autoCommit);
+    }
+
+    public int resultSetType() {
+        return resultSetType;
+    }
+
+    public int resultSetConcurrency() {
+        return resultSetConcurrency;
+    }
+
+    @Nullable
+    public Integer fetchSize() {
+        return fetchSize;
+    }
+
+    @Nullable
+    public Duration queryTimeout() {
+        return queryTimeout;
+    }
+
+    @Nullable
+    public Boolean autoCommit() {
+        return autoCommit;
+    }
+
+    public void applyTo(@Nonnull Statement statement) throws SQLException {
+        final var fetchSize = fetchSize();
+        if (fetchSize != null) {
+            statement.setFetchSize(fetchSize);
+        }
+        final var queryTimeout = queryTimeout();
+        if (queryTimeout != null) {
+            statement.setQueryTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+        }
+    }
+
+    /**
+     * Applies {@link #autoCommit()} to the given <code>connection</code>.
+     *
+     * @return the callable which restores the previous mode.
+     */
+    @Nonnull
+    public Callable applyTo(@Nonnull Connection connection) throws SQLException {
+        final var autoCommit = autoCommit();
+        if (autoCommit == null) {
+            return () -> {};
+        }
+        final var previous = connection.getAutoCommit();
+        if (previous == autoCommit) {
+            return () -> {};
+        }
+        connection.setAutoCommit(autoCommit);
+        return () -> connection.setAutoCommit(previous);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StreamingOptions)) {
+            return false;
+        }
+        final var that = (StreamingOptions) o;
+        return resultSetType == that.resultSetType
+            && resultSetConcurrency == that.resultSetConcurrency
+            && Objects.equals(fetchSize, that.fetchSize)
+            && Objects.equals(queryTimeout, that.queryTimeout)
+            && Objects.equals(autoCommit, that.autoCommit);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(resultSetType, resultSetConcurrency, fetchSize, queryTimeout, autoCommit);
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingOptions{resultSetType=" + resultSetType
+            + ", resultSetConcurrency=" + resultSetConcurrency
+            + ", fetchSize=" + fetchSize
+            + ", queryTimeout=" + queryTimeout
+            + ", autoCommit=" + autoCommit
+            + "}";
+    }
+
+}
@@ -3,7 +3,6 @@ package org.echocat.jsu;
 import javax.annotation.Nonnull;
 import java.util.Spliterator;
 import java.util.Spliterators.AbstractSpliterator;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -13,6 +12,10 @@ public class TakeWhile<T> extends AbstractSpliterator<T> {
     private final Spliterator<? extends T> source;
     @Nonnull
     private final Predicate<? super T> predicate;
+    @Nonnull
+    private final Consumer<T> holder = element -> current = element;
+
+    private T current;
 
     public TakeWhile(
         @Nonnull Spliterator<? extends T> source,
@@ -25,14 +28,15 @@ public class TakeWhile<T> extends AbstractSpliterator<T> {
 
     @Override
     public boolean tryAdvance(@Nonnull Consumer<? super T> consumer) {
-        final var reference = new AtomicReference<T>();
-        if (!source().tryAdvance(reference::set)) {
+        if (!source().tryAdvance(holder)) {
             return false;
         }
-        if (!predicate().test(reference.get())) {
+        final var element = current;
+        current = null;
+        if (!predicate().test(element)) {
             return false;
         }
-        consumer.accept(reference.get());
+        consumer.accept(element);
         return true;
     }
 
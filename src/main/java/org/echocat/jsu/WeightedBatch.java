@@ -0,0 +1,118 @@
+package org.echocat.jsu;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Slices the elements of a {@link Spliterator} into {@link List}s which are closed as soon as the next element would
+ * exceed the <code>maxWeight</code> or the batch reached the <code>maxCount</code>. An element which is alone heavier
+ * than <code>maxWeight</code> will be emitted as a batch of its own. The <code>weigher</code> has to return non-negative
+ * weights.
+ */
+public class WeightedBatch<T> extends AbstractSpliterator<List<T>> {
+
+    @Nonnull
+    private final Spliterator<? extends T> source;
+    @Nonnull
+    private final ToLongFunction<? super T> weigher;
+    @Nonnegative
+    private final long maxWeight;
+    @Nonnegative
+    private final int maxCount;
+
+    @Nonnull
+    private final Consumer<T> receiver = this::receive;
+    private T pending;
+    private long pendingWeight;
+    private boolean hasPending;
+
+    public WeightedBatch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnull ToLongFunction<? super T> weigher,
+        @Nonnegative long maxWeight
+    ) {
+        this(source, weigher, maxWeight, Integer.MAX_VALUE);
+    }
+
+    public WeightedBatch(
+        @Nonnull Spliterator<? extends T> source,
+        @Nonnull ToLongFunction<? super T> weigher,
+        @Nonnegative long maxWeight,
+        @Nonnegative int maxCount
+    ) {
+        super(source.estimateSize(), ORDERED | IMMUTABLE | NONNULL);
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("The maxWeight have to be positive but was " + maxWeight + ".");
+        }
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("The maxCount have to be positive but was " + maxCount + ".");
+        }
+        this.source = source;
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+        this.maxCount = maxCount;
+    }
+
+    @Override
+    public boolean tryAdvance(@Nonnull Consumer<? super List<T>> consumer) {
+        final var maxWeight = maxWeight();
+        final var maxCount = maxCount();
+        final var batch = new ArrayList<T>();
+        var weight = 0L;
+        while (batch.size() < maxCount && weight < maxWeight && (hasPending || source().tryAdvance(receiver))) {
+            final var element = pending;
+            final var elementWeight = pendingWeight;
+            // Compared by the remaining weight, so huge weights could not overflow.
+            if (!batch.isEmpty() && elementWeight > maxWeight - weight) {
+                break;
+            }
+            hasPending = false;
+            pending = null;
+            batch.add(element);
+            weight += elementWeight;
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        consumer.accept(batch);
+        return true;
+    }
+
+    private void receive(T element) {
+        // Weighed only once, even if it stays pending for the next batch.
+        final var weight = weigher().applyAsLong(element);
+        if (weight < 0) {
+            throw new IllegalArgumentException("The weight have to be non-negative but was " + weight + ".");
+        }
+        pendingWeight = weight;
+        pending = element;
+        hasPending = true;
+    }
+
+    @Nonnull
+    protected Spliterator<? extends T> source() {
+        return source;
+    }
+
+    @Nonnull
+    protected ToLongFunction<? super T> weigher() {
+        return weigher;
+    }
+
+    @Nonnegative
+    protected long maxWeight() {
+        return maxWeight;
+    }
+
+    @Nonnegative
+    protected int maxCount() {
+        return maxCount;
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.echocat.jsu.support;
+
+import javax.annotation.Nonnegative;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+
+/**
+ * Lock free histogram of non-negative values with log-linear buckets (like HdrHistogram): values below
+ * <code>64</code> are recorded exactly, larger ones with a relative error of at most 1/32.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT = SUB_BUCKETS << 1;
+    private static final int BUCKETS = EXACT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        final var normalized = Math.max(value, 0L);
+        counts.incrementAndGet(indexOf(normalized));
+        count.increment();
+        sum.add(normalized);
+        var current = max.get();
+        while (normalized > current && !max.compareAndSet(current, normalized)) {
+            current = max.get();
+        }
+    }
+
+    @Nonnegative
+    public long count() {
+        return count.sum();
+    }
+
+    @Nonnegative
+    public long sum() {
+        return sum.sum();
+    }
+
+    @Nonnegative
+    public long max() {
+        return max.get();
+    }
+
+    @Nonnegative
+    public double mean() {
+        final var count = count();
+        return count > 0 ? (double) sum() / count : 0;
+    }
+
+    /**
+     * @param percentile between <code>0</code> and <code>100</code>.
+     * @return the highest value which is equivalent to the value at the given <code>percentile</code> or
+     * <code>0</code> if nothing was recorded yet.
+     */
+    @Nonnegative
+    public long valueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("The percentile have to be between 0 and 100 but was " + percentile + ".");
+        }
+        var total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final var target = Math.max(1L, (long) ceil(percentile / 100 * total));
+        var seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValueOf(i), max());
+            }
+        }
+        return max();
+    }
+
+    static int indexOf(@Nonnegative long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        final var shift = 63 - numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        final var subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestEquivalentValueOf(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        final var shift = (index - EXACT) / SUB_BUCKETS + 1;
+        final var mantissa = (long) ((index - EXACT) % SUB_BUCKETS + SUB_BUCKETS);
+        final var upper = (mantissa + 1) << shift;
+        return upper > 0 ? upper - 1 : Long.MAX_VALUE;
+    }
+
+}
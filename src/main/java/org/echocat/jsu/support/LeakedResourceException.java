@@ -0,0 +1,17 @@
+package org.echocat.jsu.support;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Reported if a resource became unreachable without being closed. Its stack trace is the one of the allocation of
+ * the resource.
+ */
+public class LeakedResourceException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LeakedResourceException(@Nonnull String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,10 @@
+package org.echocat.jsu.support;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlBiConsumer<T, U> {
+
+    void accept(T t, U u) throws SQLException;
+
+}
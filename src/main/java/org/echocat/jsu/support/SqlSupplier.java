@@ -0,0 +1,12 @@
+package org.echocat.jsu.support;
+
+import javax.annotation.Nonnull;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlSupplier<T> {
+
+    @Nonnull
+    T get() throws SQLException;
+
+}
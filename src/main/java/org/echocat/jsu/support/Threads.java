@@ -0,0 +1,87 @@
+package org.echocat.jsu.support;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Creates virtual threads if the running JVM supports them (Java 21+) and daemon platform threads otherwise.
+ */
+public final class Threads {
+
+    @Nullable
+    private static final MethodHandle OF_VIRTUAL = resolveOfVirtual();
+
+    @Nonnull
+    public static ThreadFactory threadFactory(@Nonnull String namePrefix) {
+        final var virtual = virtualThreadFactory(namePrefix);
+        if (virtual != null) {
+            return virtual;
+        }
+        final var serial = new AtomicLong();
+        return runnable -> {
+            final var thread = new Thread(runnable, namePrefix + serial.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @return an executor which runs every task in its own virtual thread or - if virtual threads are not supported -
+     * in a pool of daemon platform threads.
+     */
+    @Nonnull
+    public static Executor executor(@Nonnull String namePrefix) {
+        final var virtual = virtualThreadFactory(namePrefix);
+        if (virtual != null) {
+            return runnable -> virtual.newThread(runnable).start();
+        }
+        return Executors.newCachedThreadPool(threadFactory(namePrefix));
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    @Nullable
+    static ThreadFactory virtualThreadFactory(@Nonnull String namePrefix) {
+        final var ofVirtual = OF_VIRTUAL;
+        if (ofVirtual == null) {
+            return null;
+        }
+        try {
+            return (ThreadFactory) ofVirtual.invoke(namePrefix, 0L);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Could not create virtual thread factory.", e);
+        }
+    }
+
+    @Nullable
+    private static MethodHandle resolveOfVirtual() {
+        try {
+            final var lookup = MethodHandles.publicLookup();
+            final var builderType = Class.forName("java.lang.Thread$Builder");
+            final var ofVirtualType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            final var ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", methodType(ofVirtualType));
+            final var name = lookup.findVirtual(builderType, "name", methodType(builderType, String.class, long.class));
+            final var factory = lookup.findVirtual(builderType, "factory", methodType(ThreadFactory.class));
+            // Fail early if virtual threads are only available as preview feature.
+            ofVirtual.invoke();
+            // (namePrefix, start) -> Thread.ofVirtual().name(namePrefix, start).factory()
+            final var named = MethodHandles.collectArguments(name, 0, ofVirtual.asType(methodType(builderType)));
+            return MethodHandles.filterReturnValue(named, factory);
+        } catch (final Throwable ignored) {
+            return null;
+        }
+    }
+
+}
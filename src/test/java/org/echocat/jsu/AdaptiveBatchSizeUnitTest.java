@@ -0,0 +1,160 @@
+package org.echocat.jsu;
+
+import static org.echocat.unittest.utils.matchers.CompareTo.isGreaterThan;
+import static org.echocat.unittest.utils.matchers.CompareTo.isLessThanOrEqualTo;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveBatchSizeUnitTest {
+
+    @Test
+    void startsWithMinimum() {
+        final var actual = new AdaptiveBatchSize(10, 1000, Duration.ofMillis(100));
+
+        assertThat(actual.get(), isEqualTo(10));
+        assertThat(actual.latency(), isNull());
+        assertThat(actual.throughput(), isEqualTo(0D));
+    }
+
+    @Test
+    void convergesToTargetLatency() {
+        // Every element takes 1ms => 100 elements are the target of 100ms.
+        final var actual = givenManualBatchSize(1, 1000, Duration.ofMillis(100));
+
+        simulate(actual, size -> size * 1_000_000L, 1000);
+
+        assertThat(actual.currentSize(), isLessThanOrEqualTo(100 + 15));
+        assertThat(actual.currentSize(), isGreaterThan(100 / 2 - 15));
+        assertThat(actual.latency().toMillis(), isLessThanOrEqualTo(130L));
+        assertThat(actual.throughput(), isGreaterThan(900D));
+    }
+
+    @Test
+    void decreasesOnSlowBatches() {
+        final var actual = givenManualBatchSize(1, 1000, Duration.ofMillis(100));
+        simulate(actual, size -> 1_000_000L, 500);
+        assertThat(actual.currentSize(), isEqualTo(1000));
+
+        simulate(actual, size -> 1_000_000_000L, 5);
+        assertThat(actual.currentSize(), isLessThanOrEqualTo(1000 / 16));
+    }
+
+    @Test
+    void maximizesThroughputWithoutTarget() {
+        // Fixed overhead of 10ms per batch + 0.1ms per element => the larger the better.
+        final var actual = givenManualBatchSize(1, 10000, null);
+
+        simulate(actual, size -> 10_000_000L + size * 100_000L, 200);
+
+        assertThat(actual.currentSize(), isGreaterThan(5000));
+    }
+
+    @Test
+    void staysWithinBounds() {
+        final var actual = givenManualBatchSize(5, 10, Duration.ofMillis(100));
+
+        simulate(actual, size -> 1L, 100);
+        assertThat(actual.currentSize(), isEqualTo(10));
+
+        simulate(actual, size -> Long.MAX_VALUE / 2, 100);
+        assertThat(actual.currentSize(), isEqualTo(5));
+    }
+
+    @Test
+    void measuresTimeBetweenGets() {
+        final var clock = new long[]{0L};
+        final var actual = new AdaptiveBatchSize(10, 1000, Duration.ofMillis(100)) {
+            @Override
+            protected long nanoTime() {
+                return clock[0];
+            }
+        };
+
+        actual.get();
+        clock[0] += Duration.ofMillis(50).toNanos();
+        actual.get();
+
+        assertThat(actual.latency(), isEqualTo(Duration.ofMillis(50)));
+        assertThat(actual.throughput(), isEqualTo(200D));
+        assertThat(actual.currentSize(), isGreaterThan(10));
+    }
+
+    @Test
+    void worksAsBatchSizeOfBatch() {
+        final var batchSize = new AdaptiveBatchSize(1, 100, Duration.ofSeconds(10));
+        final var actual = StreamUtils.batch(LongStream.range(0, 10000).boxed(), batchSize)
+            .mapToLong(batch -> batch.size())
+            .sum();
+
+        assertThat(actual, isEqualTo(10000L));
+        assertThat(batchSize.currentSize(), isGreaterThan(1));
+    }
+
+    @Test
+    void batchesWithAdaptiveSizeAreNeverSplit() {
+        final var gets = new AtomicInteger();
+        final var batchSize = new AdaptiveBatchSize(1, 100, Duration.ofSeconds(10)) {
+            @Nonnull
+            @Override
+            public synchronized Integer get() {
+                gets.incrementAndGet();
+                return super.get();
+            }
+        };
+
+        assertThat(SpliteratorUtils.batch(LongStream.range(0, 10000).boxed().spliterator(), batchSize).trySplit(), isNull());
+        assertThat(SpliteratorUtils.batch(IntStream.range(0, 10000).spliterator(), batchSize).trySplit(), isNull());
+        assertThat(gets.get(), isEqualTo(0));
+
+        final var batches = new AtomicInteger();
+        final var actual = StreamUtils.batch(LongStream.range(0, 10000).boxed().parallel(), batchSize)
+            .parallel()
+            .peek(batch -> batches.incrementAndGet())
+            .mapToLong(batch -> batch.size())
+            .sum();
+
+        assertThat(actual, isEqualTo(10000L));
+        // One for every batch and one for the end.
+        assertThat(gets.get(), isEqualTo(batches.get() + 1));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThat(() -> new AdaptiveBatchSize(0, 10), throwsException(IllegalArgumentException.class));
+        assertThat(() -> new AdaptiveBatchSize(10, 9), throwsException(IllegalArgumentException.class));
+        assertThat(() -> new AdaptiveBatchSize(1, 9, Duration.ZERO), throwsException(IllegalArgumentException.class));
+    }
+
+    /**
+     * @return a batch size which does not measure itself, because the time is reported using {@link AdaptiveBatchSize#record(int, long)}.
+     */
+    @Nonnull
+    protected static AdaptiveBatchSize givenManualBatchSize(int minimum, int maximum, @Nullable Duration targetLatency) {
+        return new AdaptiveBatchSize(minimum, maximum, targetLatency) {
+            @Override
+            protected long nanoTime() {
+                return 0L;
+            }
+        };
+    }
+
+    protected static void simulate(@Nonnull AdaptiveBatchSize batchSize, @Nonnull IntToLongFunction nanosForSize, int batches) {
+        for (int i = 0; i < batches; i++) {
+            final var size = batchSize.get();
+            batchSize.record(size, nanosForSize.applyAsLong(size));
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.echocat.jsu;
+
+import static java.lang.management.ManagementFactory.getThreadMXBean;
+import static org.echocat.unittest.utils.matchers.CompareTo.isLessThanOrEqualTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measures the bytes allocated by the current thread using {@link ThreadMXBean#getThreadAllocatedBytes(long)}. This
+ * is not affected by other threads (tests running in parallel) and also sees garbage which is collected immediately.
+ * Every action is warmed up first and the best of some runs is taken, because escape analysis of the JIT could
+ * change between runs. Inject it using {@link AllocationMeterExtension}.
+ */
+public class AllocationMeter {
+
+    static final ThreadMXBean THREAD_MX_BEAN = (ThreadMXBean) getThreadMXBean();
+    static final long SETUP_BYTES = 16 * 1024;
+
+    @Nonnegative
+    private final int warmUps;
+    @Nonnegative
+    private final int runs;
+    private final long overhead;
+
+    public AllocationMeter(@Nonnegative int warmUps, @Nonnegative int runs) {
+        this.warmUps = warmUps;
+        this.runs = runs;
+        this.overhead = allocatedBytesOf(() -> {});
+    }
+
+    /**
+     * @return the bytes allocated per operation if the given <code>action</code> executes <code>operations</code>
+     * operations (like elements or batches).
+     */
+    public double bytesPerOperation(@Nonnegative long operations, @Nonnull Action action) {
+        return (double) Math.max(0, allocatedBytesOf(action) - overhead) / operations;
+    }
+
+    /**
+     * Asserts that the given <code>action</code> allocates at most <code>bytesPerOperation</code> for every of its
+     * <code>operations</code>, plus {@value #SETUP_BYTES} bytes once (for example for the stream pipeline itself).
+     */
+    public void assertAtMost(double bytesPerOperation, @Nonnegative long operations, @Nonnull Action action) {
+        final var actual = bytesPerOperation(operations, action);
+        assertThat("Bytes allocated per operation", actual, isLessThanOrEqualTo(bytesPerOperation + (double) SETUP_BYTES / operations));
+    }
+
+    private long allocatedBytesOf(@Nonnull Action action) {
+        try {
+            for (int i = 0; i < warmUps; i++) {
+                action.run();
+            }
+            final var threadId = Thread.currentThread().getId();
+            var result = Long.MAX_VALUE;
+            for (int i = 0; i < runs; i++) {
+                final var before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+                action.run();
+                result = Math.min(result, THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - before);
+            }
+            return result;
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+
+        void run() throws Exception;
+
+    }
+
+}
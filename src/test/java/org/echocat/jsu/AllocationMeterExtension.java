@@ -0,0 +1,43 @@
+package org.echocat.jsu;
+
+import static org.echocat.jsu.AllocationMeter.THREAD_MX_BEAN;
+import static org.junit.jupiter.api.extension.ConditionEvaluationResult.disabled;
+import static org.junit.jupiter.api.extension.ConditionEvaluationResult.enabled;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Injects an {@link AllocationMeter} into test methods and disables them if the JVM could not measure allocations
+ * per thread.
+ */
+public class AllocationMeterExtension implements ParameterResolver, ExecutionCondition {
+
+    static final int WARM_UPS = 2;
+    static final int RUNS = 5;
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!THREAD_MX_BEAN.isThreadAllocatedMemorySupported()) {
+            return disabled("Thread allocated memory is not supported by this JVM.");
+        }
+        if (!THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled()) {
+            THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+        }
+        return enabled("Thread allocated memory is supported.");
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == AllocationMeter.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return new AllocationMeter(WARM_UPS, RUNS);
+    }
+
+}
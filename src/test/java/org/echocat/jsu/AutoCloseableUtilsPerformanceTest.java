@@ -0,0 +1,58 @@
+package org.echocat.jsu;
+
+import static java.sql.Types.INTEGER;
+import static org.echocat.jsu.AutoCloseableUtils.doOnClose;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.annotation.Nonnull;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(AllocationMeterExtension.class)
+public class AutoCloseableUtilsPerformanceTest {
+
+    private static final int CALLS = 1000000;
+
+    @Test
+    void doOnCloseDoesNotAllocatePerCall(@Nonnull AllocationMeter meter) throws Exception {
+        final var original = givenResultSet();
+        final var direct = meter.bytesPerOperation(CALLS, callsOf(original));
+
+        // Less than a pointer per call; a reflective proxy allocates at least an argument array per call.
+        meter.assertAtMost(direct + 8, CALLS, callsOf(doOnClose(ResultSet.class, original, () -> {})));
+    }
+
+    @Nonnull
+    private static AllocationMeter.Action callsOf(@Nonnull ResultSet resultSet) {
+        return () -> {
+            var sum = 0L;
+            for (int i = 0; i < CALLS; i++) {
+                sum += resultSet.getInt(1);
+            }
+            if (sum == 0) {
+                throw new IllegalStateException();
+            }
+        };
+    }
+
+    @Nonnull
+    private static ResultSet givenResultSet() throws SQLException {
+        final var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(1);
+        metaData.setColumnType(1, INTEGER);
+        final var result = RowSetProvider.newFactory().createCachedRowSet();
+        result.setMetaData(metaData);
+        result.moveToInsertRow();
+        result.updateInt(1, 666);
+        result.insertRow();
+        result.moveToCurrentRow();
+        result.beforeFirst();
+        result.next();
+        return result;
+    }
+
+}
@@ -4,16 +4,20 @@ import static org.echocat.jsu.AutoCloseableUtils.doOnClose;
 import static org.echocat.jsu.AutoCloseableUtils.resolveCloseMethodOf;
 import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
 import static org.echocat.unittest.utils.matchers.IsNot.isNot;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
 import static org.echocat.unittest.utils.matchers.IsSameAs.isSameInstance;
 import static org.echocat.unittest.utils.matchers.IsSameAs.sameInstance;
 import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -213,6 +217,113 @@ public class AutoCloseableUtilsUnitTest {
         verify(callable, times(1)).call();
     }
 
+    @Test
+    void doOnCloseForPreparedStatementAndOneRunnable() throws Exception {
+        final var original = mock(PreparedStatement.class);
+        final var callable = givenCallable();
+
+        final var actual = doOnClose(PreparedStatement.class, original, callable);
+
+        actual.setInt(1, 666);
+        verify(original, times(1)).setInt(1, 666);
+        actual.setFetchSize(66);
+        verify(original, times(1)).setFetchSize(66);
+
+        actual.close();
+        verify(original, times(1)).close();
+        verify(callable, times(1)).call();
+    }
+
+    @Test
+    void doOnCloseForInputStreamAndOneRunnable() throws Exception {
+        final var original = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        final var callable = givenCallable();
+
+        final var actual = doOnClose(InputStream.class, original, callable);
+
+        assertThat(actual.read(), isEqualTo(1));
+        assertThat(actual.readAllBytes().length, isEqualTo(2));
+
+        actual.close();
+        verify(callable, times(1)).call();
+    }
+
+    @Test
+    void doOnCloseForCloseablePassesIOExceptionsOfCallables() throws Exception {
+        final var original = givenCloseable();
+        final var callable = givenCallable();
+
+        final var actual = doOnClose(Closeable.class, original, callable);
+
+        doThrow(new IOException("test")).when(callable).call();
+        assertThat(actual::close, throwsException(IOException.class, "test"));
+        verify(original, times(1)).close();
+    }
+
+    @Test
+    void doOnCloseForOtherInterfaces() throws Exception {
+        final var original = mock(CustomResource.class);
+        final var callable = givenCallable();
+        doReturn("foo").when(original).name(666);
+
+        final var actual = doOnClose(CustomResource.class, original, callable);
+
+        assertThat(actual.name(666), isEqualTo("foo"));
+        verify(callable, times(0)).call();
+
+        actual.close();
+        verify(original, times(1)).close();
+        verify(callable, times(1)).call();
+    }
+
+    @Test
+    void doOnCloseForOtherInterfacesHandlesExceptionDelegates() throws Exception {
+        final var original = mock(CustomResource.class);
+        doThrow(new IOException("test")).when(original).name(666);
+
+        final var actual = doOnClose(CustomResource.class, original, givenCallable());
+
+        assertThat(() -> actual.name(666), throwsException(IOException.class, "test"));
+    }
+
+    @Test
+    void doOnCloseForNonPublicInterfacesFallsBackToReflection() throws Exception {
+        final var original = mock(HiddenResource.class);
+        final var callable = givenCallable();
+        doReturn("foo").when(original).name(666);
+        doThrow(new IOException("test")).when(original).name(667);
+
+        final var actual = doOnClose(HiddenResource.class, original, callable);
+
+        assertThat(OnCloseInvocationHandler.invokerFor(HiddenResource.class.getDeclaredMethod("name", int.class)), isNot(isNull()));
+        assertThat(actual.name(666), isEqualTo("foo"));
+        assertThat(actual.name(666), isEqualTo("foo"));
+        assertThat(() -> actual.name(667), throwsException(IOException.class, "test"));
+
+        actual.close();
+        verify(original, times(1)).close();
+        verify(callable, times(1)).call();
+    }
+
+    @Test
+    void doOnCloseDelegatesObjectMethods() throws Exception {
+        final var resultSet = givenResultSet();
+        final var autoCloseable = givenAutoCloseable();
+        final var inputStream = new ByteArrayInputStream(new byte[0]);
+        final var custom = mock(CustomResource.class);
+
+        for (final var pair : new Object[][]{
+            {resultSet, doOnClose(ResultSet.class, resultSet, givenCallable())},
+            {autoCloseable, doOnClose(AutoCloseable.class, autoCloseable, givenCallable())},
+            {inputStream, doOnClose(InputStream.class, inputStream, givenCallable())},
+            {custom, doOnClose(CustomResource.class, custom, givenCallable())}
+        }) {
+            assertThat(pair[1].toString(), isEqualTo(pair[0].toString()));
+            assertThat(pair[1].hashCode(), isEqualTo(pair[0].hashCode()));
+            assertThat(pair[1].equals(pair[0]), isEqualTo(true));
+        }
+    }
+
     @Test
     void resolveCloseMethodOfHandlesMethodDoesNotExist() {
         assertThat(() -> resolveCloseMethodOf(Object.class), throwsException(IllegalStateException.class));
@@ -223,6 +334,18 @@ public class AutoCloseableUtilsUnitTest {
         new AutoCloseableUtils();
     }
 
+    public interface CustomResource extends Closeable {
+
+        String name(int id) throws IOException;
+
+    }
+
+    interface HiddenResource extends Closeable {
+
+        String name(int id) throws IOException;
+
+    }
+
     @Nonnull
     protected static Statement givenStatement() {
         return mock(Statement.class);
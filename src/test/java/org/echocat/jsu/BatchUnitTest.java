@@ -3,6 +3,7 @@ package org.echocat.jsu;
 import static java.util.stream.Collectors.toList;
 import static org.echocat.unittest.utils.matchers.HasSize.hasSize;
 import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNotNull;
 import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
 import static org.echocat.unittest.utils.matchers.IterableMatchers.containsOnlyElementsThat;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -15,6 +16,7 @@ import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 
@@ -39,6 +41,65 @@ public class BatchUnitTest {
         }
     }
 
+    @Test
+    void withFixedBatchSizeIsSizedIfSourceIsSized() {
+        final var source = givenListWithNLongs(1005);
+        final var actual = new Batch<>(source.spliterator(), 10);
+
+        assertThat(actual.estimateSize(), isEqualTo(101L));
+        assertThat(actual.getExactSizeIfKnown(), isEqualTo(101L));
+        assertThat(actual.hasCharacteristics(Spliterator.SIZED), isEqualTo(true));
+        assertThat(actual.hasCharacteristics(Spliterator.SUBSIZED), isEqualTo(true));
+    }
+
+    @Test
+    void withBatchSizeSupplierIsNotSized() {
+        final var source = givenListWithNLongs(1005);
+        final var actual = new Batch<>(source.spliterator(), () -> 10);
+
+        assertThat(actual.hasCharacteristics(Spliterator.SIZED), isEqualTo(false));
+    }
+
+    @Test
+    void splitsSizedSourceOnBatchBoundaries() {
+        final var source = givenListWithNLongs(1005);
+        final var actual = new Batch<>(source.spliterator(), 7);
+
+        final var prefix = actual.trySplit();
+        assertThat(prefix, isNotNull());
+        assertThat(prefix.hasCharacteristics(Spliterator.SIZED), isEqualTo(true));
+
+        final var actualList = new ArrayList<>(asList(prefix));
+        actualList.addAll(asList(actual));
+
+        assertThat(actualList, isEqualTo(asList(new Batch<>(source.spliterator(), 7))));
+        assertThat(actualList.subList(0, actualList.size() - 1), containsOnlyElementsThat(hasSize(7)));
+    }
+
+    @Test
+    void splitsUnsizedSourceIntoArrays() {
+        final var source = givenListWithNLongs(1005);
+        final var actual = new Batch<>(source.stream().filter(candidate -> true).spliterator(), 10);
+
+        final var prefix = actual.trySplit();
+        assertThat(prefix, isNotNull());
+
+        final var actualList = new ArrayList<>(asList(prefix));
+        actualList.addAll(asList(actual));
+
+        assertThat(actualList, isEqualTo(asList(new Batch<>(source.spliterator(), 10))));
+    }
+
+    @Test
+    void parallelStreamProducesSameBatchesAsSequential() {
+        final var source = givenListWithNLongs(100_003);
+
+        final var actual = StreamSupport.stream(new Batch<>(source.spliterator(), 10), true)
+            .collect(toList());
+
+        assertThat(actual, isEqualTo(asList(new Batch<>(source.spliterator(), 10))));
+    }
+
     @Test
     void constructor() {
         //noinspection unchecked
@@ -51,7 +112,6 @@ public class BatchUnitTest {
         assertThat(instance.batchSize(), isSameAs(batchSizeSupplier));
     }
 
-    @SuppressWarnings("SameParameterValue")
     @Nonnull
     protected static List<Long> givenListWithNLongs(@Nonnegative int count) {
         final var serial = new AtomicLong();
@@ -0,0 +1,168 @@
+package org.echocat.jsu;
+
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.echocat.jsu.support.UncheckedSqlException;
+import org.junit.jupiter.api.Test;
+
+public class BatchWriterUnitTest {
+
+    @Test
+    void acceptExecutesFullBatches() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = givenStatement(connection);
+        final var counts = new ArrayList<int[]>();
+
+        try (final var writer = new BatchWriter<Integer>(connection, "INSERT", (target, element) -> target.setInt(1, element), 2, 0, counts::add)) {
+            writer.accept(1);
+            writer.accept(2);
+            writer.accept(3);
+
+            verify(statement, times(3)).addBatch();
+            verify(statement, times(1)).executeBatch();
+            assertThat(writer.batches(), isEqualTo(1L));
+            assertThat(writer.written(), isEqualTo(2L));
+        }
+
+        verify(statement, times(2)).executeBatch();
+        verify(statement, times(1)).setInt(1, 3);
+        verify(statement, times(1)).close();
+        verify(connection, never()).commit();
+        verify(connection, never()).setAutoCommit(anyBoolean());
+        assertThat(counts.size(), isEqualTo(2));
+    }
+
+    @Test
+    void commitsEveryBatchesAndOnClose() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = givenStatement(connection);
+        doReturn(true).when(connection).getAutoCommit();
+
+        final var writer = new BatchWriter<Integer>(connection, "INSERT", (target, element) -> target.setInt(1, element), 1, 2, null);
+        verify(connection, times(1)).setAutoCommit(false);
+
+        writer.accept(1);
+        verify(connection, never()).commit();
+        writer.accept(2);
+        verify(connection, times(1)).commit();
+        writer.accept(3);
+        writer.close();
+
+        verify(statement, times(3)).executeBatch();
+        verify(connection, times(2)).commit();
+        verify(connection, times(1)).setAutoCommit(true);
+        assertThat(writer.written(), isEqualTo(3L));
+    }
+
+    @Test
+    void acceptFailsAfterClose() throws Exception {
+        final var connection = mock(Connection.class);
+        givenStatement(connection);
+
+        final var writer = new BatchWriter<Integer>(connection, "INSERT", (target, element) -> {}, 1, 0, null);
+        writer.close();
+
+        assertThat(() -> writer.accept(1), throwsException(IllegalStateException.class));
+    }
+
+    @Test
+    void acceptWrapsSqlException() throws Exception {
+        final var connection = mock(Connection.class);
+        givenStatement(connection);
+
+        final var writer = new BatchWriter<Integer>(connection, "INSERT", (target, element) -> {
+            throw new SQLException("test");
+        }, 1, 0, null);
+
+        assertThat(() -> writer.accept(1), throwsException(UncheckedSqlException.class, SQLException.class.getName() + ": test"));
+    }
+
+    @Test
+    void closeRollsBackIfBinderFailed() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = givenStatement(connection);
+        doReturn(true).when(connection).getAutoCommit();
+
+        final var writer = new BatchWriter<Integer>(connection, "INSERT", (target, element) -> {
+            if (element == 2) {
+                throw new SQLException("test");
+            }
+            target.setInt(1, element);
+        }, 10, 1, null);
+        writer.accept(1);
+        assertThat(() -> writer.accept(2), throwsException(UncheckedSqlException.class));
+        writer.close();
+
+        verify(statement, never()).executeBatch();
+        verify(connection, never()).commit();
+        verify(connection, times(1)).rollback();
+        verify(statement, times(1)).close();
+        verify(connection, times(1)).setAutoCommit(true);
+    }
+
+    @Test
+    void closeRollsBackIfExecuteBatchFails() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = givenStatement(connection);
+        doReturn(true).when(connection).getAutoCommit();
+        doThrow(new SQLException("test")).when(statement).executeBatch();
+
+        final var writer = new BatchWriter<Integer>(connection, "INSERT", (target, element) -> target.setInt(1, element), 10, 1, null);
+        writer.accept(1);
+
+        assertThat(writer::close, throwsException(UncheckedSqlException.class, SQLException.class.getName() + ": test"));
+        verify(connection, never()).commit();
+        verify(connection, times(1)).rollback();
+        verify(statement, times(1)).close();
+        verify(connection, times(1)).setAutoCommit(true);
+    }
+
+    @Test
+    void abortRollsBackPendingElements() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = givenStatement(connection);
+
+        final var writer = new BatchWriter<Integer>(connection, "INSERT", (target, element) -> target.setInt(1, element), 10, 1, null);
+        writer.accept(1);
+        writer.abort();
+
+        verify(statement, never()).executeBatch();
+        verify(connection, never()).commit();
+        verify(connection, times(1)).rollback();
+        assertThat(() -> writer.accept(2), throwsException(IllegalStateException.class));
+    }
+
+    @Test
+    void constructorFailsOnInvalidArguments() {
+        final var connection = mock(Connection.class);
+
+        assertThat(() -> new BatchWriter<Integer>(connection, "INSERT", (target, element) -> {}, 0, 0, null), throwsException(IllegalArgumentException.class));
+        assertThat(() -> new BatchWriter<Integer>(connection, "INSERT", (target, element) -> {}, 1, -1, null), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void withRewriteHints() {
+        final var actual = BatchWriter.withRewriteHints(new Properties());
+
+        assertThat(actual.getProperty(BatchWriter.POSTGRESQL_REWRITE_PROPERTY), isEqualTo("true"));
+        assertThat(actual.getProperty(BatchWriter.MYSQL_REWRITE_PROPERTY), isEqualTo("true"));
+    }
+
+    static PreparedStatement givenStatement(Connection connection) throws SQLException {
+        final var statement = mock(PreparedStatement.class);
+        doReturn(statement).when(connection).prepareStatement("INSERT");
+        doAnswer(invocation -> new int[]{1}).when(statement).executeBatch();
+        return statement;
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.echocat.jsu;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.CompareTo.isLessThan;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class BulkContinuingSupplierUnitTest {
+
+    @Test
+    void forEachRemainingCallsGeneratorPerChunk() {
+        final var calls = new AtomicInteger();
+        final var actual = new BulkContinuingSupplier<>(givenGeneratorOf(1000, calls), 100);
+
+        final var actualList = new ArrayList<Long>();
+        actual.forEachRemaining(actualList::add);
+
+        assertThat(actualList, isEqualTo(givenListWithNLongs(1000)));
+        assertThat(calls.get(), isEqualTo(11));
+    }
+
+    @Test
+    void tryAdvance() {
+        final var actual = new BulkContinuingSupplier<>(givenGeneratorOf(1000, new AtomicInteger()), 100);
+
+        assertThat(asList(actual), isEqualTo(givenListWithNLongs(1000)));
+        assertThat(actual.tryAdvance(element -> {}), isEqualTo(false));
+    }
+
+    @Test
+    void tryAdvanceSkipsEmptyChunks() {
+        final var calls = new AtomicInteger();
+        final var actual = new BulkContinuingSupplier<Long>((sink, max) -> {
+            final var call = calls.getAndIncrement();
+            if (call >= 6) {
+                return BulkGenerator.END;
+            }
+            if (call % 2 == 0) {
+                return 0;
+            }
+            sink.accept((long) call);
+            return 1;
+        });
+
+        assertThat(asList(actual), isEqualTo(List.of(1L, 3L, 5L)));
+    }
+
+    @Test
+    void forEachRemainingBacksOffWhileNothingIsAvailable() {
+        final var calls = new AtomicInteger();
+        final var availableAt = System.nanoTime() + MILLISECONDS.toNanos(50);
+        final var actual = new BulkContinuingSupplier<Long>((sink, max) -> {
+            calls.incrementAndGet();
+            if (System.nanoTime() < availableAt) {
+                return 0;
+            }
+            sink.accept(1L);
+            return BulkGenerator.END;
+        });
+
+        final var actualList = new ArrayList<Long>();
+        actual.forEachRemaining(actualList::add);
+
+        assertThat(actualList, isEqualTo(List.of(1L)));
+        // Spinning would call the generator millions of times within 50ms.
+        assertThat(calls.get(), isLessThan(1_000));
+    }
+
+    @Test
+    void tryAdvanceFailsIfInterruptedWhileNothingIsAvailable() {
+        final var actual = new BulkContinuingSupplier<Long>((sink, max) -> 0);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(() -> actual.tryAdvance(element -> {}), throwsException(IllegalStateException.class));
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void adaptsGenerator() {
+        final var serial = new AtomicLong();
+        final var actual = new BulkContinuingSupplier<>(BulkGenerator.of(() -> {
+            final var current = serial.getAndIncrement();
+            return current < 1000 ? Optional.of(current) : Optional.empty();
+        }), 64);
+
+        final var actualList = new ArrayList<Long>();
+        actual.forEachRemaining(actualList::add);
+
+        assertThat(actualList, isEqualTo(givenListWithNLongs(1000)));
+        assertThat(serial.get(), isEqualTo(1001L));
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() {
+        assertThat(() -> new BulkContinuingSupplier<>((sink, max) -> BulkGenerator.END, 0), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void constructor() {
+        final BulkGenerator<Integer> generator = (sink, max) -> BulkGenerator.END;
+
+        final var actual = new BulkContinuingSupplier<>(generator, 66);
+
+        assertThat(actual.generator(), isSameAs(generator));
+        assertThat(actual.chunkSize(), isEqualTo(66));
+    }
+
+    @Nonnull
+    protected static BulkGenerator<Long> givenGeneratorOf(@Nonnegative long count, @Nonnull AtomicInteger calls) {
+        final var serial = new AtomicLong();
+        return (sink, max) -> {
+            calls.incrementAndGet();
+            var generated = 0;
+            while (generated < max && serial.get() < count) {
+                sink.accept(serial.getAndIncrement());
+                generated++;
+            }
+            return generated > 0 ? generated : BulkGenerator.END;
+        };
+    }
+
+    @Nonnull
+    protected static List<Long> givenListWithNLongs(@Nonnegative int count) {
+        return LongStream.range(0, count).boxed().collect(toList());
+    }
+
+    @Nonnull
+    protected static <T> List<T> asList(@Nonnull Spliterator<T> source) {
+        final var result = new ArrayList<T>();
+        //noinspection StatementWithEmptyBody
+        while (source.tryAdvance(result::add)) {}
+        return result;
+    }
+
+}
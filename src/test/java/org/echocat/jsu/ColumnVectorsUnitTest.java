@@ -0,0 +1,101 @@
+package org.echocat.jsu;
+
+import static java.sql.Types.*;
+import static org.echocat.jsu.ColumnVectors.Type.*;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.sql.SQLException;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.junit.jupiter.api.Test;
+
+public class ColumnVectorsUnitTest {
+
+    @Test
+    void typeOf() {
+        assertThat(ColumnVectors.Type.of(INTEGER), isEqualTo(INT));
+        assertThat(ColumnVectors.Type.of(BOOLEAN), isEqualTo(INT));
+        assertThat(ColumnVectors.Type.of(BIGINT), isEqualTo(LONG));
+        assertThat(ColumnVectors.Type.of(java.sql.Types.DOUBLE), isEqualTo(ColumnVectors.Type.DOUBLE));
+        assertThat(ColumnVectors.Type.of(VARBINARY), isEqualTo(BYTES));
+        assertThat(ColumnVectors.Type.of(DECIMAL), isEqualTo(STRING));
+        assertThat(ColumnVectors.Type.of(VARCHAR), isEqualTo(STRING));
+    }
+
+    @Test
+    void fill() throws Exception {
+        final var resultSet = givenResultSet(3);
+        final var instance = new ColumnVectors(new ColumnVectors.Type[]{LONG, ColumnVectors.Type.DOUBLE, STRING}, 2);
+
+        assertThat(instance.fill(resultSet), isEqualTo(true));
+        assertThat(instance.size(), isEqualTo(2));
+        assertThat(instance.longs(0)[0], isEqualTo(0L));
+        assertThat(instance.longs(0)[1], isEqualTo(1L));
+        assertThat(instance.doubles(1)[1], isEqualTo(1.5D));
+        assertThat(instance.strings(2)[0], isEqualTo("v0"));
+        assertThat(instance.isNull(0, 0), isEqualTo(false));
+        assertThat(instance.isNull(1, 0), isEqualTo(true));
+        assertThat(instance.isNull(2, 1), isEqualTo(true));
+        assertThat(instance.strings(2)[1], isNull());
+
+        assertThat(instance.fill(resultSet), isEqualTo(true));
+        assertThat(instance.size(), isEqualTo(1));
+        assertThat(instance.longs(0)[0], isEqualTo(2L));
+        assertThat(instance.strings(2)[0], isEqualTo("v2"));
+        assertThat(instance.strings(2)[1], isNull());
+        assertThat(instance.nulls(1).cardinality(), isEqualTo(1));
+        assertThat(instance.nulls(2).cardinality(), isEqualTo(0));
+    }
+
+    @Test
+    void vectorFailsOnWrongType() {
+        final var instance = new ColumnVectors(new ColumnVectors.Type[]{LONG}, 2);
+
+        assertThat(instance.columnCount(), isEqualTo(1));
+        assertThat(instance.type(0), isEqualTo(LONG));
+        assertThat(() -> instance.ints(0), throwsException(IllegalArgumentException.class, "Column 0 is of type LONG and not INT\\."));
+    }
+
+    @Test
+    void constructorFailsOnInvalidCapacity() {
+        assertThat(() -> new ColumnVectors(new ColumnVectors.Type[]{LONG}, 0), throwsException(IllegalArgumentException.class));
+    }
+
+    /**
+     * Creates rows of <code>(BIGINT id, DOUBLE score, VARCHAR name)</code> where <code>score</code> is
+     * <code>NULL</code> for every even and <code>name</code> for every odd <code>id</code>.
+     */
+    static CachedRowSet givenResultSet(int rows) throws SQLException {
+        final var metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(3);
+        metaData.setColumnName(1, "id");
+        metaData.setColumnType(1, BIGINT);
+        metaData.setColumnName(2, "score");
+        metaData.setColumnType(2, java.sql.Types.DOUBLE);
+        metaData.setColumnName(3, "name");
+        metaData.setColumnType(3, VARCHAR);
+        final var result = RowSetProvider.newFactory().createCachedRowSet();
+        result.setMetaData(metaData);
+        for (int row = 0; row < rows; row++) {
+            result.moveToInsertRow();
+            result.updateLong(1, row);
+            if (row % 2 == 0) {
+                result.updateNull(2);
+                result.updateString(3, "v" + row);
+            } else {
+                result.updateDouble(2, row * 1.5D);
+                result.updateNull(3);
+            }
+            result.insertRow();
+        }
+        result.moveToCurrentRow();
+        result.beforeFirst();
+        return result;
+    }
+
+}
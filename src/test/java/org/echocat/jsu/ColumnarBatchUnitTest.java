@@ -0,0 +1,78 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.jsu.ColumnVectors.Type.*;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.echocat.jsu.support.UncheckedSqlException;
+import org.junit.jupiter.api.Test;
+
+public class ColumnarBatchUnitTest {
+
+    @Test
+    void tryAdvanceReusesVectors() throws Exception {
+        final var instance = new ColumnarBatch(ColumnVectorsUnitTest.givenResultSet(5), null, 2);
+        final var batches = new ArrayList<ColumnVectors>();
+        final var sizes = new ArrayList<Integer>();
+
+        //noinspection StatementWithEmptyBody
+        while (instance.tryAdvance(batch -> {
+            batches.add(batch);
+            sizes.add(batch.size());
+        })) {}
+
+        assertThat(sizes, isEqualTo(Arrays.asList(2, 2, 1)));
+        assertThat(batches.get(1), isSameAs(batches.get(0)));
+        assertThat(batches.get(0).type(0), isEqualTo(LONG));
+        assertThat(batches.get(0).type(1), isEqualTo(ColumnVectors.Type.DOUBLE));
+        assertThat(batches.get(0).type(2), isEqualTo(STRING));
+    }
+
+    @Test
+    void tryAdvanceWrapsSqlException() throws Exception {
+        final var resultSet = mock(ResultSet.class);
+        doThrow(new SQLException("test")).when(resultSet).next();
+
+        final var instance = new ColumnarBatch(resultSet, new ColumnVectors.Type[]{LONG}, 2);
+
+        assertThat(() -> instance.tryAdvance(batch -> {}), throwsException(UncheckedSqlException.class, SQLException.class.getName() + ": test"));
+    }
+
+    @Test
+    void toColumnarStream() throws Exception {
+        final var resultSet = ColumnVectorsUnitTest.givenResultSet(5);
+
+        try (final var stream = JdbcUtils.toColumnarStream(resultSet, 3)) {
+            final var actual = stream
+                .map(batch -> Arrays.stream(batch.longs(0), 0, batch.size()).sum())
+                .collect(toList());
+
+            assertThat(actual, isEqualTo(Arrays.asList(3L, 7L)));
+        }
+        // Closing a CachedRowSet releases its rows.
+        assertThat(resultSet.size(), isEqualTo(0));
+    }
+
+    @Test
+    void toColumnarStreamInParallelReadsEveryRowOnce() throws Exception {
+        final var resultSet = ColumnVectorsUnitTest.givenResultSet(1000);
+
+        try (final var stream = JdbcUtils.toColumnarStream(resultSet, 3).parallel()) {
+            final var actual = stream
+                .mapToLong(batch -> Arrays.stream(batch.longs(0), 0, batch.size()).sum())
+                .sum();
+
+            assertThat(actual, isEqualTo(999L * 1000L / 2L));
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.echocat.jsu;
+
+import static java.util.Spliterator.CONCURRENT;
+import static java.util.Spliterator.ORDERED;
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentSupplierUnitTest {
+
+    @Test
+    void parallelStreamGeneratesEveryElementOnce() {
+        final var actual = StreamSupport.stream(SpliteratorUtils.generateConcurrent(givenGeneratorOf(100_000)), true)
+            .sorted()
+            .collect(toList());
+
+        assertThat(actual, isEqualTo(LongStream.range(0, 100_000).boxed().collect(toList())));
+    }
+
+    @Test
+    void trySplitSharesGeneratorAndHalvesEstimatedSize() {
+        final var actual = SpliteratorUtils.generateConcurrent(givenGeneratorOf(10));
+
+        final var split = actual.trySplit();
+
+        assertThat(split.estimateSize(), isEqualTo(Long.MAX_VALUE >>> 1));
+        assertThat(actual.estimateSize(), isEqualTo(Long.MAX_VALUE >>> 1));
+        assertThat(split.tryAdvance(element -> assertThat(element, isEqualTo(0L))), isEqualTo(true));
+        assertThat(actual.tryAdvance(element -> assertThat(element, isEqualTo(1L))), isEqualTo(true));
+    }
+
+    @Test
+    void trySplitStopsAtEstimatedSizeOfOne() {
+        final var actual = new ConcurrentSupplier<>(givenGeneratorOf(10), 1);
+
+        assertThat(actual.trySplit(), isNull());
+    }
+
+    @Test
+    void characteristics() {
+        final var actual = SpliteratorUtils.generateConcurrent(givenGeneratorOf(10));
+
+        assertThat(actual.characteristics() & ORDERED, isEqualTo(0));
+        assertThat(actual.characteristics() & CONCURRENT, isEqualTo(CONCURRENT));
+    }
+
+    @Test
+    void constructor() {
+        final var generator = givenGeneratorOf(1);
+
+        final var actual = new ConcurrentSupplier<>(generator);
+
+        assertThat(actual.generator(), isSameAs(generator));
+    }
+
+    @Nonnull
+    private static Generator<Long> givenGeneratorOf(long size) {
+        final var serial = new AtomicLong();
+        return () -> {
+            final var current = serial.getAndIncrement();
+            return current < size ? Optional.of(current) : Optional.empty();
+        };
+    }
+
+}
@@ -10,7 +10,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -44,7 +49,66 @@ public class ContinuingSupplierUnitTest {
         assertThat(actual.generator(), isSameAs(generator));
     }
 
-    @SuppressWarnings("SameParameterValue")
+    @Test
+    void ofInt() {
+        final var serial = new AtomicInteger();
+        final var actual = SpliteratorUtils.generateInt(target -> {
+            final var current = serial.getAndIncrement();
+            if (current >= 1000) {
+                return false;
+            }
+            target.accept(current);
+            return true;
+        });
+        final var actualList = new ArrayList<Integer>();
+        //noinspection StatementWithEmptyBody
+        while (actual.tryAdvance((IntConsumer) actualList::add)) {}
+        assertThat(actualList, isEqualTo(IntStream.range(0, 1000).boxed().collect(toList())));
+    }
+
+    @Test
+    void ofLong() {
+        final var serial = new AtomicLong();
+        final var actual = SpliteratorUtils.generateLong(target -> {
+            final var current = serial.getAndIncrement();
+            if (current >= 1000) {
+                return false;
+            }
+            target.accept(current);
+            return true;
+        });
+        final var actualList = new ArrayList<Long>();
+        //noinspection StatementWithEmptyBody
+        while (actual.tryAdvance((LongConsumer) actualList::add)) {}
+        assertThat(actualList, isEqualTo(givenListWithNLongs(1000)));
+    }
+
+    @Test
+    void ofDouble() {
+        final var serial = new AtomicInteger();
+        final var actual = SpliteratorUtils.generateDouble(target -> {
+            final var current = serial.getAndIncrement();
+            if (current >= 1000) {
+                return false;
+            }
+            target.accept(current / 2d);
+            return true;
+        });
+        final var actualList = new ArrayList<Double>();
+        //noinspection StatementWithEmptyBody
+        while (actual.tryAdvance((DoubleConsumer) actualList::add)) {}
+        assertThat(actualList, isEqualTo(IntStream.range(0, 1000).mapToObj(i -> i / 2d).collect(toList())));
+    }
+
+    @Test
+    void constructorOfLong() {
+        final LongGenerator generator = target -> false;
+
+        final var actual = new ContinuingSupplier.OfLong(generator);
+
+        assertThat(actual.generator(), isSameAs(generator));
+    }
+
     @Nonnull
     protected static List<Long> givenListWithNLongs(@Nonnegative int count) {
         final AtomicLong serial = new AtomicLong();
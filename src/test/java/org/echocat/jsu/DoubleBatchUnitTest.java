@@ -0,0 +1,94 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.HasSize.hasSize;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNotNull;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class DoubleBatchUnitTest {
+
+    @Test
+    void simple() {
+        final var actual = asList(new DoubleBatch(givenDoubles(1005).spliterator(), 10));
+
+        assertThat(actual, hasSize(101));
+        assertThat(actual.get(0), isEqualTo(List.of(0d, 1d, 2d, 3d, 4d, 5d, 6d, 7d, 8d, 9d)));
+        assertThat(actual.get(100), isEqualTo(List.of(1000d, 1001d, 1002d, 1003d, 1004d)));
+    }
+
+    @Test
+    void withFixedBatchSizeIsSizedIfSourceIsSized() {
+        final var actual = new DoubleBatch(givenDoubles(1005).spliterator(), 10);
+
+        assertThat(actual.getExactSizeIfKnown(), isEqualTo(101L));
+        assertThat(actual.hasCharacteristics(Spliterator.SUBSIZED), isEqualTo(true));
+    }
+
+    @Test
+    void splitsSizedSourceOnBatchBoundaries() {
+        final var actual = new DoubleBatch(givenDoubles(1005).spliterator(), 7);
+
+        final var prefix = actual.trySplit();
+        assertThat(prefix, isNotNull());
+
+        final var actualList = new ArrayList<>(asList(prefix));
+        actualList.addAll(asList(actual));
+
+        assertThat(actualList, isEqualTo(asList(new DoubleBatch(givenDoubles(1005).spliterator(), 7))));
+    }
+
+    @Test
+    void parallelStreamProducesSameBatchesAsSequential() {
+        final var actual = StreamSupport.stream(new DoubleBatch(givenDoubles(100_003).spliterator(), 10), true)
+            .map(DoubleBatchUnitTest::boxed)
+            .collect(toList());
+
+        assertThat(actual, isEqualTo(asList(new DoubleBatch(givenDoubles(100_003).spliterator(), 10))));
+    }
+
+    @Test
+    void constructor() {
+        final Spliterator.OfDouble source = mock(Spliterator.OfDouble.class);
+        final Supplier<Integer> batchSizeSupplier = () -> 10;
+
+        final var instance = new DoubleBatch(source, batchSizeSupplier);
+
+        assertThat(instance.source(), isSameAs(source));
+        assertThat(instance.batchSize(), isSameAs(batchSizeSupplier));
+    }
+
+    @Nonnull
+    protected static DoubleStream givenDoubles(@Nonnegative int count) {
+        return DoubleStream.of(IntStream.range(0, count).asDoubleStream().toArray());
+    }
+
+    @Nonnull
+    protected static List<Double> boxed(@Nonnull double[] batch) {
+        return Arrays.stream(batch).boxed().collect(toList());
+    }
+
+    @Nonnull
+    protected static List<List<Double>> asList(@Nonnull Spliterator<double[]> source) {
+        final var result = new ArrayList<List<Double>>();
+        //noinspection StatementWithEmptyBody
+        while (source.tryAdvance(batch -> result.add(boxed(batch)))) {}
+        return result;
+    }
+
+}
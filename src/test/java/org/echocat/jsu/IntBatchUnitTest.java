@@ -0,0 +1,93 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.HasSize.hasSize;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNotNull;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class IntBatchUnitTest {
+
+    @Test
+    void simple() {
+        final var actual = asList(new IntBatch(givenInts(1005).spliterator(), 10));
+
+        assertThat(actual, hasSize(101));
+        assertThat(actual.get(0), isEqualTo(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+        assertThat(actual.get(100), isEqualTo(List.of(1000, 1001, 1002, 1003, 1004)));
+    }
+
+    @Test
+    void withFixedBatchSizeIsSizedIfSourceIsSized() {
+        final var actual = new IntBatch(givenInts(1005).spliterator(), 10);
+
+        assertThat(actual.getExactSizeIfKnown(), isEqualTo(101L));
+        assertThat(actual.hasCharacteristics(Spliterator.SUBSIZED), isEqualTo(true));
+    }
+
+    @Test
+    void splitsSizedSourceOnBatchBoundaries() {
+        final var actual = new IntBatch(givenInts(1005).spliterator(), 7);
+
+        final var prefix = actual.trySplit();
+        assertThat(prefix, isNotNull());
+
+        final var actualList = new ArrayList<>(asList(prefix));
+        actualList.addAll(asList(actual));
+
+        assertThat(actualList, isEqualTo(asList(new IntBatch(givenInts(1005).spliterator(), 7))));
+    }
+
+    @Test
+    void parallelStreamProducesSameBatchesAsSequential() {
+        final var actual = StreamSupport.stream(new IntBatch(givenInts(100_003).spliterator(), 10), true)
+            .map(IntBatchUnitTest::boxed)
+            .collect(toList());
+
+        assertThat(actual, isEqualTo(asList(new IntBatch(givenInts(100_003).spliterator(), 10))));
+    }
+
+    @Test
+    void constructor() {
+        final Spliterator.OfInt source = mock(Spliterator.OfInt.class);
+        final Supplier<Integer> batchSizeSupplier = () -> 10;
+
+        final var instance = new IntBatch(source, batchSizeSupplier);
+
+        assertThat(instance.source(), isSameAs(source));
+        assertThat(instance.batchSize(), isSameAs(batchSizeSupplier));
+    }
+
+    @Nonnull
+    protected static IntStream givenInts(@Nonnegative int count) {
+        return IntStream.range(0, count);
+    }
+
+    @Nonnull
+    protected static List<Integer> boxed(@Nonnull int[] batch) {
+        return Arrays.stream(batch).boxed().collect(toList());
+    }
+
+    @Nonnull
+    protected static List<List<Integer>> asList(@Nonnull Spliterator<int[]> source) {
+        final var result = new ArrayList<List<Integer>>();
+        //noinspection StatementWithEmptyBody
+        while (source.tryAdvance(batch -> result.add(boxed(batch)))) {}
+        return result;
+    }
+
+}
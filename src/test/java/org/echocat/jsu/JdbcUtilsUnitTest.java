@@ -1,5 +1,7 @@
 package org.echocat.jsu;
 
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 import static org.echocat.jsu.JdbcUtils.toStream;
@@ -9,10 +11,13 @@ import static org.echocat.unittest.utils.matchers.ThrowsException.throwsExceptio
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.*;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.echocat.jsu.support.SqlFunction;
 import org.echocat.jsu.support.UncheckedSqlException;
@@ -104,6 +109,94 @@ public class JdbcUtilsUnitTest {
         }).collect(toList()), throwsException(RuntimeException.class, "test"));
     }
 
+    @Test
+    void streamPreparesStatementForStreaming() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = mock(PreparedStatement.class);
+        final var resultSet = mock(ResultSet.class);
+        final var serial = new AtomicInteger();
+        doReturn(statement).when(connection).prepareStatement("SELECT 1", TYPE_FORWARD_ONLY, CONCUR_READ_ONLY);
+        doReturn(resultSet).when(statement).executeQuery();
+        doAnswer(invocationOnMock -> serial.getAndIncrement() < 3).when(resultSet).next();
+        doReturn(true).when(connection).getAutoCommit();
+
+        final var actual = JdbcUtils.stream(connection, "SELECT 1", asList("a", 2), StreamingOptions.forPostgreSql(500), current -> serial.get());
+        assertThat(actual.collect(toList()), isEqualTo(asList(1, 2, 3)));
+
+        verify(statement, times(1)).setFetchSize(500);
+        verify(statement, times(1)).setObject(1, "a");
+        verify(statement, times(1)).setObject(2, 2);
+        verify(connection, times(1)).setAutoCommit(false);
+        verify(resultSet, times(0)).close();
+        verify(statement, times(0)).close();
+
+        actual.close();
+
+        verify(resultSet, times(1)).close();
+        verify(statement, times(1)).close();
+        verify(connection, times(1)).setAutoCommit(true);
+        verify(connection, times(0)).close();
+    }
+
+    @Test
+    void streamClosesStatementIfQueryFails() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = mock(PreparedStatement.class);
+        doReturn(statement).when(connection).prepareStatement("SELECT 1", TYPE_FORWARD_ONLY, CONCUR_READ_ONLY);
+        doThrow(new SQLException("test")).when(statement).executeQuery();
+        doReturn(true).when(connection).getAutoCommit();
+
+        assertThat(() -> JdbcUtils.stream(connection, "SELECT 1", StreamingOptions.forMySql().withAutoCommit(false), current -> 1),
+            throwsException(UncheckedSqlException.class, SQLException.class.getName() + ": test"));
+
+        verify(statement, times(1)).setFetchSize(Integer.MIN_VALUE);
+        verify(statement, times(1)).close();
+        verify(connection, times(1)).setAutoCommit(false);
+        verify(connection, times(1)).setAutoCommit(true);
+    }
+
+    @Test
+    void writeWritesAllElements() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = BatchWriterUnitTest.givenStatement(connection);
+
+        final var actual = JdbcUtils.write(Stream.of("a", "b", "c", "d", "e"), connection, "INSERT", (target, element) -> target.setString(1, element), 2);
+
+        assertThat(actual, isEqualTo(5L));
+        verify(statement, times(5)).addBatch();
+        verify(statement, times(3)).executeBatch();
+        verify(statement, times(1)).close();
+    }
+
+    @Test
+    void writeRollsBackIfStreamFails() throws Exception {
+        final var connection = mock(Connection.class);
+        final var statement = BatchWriterUnitTest.givenStatement(connection);
+        doReturn(true).when(connection).getAutoCommit();
+        final var source = Stream.of(1, 2, 3).map(element -> {
+            if (element == 3) {
+                throw new IllegalStateException("test");
+            }
+            return element;
+        });
+
+        assertThat(() -> JdbcUtils.write(source, connection, "INSERT", (target, element) -> target.setInt(1, element), 1, 10, null), throwsException(IllegalStateException.class, "test"));
+
+        verify(statement, times(2)).executeBatch();
+        verify(statement, times(1)).close();
+        verify(connection, never()).commit();
+        verify(connection, times(1)).rollback();
+        verify(connection, times(1)).setAutoCommit(true);
+    }
+
+    @Test
+    void writeRejectsParallelStreams() {
+        final var connection = mock(Connection.class);
+
+        assertThat(() -> JdbcUtils.write(Stream.of(1, 2).parallel(), connection, "INSERT", (target, element) -> target.setInt(1, element), 1), throwsException(IllegalArgumentException.class));
+        verifyNoInteractions(connection);
+    }
+
     @Test
     public void constructor() {
         new JdbcUtils();
@@ -0,0 +1,139 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.echocat.jsu.support.Callable;
+import org.junit.jupiter.api.Test;
+
+public class JfrEventsUnitTest {
+
+    @Test
+    void eventsAreDisabledByDefault() throws Exception {
+        final var events = record(new Recording(), () -> {
+            try (final var stream = StreamUtils.batch(IntStream.range(0, 10).boxed(), 5)) {
+                assertThat(stream.collect(toList()).size(), isEqualTo(2));
+            }
+        });
+
+        assertThat(events.size(), isEqualTo(0));
+    }
+
+    @Test
+    void batchEmitsEvents() throws Exception {
+        final var events = record(givenRecording("org.echocat.jsu.Batch"), () -> {
+            try (final var stream = StreamUtils.batch(IntStream.range(0, 15).boxed(), 10)) {
+                assertThat(stream.collect(toList()).size(), isEqualTo(2));
+            }
+        });
+
+        assertThat(events.size(), isEqualTo(2));
+        assertThat(events.get(0).getInt("size"), isEqualTo(10));
+        assertThat(events.get(1).getInt("size"), isEqualTo(5));
+        assertThat(events.get(1).getInt("capacity"), isEqualTo(10));
+    }
+
+    @Test
+    void generateEmitsStallEvents() throws Exception {
+        final var recording = givenRecording();
+        recording.enable("org.echocat.jsu.Stall").withThreshold(Duration.ZERO);
+        final var events = record(recording, () -> {
+            final var remaining = new AtomicInteger(3);
+            try (final var stream = StreamUtils.generate(() -> remaining.getAndDecrement() > 0 ? Optional.of(1) : Optional.empty())) {
+                assertThat(stream.count(), isEqualTo(3L));
+            }
+        });
+
+        assertThat(events.size(), isEqualTo(4));
+        assertThat(events.get(0).getString("stage"), isEqualTo(StreamMetrics.GENERATE));
+    }
+
+    @Test
+    void generateSplittableEmitsStallEvents() throws Exception {
+        final var recording = givenRecording();
+        recording.enable("org.echocat.jsu.Stall").withThreshold(Duration.ZERO);
+        final var events = record(recording, () -> {
+            try (final var stream = StreamUtils.generate(SplittableGenerator.range(0, 3), false)) {
+                assertThat(stream.count(), isEqualTo(3L));
+            }
+        });
+
+        assertThat(events.size(), isEqualTo(4));
+        assertThat(events.get(0).getString("stage"), isEqualTo(StreamMetrics.GENERATE));
+    }
+
+    @Test
+    void instrumentedStreamsEmitLifecycleEvents() throws Exception {
+        final var events = record(givenRecording("org.echocat.jsu.StreamOpened", "org.echocat.jsu.StreamClosed"), () -> {
+            StreamMetrics.install(new StreamMetrics());
+            try (final var stream = StreamUtils.generate(Optional::empty)) {
+                assertThat(stream.count(), isEqualTo(0L));
+            } finally {
+                StreamMetrics.install(null);
+            }
+        });
+
+        assertThat(events.size(), isEqualTo(2));
+        assertThat(events.get(0).getEventType().getName(), isEqualTo("org.echocat.jsu.StreamOpened"));
+        assertThat(events.get(1).getEventType().getName(), isEqualTo("org.echocat.jsu.StreamClosed"));
+        assertThat(events.get(1).getString("stage"), isEqualTo(StreamMetrics.GENERATE));
+        assertThat(events.get(1).getLong("lifetime") > 0, isEqualTo(true));
+    }
+
+    @Test
+    void closeHooksEmitEvents() throws Exception {
+        final var events = record(givenRecording("org.echocat.jsu.CloseHook"), () -> {
+            AutoCloseableUtils.doOnClose(AutoCloseable.class, () -> {}, () -> {}, () -> {}).close();
+            final var failing = AutoCloseableUtils.doOnClose(AutoCloseable.class, () -> {}, () -> {
+                throw new IOException("test");
+            });
+            assertThat(failing::close, throwsException(IOException.class, "test"));
+        });
+
+        assertThat(events.size(), isEqualTo(2));
+        assertThat(events.get(0).getInt("hooks"), isEqualTo(2));
+        assertThat(events.get(0).getString("failure"), isEqualTo(null));
+        assertThat(events.get(1).getString("failure"), isEqualTo("java.io.IOException: test"));
+    }
+
+    @Nonnull
+    private static Recording givenRecording(@Nonnull String... events) {
+        final var result = new Recording();
+        for (final var event : events) {
+            result.enable(event).withThreshold(Duration.ZERO);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static List<RecordedEvent> record(@Nonnull Recording recording, @Nonnull Callable action) throws Exception {
+        final var file = Files.createTempFile("jsu-", ".jfr");
+        try (recording) {
+            recording.start();
+            action.call();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("org.echocat.jsu."))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
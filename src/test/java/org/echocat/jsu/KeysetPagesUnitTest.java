@@ -0,0 +1,155 @@
+package org.echocat.jsu;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.echocat.jsu.support.UncheckedSqlException;
+import org.junit.jupiter.api.Test;
+
+public class KeysetPagesUnitTest {
+
+    private static final String SQL = "SELECT id FROM t WHERE tenant = ? AND id > ? ORDER BY id LIMIT ?";
+
+    @Test
+    void generateReadsPagesAfterLastKey() throws Exception {
+        final var queries = new ArrayList<Long>();
+        final var connection = givenTable(5, queries);
+
+        final var instance = new KeysetPages<>(connection, SQL, asList("a"), 0L, 2, row -> row.getLong(1), row -> row.getLong(1));
+
+        assertThat(instance.generate(), isEqualTo(Optional.of(asList(1L, 2L))));
+        assertThat(instance.lastKey(), isEqualTo(2L));
+        assertThat(instance.generate(), isEqualTo(Optional.of(asList(3L, 4L))));
+        assertThat(instance.generate(), isEqualTo(Optional.of(asList(5L))));
+        assertThat(instance.generate(), isEqualTo(Optional.empty()));
+        assertThat(queries, isEqualTo(asList(0L, 2L, 4L)));
+    }
+
+    @Test
+    void generateStopsOnEmptyPage() throws Exception {
+        final var queries = new ArrayList<Long>();
+        final var connection = givenTable(4, queries);
+
+        final var instance = new KeysetPages<>(connection, SQL, asList("a"), 0L, 2, row -> row.getLong(1), row -> row.getLong(1));
+
+        assertThat(instance.generate().isPresent(), isEqualTo(true));
+        assertThat(instance.generate().isPresent(), isEqualTo(true));
+        assertThat(instance.generate(), isEqualTo(Optional.empty()));
+        assertThat(instance.generate(), isEqualTo(Optional.empty()));
+        assertThat(queries, isEqualTo(asList(0L, 2L, 4L)));
+    }
+
+    @Test
+    void generateWrapsSqlException() throws Exception {
+        final var connection = mock(Connection.class);
+        doThrow(new SQLException("test")).when(connection).prepareStatement(SQL);
+
+        final var instance = new KeysetPages<>(connection, SQL, null, 0L, 2, row -> row.getLong(1), row -> row.getLong(1));
+
+        assertThat(instance::generate, throwsException(UncheckedSqlException.class, SQLException.class.getName() + ": test"));
+    }
+
+    @Test
+    void streamByKeysetResumesAfterGivenKey() throws Exception {
+        final var queries = new ArrayList<Long>();
+        final var connection = givenTable(10, queries);
+
+        final var actual = JdbcUtils.streamByKeyset(connection, SQL, asList("a"), 6L, 3, row -> row.getLong(1), row -> row.getLong(1), false)
+            .collect(toList());
+
+        assertThat(actual, isEqualTo(asList(7L, 8L, 9L, 10L)));
+        assertThat(queries, isEqualTo(asList(6L, 9L)));
+    }
+
+    @Test
+    void streamByKeysetWithPrefetch() throws Exception {
+        final var connection = givenTable(10, new ArrayList<>());
+
+        try (final var stream = JdbcUtils.streamByKeyset(connection, SQL, asList("a"), 0L, 3, row -> row.getLong(1), row -> row.getLong(1), true)) {
+            assertThat(stream.collect(toList()), isEqualTo(asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L)));
+        }
+    }
+
+    @Test
+    void streamByKeysetWithPrefetchWaitsForRunningQueryOnClose() throws Exception {
+        final var running = new AtomicBoolean();
+        final var runningWhileClosed = new AtomicBoolean();
+        final var queries = new ArrayList<Long>();
+        final var connection = givenTable(10, queries, () -> {
+            if (queries.size() > 1) {
+                running.set(true);
+                // Like most JDBC drivers: a blocking query which ignores interrupts.
+                final var until = System.nanoTime() + MILLISECONDS.toNanos(100);
+                while (System.nanoTime() < until) {
+                    LockSupport.parkNanos(until - System.nanoTime());
+                }
+                running.set(false);
+            }
+        });
+
+        try (final var stream = JdbcUtils.streamByKeyset(connection, SQL, asList("a"), 0L, 3, row -> row.getLong(1), row -> row.getLong(1), true)
+            .onClose(() -> runningWhileClosed.set(running.get()))) {
+            assertThat(stream.iterator().next(), isEqualTo(1L));
+        }
+
+        assertThat(runningWhileClosed.get(), isEqualTo(false));
+        assertThat(running.get(), isEqualTo(false));
+    }
+
+    static Connection givenTable(long size, List<Long> queries) throws SQLException {
+        return givenTable(size, queries, () -> {});
+    }
+
+    /**
+     * Simulates a table with the keys <code>1..size</code> and records the key after which every query starts.
+     */
+    static Connection givenTable(long size, List<Long> queries, Runnable onQuery) throws SQLException {
+        final var connection = mock(Connection.class);
+        doAnswer(prepare -> {
+            final var statement = mock(PreparedStatement.class);
+            final var after = new AtomicLong();
+            final var limit = new AtomicInteger();
+            doAnswer(invocation -> {
+                after.set(invocation.getArgument(1));
+                return null;
+            }).when(statement).setObject(eq(2), any());
+            doAnswer(invocation -> {
+                limit.set(invocation.getArgument(1));
+                return null;
+            }).when(statement).setInt(eq(3), anyInt());
+            doAnswer(execute -> {
+                synchronized (queries) {
+                    queries.add(after.get());
+                }
+                onQuery.run();
+                final var current = new AtomicLong(after.get());
+                final var end = Math.min(size, after.get() + limit.get());
+                final var resultSet = mock(ResultSet.class);
+                doAnswer(next -> current.incrementAndGet() <= end).when(resultSet).next();
+                doAnswer(get -> current.get()).when(resultSet).getLong(1);
+                return resultSet;
+            }).when(statement).executeQuery();
+            return statement;
+        }).when(connection).prepareStatement(SQL);
+        return connection;
+    }
+
+}
@@ -0,0 +1,176 @@
+package org.echocat.jsu;
+
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameInstance;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+
+import org.echocat.jsu.support.LeakedResourceException;
+import org.junit.jupiter.api.Test;
+
+public class LeakDetectorUnitTest {
+
+    @Test
+    void reportsAndClosesLeakedStreams() throws Exception {
+        final var leaks = new CopyOnWriteArrayList<LeakedResourceException>();
+        final var detector = new LeakDetector(1, true, leaks::add);
+        final var resource = mock(AutoCloseable.class);
+
+        createAndForget(detector, resource);
+
+        awaitAtLeastOne(detector::leaked);
+        assertThat(detector.tracked(), isEqualTo(1L));
+        awaitAtLeastOne(detector::closedLeaks);
+        verify(resource, times(1)).close();
+        assertThat(leaks.size(), isEqualTo(1));
+        assertThat(leaks.get(0).getStackTrace()[1].getMethodName(), isEqualTo("createAndForget"));
+    }
+
+    @Test
+    void reportsWithoutClosingIfNotConfigured() throws Exception {
+        final var detector = new LeakDetector(1, false, ignored -> {});
+        final var resource = mock(AutoCloseable.class);
+
+        createAndForget(detector, resource);
+
+        awaitAtLeastOne(detector::leaked);
+        assertThat(detector.closedLeaks(), isEqualTo(0L));
+        verify(resource, never()).close();
+    }
+
+    @Test
+    void doesNotReportClosedStreams() {
+        final var detector = new LeakDetector(1, true, ignored -> {
+            throw new AssertionError("Unexpected leak.");
+        });
+
+        try (final var stream = detector.register(Stream.of(1, 2, 3), null)) {
+            assertThat(stream.count(), isEqualTo(3L));
+        }
+        gc();
+
+        assertThat(detector.tracked(), isEqualTo(1L));
+        assertThat(detector.leaked(), isEqualTo(0L));
+    }
+
+    @Test
+    void doesNotTrackIfNotSampled() {
+        final var detector = new LeakDetector(0, true);
+        final var stream = Stream.of(1);
+
+        assertThat(detector.register(stream, null), isSameInstance(stream));
+        assertThat(detector.tracked(), isEqualTo(0L));
+    }
+
+    @Test
+    void samplesTheConfiguredFraction() {
+        final var detector = new LeakDetector(0.25, true);
+
+        for (int i = 0; i < 10_000; i++) {
+            try (final var ignored = detector.register(Stream.of(i), null)) {
+                // Nothing to do.
+            }
+        }
+
+        assertThat(detector.tracked() > 2_000 && detector.tracked() < 3_000, isEqualTo(true));
+    }
+
+    @Test
+    void installedDetectorTracksStreamsOfThisLibrary() throws Exception {
+        final var detector = new LeakDetector(1, true, ignored -> {});
+        final var resultSet = mock(ResultSet.class);
+        final Generator<?> generator = mock(Generator.class, withSettings().extraInterfaces(AutoCloseable.class));
+        LeakDetector.install(detector);
+        try {
+            forget(JdbcUtils.toStream(resultSet));
+            forget(StreamUtils.generate(generator));
+            assertThat(detector.tracked(), isEqualTo(2L));
+        } finally {
+            LeakDetector.install(null);
+        }
+
+        awaitAtLeastOne(() -> detector.leaked() / 2);
+        awaitAtLeastOne(() -> detector.closedLeaks() / 2);
+        verify(resultSet, times(1)).close();
+        verify((AutoCloseable) generator, times(1)).close();
+        assertThat(LeakDetector.installed(), isEqualTo(null));
+    }
+
+    @Test
+    void installedDetectorTracksCloseableBulkGenerators() throws Exception {
+        final var detector = new LeakDetector(1, true, ignored -> {});
+        final BulkGenerator<?> generator = mock(BulkGenerator.class, withSettings().extraInterfaces(AutoCloseable.class));
+        LeakDetector.install(detector);
+        try {
+            forget(StreamUtils.generateBulk(generator));
+            assertThat(detector.tracked(), isEqualTo(1L));
+        } finally {
+            LeakDetector.install(null);
+        }
+
+        awaitAtLeastOne(detector::closedLeaks);
+        verify((AutoCloseable) generator, times(1)).close();
+    }
+
+    @Test
+    void installedDetectorDoesNotTrackGeneratorsWhichHoldNothing() {
+        final var detector = new LeakDetector(1, true, ignored -> {});
+        LeakDetector.install(detector);
+        try {
+            forget(StreamUtils.generate(Optional::empty));
+            forget(StreamUtils.generateConcurrent(Optional::empty));
+            forget(StreamUtils.generate(SplittableGenerator.range(0, 1), false));
+            forget(StreamUtils.generateBulk(BulkGenerator.of(Optional::empty)));
+            assertThat(detector.tracked(), isEqualTo(0L));
+        } finally {
+            LeakDetector.install(null);
+        }
+    }
+
+    @Test
+    void trackWithoutInstalledDetectorReturnsStream() {
+        final var stream = Stream.of(1);
+
+        assertThat(LeakDetector.track(stream, null), isSameInstance(stream));
+    }
+
+    @Test
+    void constructorRejectsInvalidSamplingRate() {
+        assertThat(() -> new LeakDetector(1.1, true), throwsException(IllegalArgumentException.class));
+        assertThat(() -> new LeakDetector(Double.NaN, true), throwsException(IllegalArgumentException.class));
+    }
+
+    private static void createAndForget(@Nonnull LeakDetector detector, @Nonnull AutoCloseable resource) {
+        final Stream<Integer> stream = detector.register(List.of(1, 2, 3).stream(), resource);
+        forget(stream);
+    }
+
+    private static void forget(@Nonnull Stream<?> stream) {
+        stream.iterator();
+    }
+
+    private static void awaitAtLeastOne(@Nonnull LongSupplier counter) throws InterruptedException {
+        final var timeout = System.currentTimeMillis() + 10_000;
+        while (counter.getAsLong() < 1) {
+            if (System.currentTimeMillis() > timeout) {
+                throw new AssertionError("Timeout while waiting for leak.");
+            }
+            gc();
+            Thread.sleep(10);
+        }
+    }
+
+    private static void gc() {
+        System.gc();
+    }
+
+}
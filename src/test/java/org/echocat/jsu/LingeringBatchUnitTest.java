@@ -0,0 +1,111 @@
+package org.echocat.jsu;
+
+import static org.echocat.unittest.utils.matchers.CompareTo.isGreaterThanOrEqualTo;
+import static org.echocat.unittest.utils.matchers.CompareTo.isLessThan;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+public class LingeringBatchUnitTest {
+
+    private static final Object END = new Object();
+
+    @Test
+    void emitsFullBatchesWithoutWaiting() {
+        final var queue = new LinkedBlockingQueue<Object>(List.of(1L, 2L, 3L, 4L, 5L, END));
+        final var actual = new LingeringBatch<>(PollingGenerator.of(queue, END), 2, Duration.ofHours(1));
+
+        final var actualList = new ArrayList<List<Object>>();
+        //noinspection StatementWithEmptyBody
+        while (actual.tryAdvance(actualList::add)) {}
+
+        assertThat(actualList, isEqualTo(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L))));
+    }
+
+    @Test
+    void emitsPartialBatchAfterLinger() {
+        final var queue = new LinkedBlockingQueue<Long>(List.of(1L, 2L));
+        final var actual = new LingeringBatch<>(PollingGenerator.of(queue), 100, Duration.ofMillis(100));
+
+        final var batch = new AtomicReference<List<Long>>();
+        final var started = System.nanoTime();
+        assertThat(actual.tryAdvance(batch::set), isEqualTo(true));
+        final var tookMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(batch.get(), isEqualTo(List.of(1L, 2L)));
+        assertThat(tookMillis, isGreaterThanOrEqualTo(100L));
+        assertThat(tookMillis, isLessThan(5000L));
+    }
+
+    @Test
+    void zeroLingerStillDrainsAvailableElements() {
+        final var queue = new LinkedBlockingQueue<Long>(List.of(1L, 2L, 3L, 4L, 5L));
+        final var actual = new LingeringBatch<>(PollingGenerator.of(queue), 2, Duration.ZERO);
+
+        final var actualList = new ArrayList<List<Long>>();
+        assertThat(actual.tryAdvance(actualList::add), isEqualTo(true));
+        assertThat(actual.tryAdvance(actualList::add), isEqualTo(true));
+        assertThat(actual.tryAdvance(actualList::add), isEqualTo(true));
+
+        assertThat(actualList, isEqualTo(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L))));
+    }
+
+    @Test
+    void lingerStartsWithFirstElement() throws Exception {
+        final var queue = new LinkedBlockingQueue<Long>();
+        final var actual = new LingeringBatch<>(PollingGenerator.of(queue), 2, Duration.ofMillis(100));
+
+        final var producer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+                queue.put(1L);
+                Thread.sleep(20);
+                queue.put(2L);
+            } catch (final InterruptedException ignored) {}
+        });
+        producer.start();
+
+        final var batch = new AtomicReference<List<Long>>();
+        assertThat(actual.tryAdvance(batch::set), isEqualTo(true));
+        producer.join();
+
+        assertThat(batch.get(), isEqualTo(List.of(1L, 2L)));
+    }
+
+    @Test
+    void endsWithoutEmptyBatch() {
+        final var queue = new LinkedBlockingQueue<>(List.of(END));
+        final var actual = new LingeringBatch<>(PollingGenerator.of(queue, END), 2, Duration.ofMillis(100));
+
+        assertThat(actual.tryAdvance(batch -> {}), isEqualTo(false));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        final PollingGenerator<Long> generator = (target, timeout, unit) -> PollingGenerator.Result.END;
+        assertThat(() -> new LingeringBatch<>(generator, 0, Duration.ZERO), throwsException(IllegalArgumentException.class));
+        assertThat(() -> new LingeringBatch<>(generator, 1, Duration.ofMillis(-1)), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void constructor() {
+        final PollingGenerator<Long> generator = (target, timeout, unit) -> PollingGenerator.Result.END;
+        final var linger = Duration.ofMillis(66);
+
+        final var actual = new LingeringBatch<>(generator, 11, linger);
+
+        assertThat(actual.generator(), isSameAs(generator));
+        assertThat(actual.maxSize(), isEqualTo(11));
+        assertThat(actual.linger(), isSameAs(linger));
+    }
+
+}
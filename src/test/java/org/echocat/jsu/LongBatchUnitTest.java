@@ -0,0 +1,93 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.HasSize.hasSize;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNotNull;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class LongBatchUnitTest {
+
+    @Test
+    void simple() {
+        final var actual = asList(new LongBatch(givenLongs(1005).spliterator(), 10));
+
+        assertThat(actual, hasSize(101));
+        assertThat(actual.get(0), isEqualTo(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L)));
+        assertThat(actual.get(100), isEqualTo(List.of(1000L, 1001L, 1002L, 1003L, 1004L)));
+    }
+
+    @Test
+    void withFixedBatchSizeIsSizedIfSourceIsSized() {
+        final var actual = new LongBatch(givenLongs(1005).spliterator(), 10);
+
+        assertThat(actual.getExactSizeIfKnown(), isEqualTo(101L));
+        assertThat(actual.hasCharacteristics(Spliterator.SUBSIZED), isEqualTo(true));
+    }
+
+    @Test
+    void splitsSizedSourceOnBatchBoundaries() {
+        final var actual = new LongBatch(givenLongs(1005).spliterator(), 7);
+
+        final var prefix = actual.trySplit();
+        assertThat(prefix, isNotNull());
+
+        final var actualList = new ArrayList<>(asList(prefix));
+        actualList.addAll(asList(actual));
+
+        assertThat(actualList, isEqualTo(asList(new LongBatch(givenLongs(1005).spliterator(), 7))));
+    }
+
+    @Test
+    void parallelStreamProducesSameBatchesAsSequential() {
+        final var actual = StreamSupport.stream(new LongBatch(givenLongs(100_003).spliterator(), 10), true)
+            .map(LongBatchUnitTest::boxed)
+            .collect(toList());
+
+        assertThat(actual, isEqualTo(asList(new LongBatch(givenLongs(100_003).spliterator(), 10))));
+    }
+
+    @Test
+    void constructor() {
+        final Spliterator.OfLong source = mock(Spliterator.OfLong.class);
+        final Supplier<Integer> batchSizeSupplier = () -> 10;
+
+        final var instance = new LongBatch(source, batchSizeSupplier);
+
+        assertThat(instance.source(), isSameAs(source));
+        assertThat(instance.batchSize(), isSameAs(batchSizeSupplier));
+    }
+
+    @Nonnull
+    protected static LongStream givenLongs(@Nonnegative int count) {
+        return LongStream.range(0, count);
+    }
+
+    @Nonnull
+    protected static List<Long> boxed(@Nonnull long[] batch) {
+        return Arrays.stream(batch).boxed().collect(toList());
+    }
+
+    @Nonnull
+    protected static List<List<Long>> asList(@Nonnull Spliterator<long[]> source) {
+        final var result = new ArrayList<List<Long>>();
+        //noinspection StatementWithEmptyBody
+        while (source.tryAdvance(batch -> result.add(boxed(batch)))) {}
+        return result;
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.CompareTo.isLessThanOrEqualTo;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class MapAsyncUnitTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void orderedKeepsSourceOrder() {
+        final var source = LongStream.range(0, 1000).boxed().collect(toList());
+        try (final var actual = new MapAsync<Long, Long>(source.spliterator(), element -> {
+            sleep(element % 3);
+            return element * 2;
+        }, 8, executor, true)) {
+            assertThat(asList(actual), isEqualTo(source.stream().map(element -> element * 2).collect(toList())));
+        }
+    }
+
+    @Test
+    void unorderedEmitsAllResults() {
+        final var source = LongStream.range(0, 1000).boxed().collect(toList());
+        try (final var actual = new MapAsync<Long, Long>(source.spliterator(), element -> {
+            sleep(element % 3);
+            return element * 2;
+        }, 8, executor, false)) {
+            assertThat(new HashSet<>(asList(actual)), isEqualTo(new HashSet<>(source.stream().map(element -> element * 2).collect(toList()))));
+        }
+    }
+
+    @Test
+    void doesNotExceedMaxInFlight() {
+        final var running = new AtomicInteger();
+        final var maximumRunning = new AtomicInteger();
+        final var source = LongStream.range(0, 200).boxed().collect(toList());
+        try (final var actual = new MapAsync<Long, Long>(source.spliterator(), element -> {
+            maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(1);
+            running.decrementAndGet();
+            return element;
+        }, 4, executor, true)) {
+            asList(actual);
+        }
+        assertThat(maximumRunning.get(), isLessThanOrEqualTo(4));
+    }
+
+    @Test
+    void runsCallsConcurrently() {
+        final var source = LongStream.range(0, 8).boxed().collect(toList());
+        final var started = System.nanoTime();
+        try (final var actual = new MapAsync<Long, Long>(source.spliterator(), element -> {
+            sleep(200);
+            return element;
+        }, 8, null, true)) {
+            assertThat(asList(actual), isEqualTo(source));
+        }
+        assertThat((System.nanoTime() - started) / 1_000_000, isLessThanOrEqualTo(1000L));
+    }
+
+    @Test
+    void propagatesExceptionsOfMapper() {
+        final var source = LongStream.range(0, 10).boxed().collect(toList());
+        try (final var actual = new MapAsync<Long, Long>(source.spliterator(), element -> {
+            if (element == 5) {
+                throw new IllegalStateException("test");
+            }
+            return element;
+        }, 2, executor, true)) {
+            final var consumed = new ArrayList<Long>();
+            assertThat(() -> {
+                //noinspection StatementWithEmptyBody
+                while (actual.tryAdvance(consumed::add)) {}
+            }, throwsException(IllegalStateException.class, "test"));
+            assertThat(consumed, isEqualTo(List.of(0L, 1L, 2L, 3L, 4L)));
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveMaxInFlight() {
+        //noinspection unchecked
+        assertThat(() -> new MapAsync<>(mock(Spliterator.class), Function.identity(), 0, executor, true), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void constructor() {
+        //noinspection unchecked
+        final Spliterator<Long> source = mock(Spliterator.class);
+        final Function<Long, Long> mapper = Function.identity();
+        final Executor executor = Runnable::run;
+
+        final var actual = new MapAsync<>(source, mapper, 3, executor, false);
+
+        assertThat(actual.source(), isSameAs(source));
+        assertThat(actual.mapper(), isSameAs(mapper));
+        assertThat(actual.maxInFlight(), isEqualTo(3));
+        assertThat(actual.executor(), isSameAs(executor));
+        assertThat(actual.ordered(), isEqualTo(false));
+    }
+
+    protected static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nonnull
+    protected static <T> List<T> asList(@Nonnull Spliterator<T> source) {
+        final var result = new ArrayList<T>();
+        //noinspection StatementWithEmptyBody
+        while (source.tryAdvance(result::add)) {}
+        return result;
+    }
+
+}
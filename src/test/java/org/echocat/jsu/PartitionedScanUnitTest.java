@@ -0,0 +1,162 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.CompareTo.isGreaterThan;
+import static org.echocat.unittest.utils.matchers.CompareTo.isLessThanOrEqualTo;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+public class PartitionedScanUnitTest {
+
+    private static final String SQL = "SELECT id FROM t WHERE id >= ? AND id < ?";
+
+    @Test
+    void trySplitDividesKeyRange() throws Exception {
+        final var connections = new CopyOnWriteArrayList<Connection>();
+        final var instance = givenScan(0, 100, 4, connections);
+
+        final var prefix = (PartitionedScan<Long>) instance.trySplit();
+
+        assertThat(prefix.from(), isEqualTo(0L));
+        assertThat(prefix.to(), isEqualTo(50L));
+        assertThat(instance.from(), isEqualTo(50L));
+        assertThat(instance.to(), isEqualTo(100L));
+
+        final var prefixOfPrefix = (PartitionedScan<Long>) prefix.trySplit();
+        assertThat(prefixOfPrefix.to(), isEqualTo(25L));
+        assertThat(prefix.trySplit(), isNull());
+        assertThat(prefixOfPrefix.trySplit(), isNull());
+        assertThat(connections.size(), isEqualTo(0));
+    }
+
+    @Test
+    void trySplitDividesKeyRangeInProportionToPartitions() throws Exception {
+        final var instance = givenScan(0, 300, 3, new CopyOnWriteArrayList<>());
+
+        final var first = (PartitionedScan<Long>) instance.trySplit();
+        final var second = (PartitionedScan<Long>) instance.trySplit();
+
+        assertThat(first.from(), isEqualTo(0L));
+        assertThat(first.to(), isEqualTo(100L));
+        assertThat(second.from(), isEqualTo(100L));
+        assertThat(second.to(), isEqualTo(200L));
+        assertThat(instance.from(), isEqualTo(200L));
+        assertThat(instance.to(), isEqualTo(300L));
+        assertThat(first.trySplit(), isNull());
+        assertThat(second.trySplit(), isNull());
+        assertThat(instance.trySplit(), isNull());
+    }
+
+    @Test
+    void trySplitHandlesFullKeyRange() throws Exception {
+        final var instance = givenScan(Long.MIN_VALUE, Long.MAX_VALUE, 2, new CopyOnWriteArrayList<>());
+
+        assertThat(instance.estimateSize(), isEqualTo(Long.MAX_VALUE));
+
+        final var prefix = (PartitionedScan<Long>) instance.trySplit();
+
+        assertThat(prefix.from(), isEqualTo(Long.MIN_VALUE));
+        assertThat(prefix.to(), isEqualTo(-1L));
+        assertThat(prefix.estimateSize(), isEqualTo(Long.MAX_VALUE));
+        assertThat(instance.from(), isEqualTo(-1L));
+        assertThat(instance.estimateSize(), isEqualTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    void trySplitFailsAfterReadingStarted() throws Exception {
+        final var instance = givenScan(0, 100, 4, new CopyOnWriteArrayList<>());
+
+        instance.tryAdvance(element -> {});
+
+        assertThat(instance.trySplit(), isNull());
+    }
+
+    @Test
+    void streamPartitionedReadsEveryPartitionWithItsOwnConnection() throws Exception {
+        final var connections = new CopyOnWriteArrayList<Connection>();
+
+        final List<Long> actual;
+        try (final var stream = JdbcUtils.streamPartitioned(() -> givenConnection(connections), SQL, null, 0, 1000, 8, StreamingOptions.defaults(), row -> row.getLong(1))) {
+            actual = stream.collect(toList());
+        }
+
+        assertThat(actual, isEqualTo(LongStream.range(0, 1000).boxed().collect(toList())));
+        // How often the stream splits depends on the parallelism of the common pool.
+        assertThat(connections.size(), isGreaterThan(1));
+        assertThat(connections.size(), isLessThanOrEqualTo(8));
+        for (final var connection : connections) {
+            verify(connection, times(1)).close();
+        }
+    }
+
+    @Test
+    void closeClosesOpenPartitions() throws Exception {
+        final var connections = new CopyOnWriteArrayList<Connection>();
+        final var instance = givenScan(0, 100, 2, connections);
+        final var prefix = instance.trySplit();
+
+        prefix.tryAdvance(element -> {});
+        instance.tryAdvance(element -> {});
+        assertThat(connections.size(), isEqualTo(2));
+
+        instance.close();
+
+        for (final var connection : connections) {
+            verify(connection, times(1)).close();
+        }
+        assertThat(prefix.tryAdvance(element -> {}), isEqualTo(false));
+    }
+
+    @Test
+    void constructorFailsOnInvalidArguments() {
+        assertThat(() -> givenScan(0, 100, 0, new CopyOnWriteArrayList<>()), throwsException(IllegalArgumentException.class));
+        assertThat(() -> givenScan(100, 0, 1, new CopyOnWriteArrayList<>()), throwsException(IllegalArgumentException.class));
+    }
+
+    static PartitionedScan<Long> givenScan(long from, long to, int partitions, List<Connection> connections) {
+        return new PartitionedScan<>(() -> givenConnection(connections), SQL, null, from, to, partitions, key -> key, StreamingOptions.defaults(), row -> row.getLong(1));
+    }
+
+    /**
+     * Simulates a table with one row for every key.
+     */
+    static Connection givenConnection(List<Connection> connections) throws SQLException {
+        final var connection = mock(Connection.class);
+        final var statement = mock(PreparedStatement.class);
+        final var from = new AtomicLong();
+        final var to = new AtomicLong();
+        doReturn(statement).when(connection).prepareStatement(eq(SQL), anyInt(), anyInt());
+        doAnswer(invocation -> {
+            from.set(invocation.getArgument(1));
+            return null;
+        }).when(statement).setObject(eq(1), any());
+        doAnswer(invocation -> {
+            to.set(invocation.getArgument(1));
+            return null;
+        }).when(statement).setObject(eq(2), any());
+        doAnswer(execute -> {
+            final var current = new AtomicLong(from.get() - 1);
+            final var resultSet = mock(ResultSet.class);
+            doAnswer(next -> current.incrementAndGet() < to.get()).when(resultSet).next();
+            doAnswer(get -> current.get()).when(resultSet).getLong(1);
+            return resultSet;
+        }).when(statement).executeQuery();
+        connections.add(connection);
+        return connection;
+    }
+
+}
@@ -0,0 +1,148 @@
+package org.echocat.jsu;
+
+import static java.util.Spliterator.ORDERED;
+import static java.util.stream.Collectors.toList;
+import static org.echocat.jsu.support.Threads.threadFactory;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class PrefetchUnitTest {
+
+    @Test
+    void simple() {
+        final var source = LongStream.range(0, 10000).boxed().collect(toList());
+        try (final var actual = new Prefetch<>(source.spliterator(), 10, threadFactory("test-"))) {
+            assertThat(asList(actual), isEqualTo(source));
+        }
+    }
+
+    @Test
+    void handlesNullElements() {
+        final var source = Arrays.asList(1L, null, 3L);
+        try (final var actual = new Prefetch<>(source.spliterator(), 1, threadFactory("test-"))) {
+            assertThat(asList(actual), isEqualTo(source));
+        }
+    }
+
+    @Test
+    void readsAheadOfTheConsumer() throws Exception {
+        final var produced = new AtomicLong();
+        final var source = new AbstractSpliterator<Long>(Long.MAX_VALUE, ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Long> action) {
+                action.accept(produced.getAndIncrement());
+                return true;
+            }
+        };
+        try (final var actual = new Prefetch<>(source, 5, threadFactory("test-"))) {
+            assertThat(actual.tryAdvance(element -> {}), isEqualTo(true));
+            // 1 consumed + 5 in the queue + 1 waiting to be put into the queue.
+            waitUntil(() -> produced.get() == 7);
+            Thread.sleep(50);
+            assertThat(produced.get(), isEqualTo(7L));
+        }
+    }
+
+    @Test
+    void propagatesExceptionsAfterPreviousElements() {
+        final var source = new AbstractSpliterator<Long>(Long.MAX_VALUE, ORDERED) {
+            private long serial;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Long> action) {
+                if (serial >= 3) {
+                    throw new IllegalStateException("test");
+                }
+                action.accept(serial++);
+                return true;
+            }
+        };
+        try (final var actual = new Prefetch<>(source, 10, threadFactory("test-"))) {
+            final var consumed = new ArrayList<Long>();
+            assertThat(() -> {
+                //noinspection StatementWithEmptyBody
+                while (actual.tryAdvance(consumed::add)) {}
+            }, throwsException(IllegalStateException.class, "test"));
+            assertThat(consumed, isEqualTo(List.of(0L, 1L, 2L)));
+        }
+    }
+
+    @Test
+    void closeStopsTheProducer() throws Exception {
+        final var stopped = new CountDownLatch(1);
+        final ThreadFactory threadFactory = runnable -> new Thread(() -> {
+            try {
+                runnable.run();
+            } finally {
+                stopped.countDown();
+            }
+        });
+        final var source = new AbstractSpliterator<Long>(Long.MAX_VALUE, ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Long> action) {
+                action.accept(1L);
+                return true;
+            }
+        };
+        final var actual = new Prefetch<>(source, 1, threadFactory);
+        assertThat(actual.tryAdvance(element -> {}), isEqualTo(true));
+
+        actual.close();
+
+        stopped.await();
+        assertThat(actual.tryAdvance(element -> {}), isEqualTo(false));
+    }
+
+    @Test
+    void rejectsNonPositiveDepth() {
+        //noinspection unchecked
+        assertThat(() -> new Prefetch<>(mock(Spliterator.class), 0, threadFactory("test-")), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void constructor() {
+        //noinspection unchecked
+        final Spliterator<Long> source = mock(Spliterator.class);
+        final ThreadFactory threadFactory = Thread::new;
+
+        final var actual = new Prefetch<>(source, 10, threadFactory);
+
+        assertThat(actual.source(), isSameAs(source));
+        assertThat(actual.depth(), isEqualTo(10));
+        assertThat(actual.threadFactory(), isSameAs(threadFactory));
+    }
+
+    protected static void waitUntil(@Nonnull BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            //noinspection BusyWait
+            Thread.sleep(1);
+        }
+    }
+
+    @Nonnull
+    protected static <T> List<T> asList(@Nonnull Spliterator<T> source) {
+        final var result = new ArrayList<T>();
+        //noinspection StatementWithEmptyBody
+        while (source.tryAdvance(result::add)) {}
+        return result;
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.HasSize.hasSize;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class RecyclingBatchUnitTest {
+
+    @Test
+    void simple() {
+        final var source = givenListWithNLongs(1005);
+        final var actual = new RecyclingBatch<>(source.spliterator(), () -> 10, new BatchPool<>(2));
+
+        final var actualList = new ArrayList<List<Long>>();
+        //noinspection StatementWithEmptyBody
+        while (actual.tryAdvance(batch -> {
+            try (batch) {
+                actualList.add(new ArrayList<>(batch));
+            }
+        })) {}
+
+        assertThat(actualList, hasSize(101));
+        assertThat(actualList.get(100), hasSize(5));
+        assertThat(actualList.stream().flatMap(List::stream).collect(toList()), isEqualTo(source));
+    }
+
+    @Test
+    void reusesClosedBatches() {
+        final var source = givenListWithNLongs(1000);
+        final var pool = new BatchPool<Long>(1);
+        final var actual = new RecyclingBatch<>(source.spliterator(), () -> 10, pool);
+
+        final var seen = Collections.newSetFromMap(new IdentityHashMap<RecyclableBatch<Long>, Boolean>());
+        //noinspection StatementWithEmptyBody
+        while (actual.tryAdvance(batch -> {
+            try (batch) {
+                seen.add(batch);
+            }
+        })) {}
+
+        assertThat(seen, hasSize(1));
+        assertThat(pool.idle(), isEqualTo(1));
+    }
+
+    @Test
+    void doesNotReuseBatchesWhichAreNotClosed() {
+        final var source = givenListWithNLongs(100);
+        final var actual = new RecyclingBatch<>(source.spliterator(), () -> 10, new BatchPool<>(1));
+
+        final var seen = Collections.newSetFromMap(new IdentityHashMap<RecyclableBatch<Long>, Boolean>());
+        //noinspection StatementWithEmptyBody
+        while (actual.tryAdvance(seen::add)) {}
+
+        assertThat(seen, hasSize(10));
+    }
+
+    @Test
+    void closedBatchIsClearedAndClosingTwiceReleasesOnlyOnce() {
+        final var pool = new BatchPool<Long>(2);
+        final var batch = pool.acquire(10);
+        batch.add(1L);
+        batch.add(2L);
+
+        batch.close();
+        batch.close();
+
+        assertThat(batch, hasSize(0));
+        assertThat(pool.idle(), isEqualTo(1));
+        assertThat(pool.acquire(10), isSameAs(batch));
+    }
+
+    @Test
+    void batchGrowsBeyondInitialCapacity() {
+        final var batch = new BatchPool<Long>(1).acquire(1);
+        batch.add(1L);
+        batch.add(2L);
+        batch.add(3L);
+
+        assertThat(batch, isEqualTo(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void estimateSizeCountsBatches() {
+        final var source = givenListWithNLongs(1005);
+
+        assertThat(new RecyclingBatch<>(source.spliterator(), 10, new BatchPool<>(1)).estimateSize(), isEqualTo(101L));
+        assertThat(new RecyclingBatch<>(source.spliterator(), () -> 10, new BatchPool<>(1)).estimateSize(), isEqualTo(1005L));
+    }
+
+    @Test
+    void constructor() {
+        //noinspection unchecked
+        final Spliterator<Long> source = mock(Spliterator.class);
+        final Supplier<Integer> batchSizeSupplier = () -> 10;
+        final var pool = new BatchPool<Long>(1);
+
+        final var instance = new RecyclingBatch<>(source, batchSizeSupplier, pool);
+
+        assertThat(instance.source(), isSameAs(source));
+        assertThat(instance.batchSize(), isSameAs(batchSizeSupplier));
+        assertThat(instance.pool(), isSameAs(pool));
+    }
+
+    @Nonnull
+    protected static List<Long> givenListWithNLongs(@Nonnegative int count) {
+        final var serial = new AtomicLong();
+        return Stream.generate(serial::getAndIncrement)
+            .limit(count)
+            .collect(toList());
+    }
+
+}
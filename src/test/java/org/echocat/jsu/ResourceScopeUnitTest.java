@@ -0,0 +1,168 @@
+package org.echocat.jsu;
+
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameInstance;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.echocat.jsu.support.Threads;
+import org.echocat.jsu.support.UncheckedSqlException;
+import org.junit.jupiter.api.Test;
+
+public class ResourceScopeUnitTest {
+
+    @Test
+    void closeClosesInReverseOrder() {
+        final var closed = new ArrayList<String>();
+
+        try (final var scope = new ResourceScope()) {
+            scope.register(() -> closed.add("a"));
+            scope.onClose(() -> closed.add("b"));
+            scope.register(() -> closed.add("c"));
+        }
+
+        assertThat(closed, isEqualTo(List.of("c", "b", "a")));
+    }
+
+    @Test
+    void closeClosesBoundStreams() {
+        final var closed = new ArrayList<String>();
+        final var scope = new ResourceScope();
+
+        final var stream = Stream.of(1, 2, 3).onClose(() -> closed.add("stream"));
+        assertThat(scope.register(stream), isSameInstance(stream));
+        assertThat(stream.mapToInt(Integer::intValue).sum(), isEqualTo(6));
+        assertThat(closed, isEqualTo(List.of()));
+
+        scope.close();
+        assertThat(closed, isEqualTo(List.of("stream")));
+    }
+
+    @Test
+    void closeAggregatesFailures() throws Exception {
+        final var scope = new ResourceScope();
+        final var first = mock(AutoCloseable.class);
+        final var second = mock(AutoCloseable.class);
+        final var third = mock(AutoCloseable.class);
+        doThrow(new IllegalStateException("first")).when(first).close();
+        doThrow(new SQLException("third")).when(third).close();
+        scope.register(first);
+        scope.register(second);
+        scope.register(third);
+
+        try {
+            scope.close();
+            throw new AssertionError("Exception expected.");
+        } catch (final UncheckedSqlException e) {
+            assertThat(e.getCause().getMessage(), isEqualTo("third"));
+            assertThat(e.getCause().getSuppressed().length, isEqualTo(1));
+            assertThat(e.getCause().getSuppressed()[0].getMessage(), isEqualTo("first"));
+        }
+        verify(first, times(1)).close();
+        verify(second, times(1)).close();
+        verify(third, times(1)).close();
+    }
+
+    @Test
+    void closeIsIdempotent() throws Exception {
+        final var scope = new ResourceScope();
+        final var resource = scope.register(mock(AutoCloseable.class));
+
+        scope.close();
+        scope.close();
+
+        assertThat(scope.isClosed(), isEqualTo(true));
+        verify(resource, times(1)).close();
+    }
+
+    @Test
+    void registerOnClosedScopeClosesResource() throws Exception {
+        final var scope = new ResourceScope();
+        scope.close();
+        final var resource = mock(AutoCloseable.class);
+
+        assertThat(() -> scope.register(resource), throwsException(IllegalStateException.class, "The scope is already closed."));
+        verify(resource, times(1)).close();
+    }
+
+    @Test
+    void registerAsyncWithoutExecutorClosesSynchronously() throws Exception {
+        final var scope = new ResourceScope();
+        final var resource = scope.registerAsync(mock(AutoCloseable.class));
+
+        scope.close();
+
+        verify(resource, times(1)).close();
+        assertThat(scope.asyncClosed().isDone(), isEqualTo(true));
+    }
+
+    @Test
+    void registerAsyncClosesInBackground() throws Exception {
+        final var closedBy = new ArrayList<String>();
+        final var scope = new ResourceScope(Threads.executor("close-"), Duration.ofSeconds(10));
+        scope.registerAsync(() -> closedBy.add(Thread.currentThread().getName()));
+        scope.register(() -> closedBy.add("sync"));
+
+        scope.close();
+
+        assertThat(closedBy.size(), isEqualTo(2));
+        assertThat(closedBy.get(0), isEqualTo("sync"));
+        assertThat(closedBy.get(1).startsWith("close-"), isEqualTo(true));
+    }
+
+    @Test
+    void registerAsyncKeepsReverseOrder() {
+        final var closed = new ArrayList<String>();
+        final var scope = new ResourceScope(Threads.executor("close-"), Duration.ofSeconds(10));
+        scope.register(() -> closed.add("connection"));
+        scope.registerAsync(() -> {
+            Thread.sleep(50);
+            closed.add("stream");
+        });
+        scope.registerAsync(() -> closed.add("resultSet"));
+
+        scope.close();
+
+        assertThat(closed, isEqualTo(List.of("resultSet", "stream", "connection")));
+    }
+
+    @Test
+    void registerAsyncPassesFailuresWithinTimeout() {
+        final var scope = new ResourceScope(Threads.executor("close-"), Duration.ofSeconds(10));
+        scope.registerAsync(() -> {
+            throw new IOException("async");
+        });
+
+        assertThat(scope::close, throwsException(UncheckedIOException.class));
+    }
+
+    @Test
+    void registerAsyncDoesNotWaitLongerThanTimeout() throws Exception {
+        final var release = new CountDownLatch(1);
+        final var scope = new ResourceScope(Threads.executor("close-"), Duration.ofMillis(10));
+        scope.registerAsync(() -> release.await(10, TimeUnit.SECONDS));
+
+        scope.close();
+
+        assertThat(scope.asyncClosed().isDone(), isEqualTo(false));
+        release.countDown();
+        scope.asyncClosed().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void constructorRejectsNegativeTimeout() {
+        assertThat(() -> new ResourceScope(null, Duration.ofMillis(-1)), throwsException(IllegalArgumentException.class));
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.jsu.support.Threads.threadFactory;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.echocat.jsu.support.UncheckedSqlException;
+import org.junit.jupiter.api.Test;
+
+public class ResultSetPrefetchUnitTest {
+
+    @Test
+    void readsAllRows() throws Exception {
+        final var row = new AtomicInteger();
+        final var resultSet = mock(ResultSet.class);
+        doAnswer(invocation -> row.incrementAndGet() <= 100).when(resultSet).next();
+        doAnswer(invocation -> row.get()).when(resultSet).getInt(1);
+
+        try (final var stream = JdbcUtils.toPrefetchingStream(resultSet, current -> current.getInt(1), 10)) {
+            assertThat(stream.collect(toList()), isEqualTo(IntStream.rangeClosed(1, 100).boxed().collect(toList())));
+        }
+
+        verify(resultSet, times(1)).close();
+    }
+
+    @Test
+    void propagatesSqlException() throws Exception {
+        final var row = new AtomicInteger();
+        final var resultSet = mock(ResultSet.class);
+        doAnswer(invocation -> {
+            if (row.incrementAndGet() <= 2) {
+                return true;
+            }
+            throw new SQLException("test");
+        }).when(resultSet).next();
+
+        try (final var stream = JdbcUtils.toPrefetchingStream(resultSet, current -> row.get(), 10)) {
+            assertThat(() -> stream.collect(toList()), throwsException(UncheckedSqlException.class, SQLException.class.getName() + ": test"));
+        }
+    }
+
+    @Test
+    void closeCancelsBlockingFetch() throws Exception {
+        final var fetching = new CountDownLatch(1);
+        final var cancelled = new CountDownLatch(1);
+        final var row = new AtomicInteger();
+        final var statement = mock(Statement.class);
+        final var resultSet = mock(ResultSet.class);
+        doReturn(statement).when(resultSet).getStatement();
+        doAnswer(invocation -> {
+            if (row.incrementAndGet() == 1) {
+                return true;
+            }
+            fetching.countDown();
+            if (!cancelled.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Statement was not cancelled.");
+            }
+            throw new SQLException("cancelled");
+        }).when(resultSet).next();
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(statement).cancel();
+
+        final var instance = new ResultSetPrefetch<>(resultSet, current -> row.get(), 1, threadFactory("test-"));
+        assertThat(instance.tryAdvance(element -> {}), isEqualTo(true));
+        assertThat(fetching.await(10, TimeUnit.SECONDS), isEqualTo(true));
+
+        instance.close();
+
+        verify(statement, times(1)).cancel();
+        verify(resultSet, times(1)).close();
+        assertThat(instance.producer().isAlive(), isEqualTo(false));
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.echocat.jsu;
+
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.stream.IntStream;
+
+import org.echocat.jsu.support.UncheckedSqlException;
+import org.junit.jupiter.api.Test;
+
+public class RowMappersUnitTest {
+
+    @Test
+    void constructor() {
+        new RowMappers();
+    }
+
+    @Test
+    void forConstructorReadsColumnsByIndex() throws Exception {
+        final var resultSet = givenResultSet("ID", "first_name", "SCORE");
+        doReturn(66L).when(resultSet).getLong(1);
+        doReturn("foo").when(resultSet).getString(2);
+        doReturn(1.5D).when(resultSet).getDouble(3);
+
+        final var mapper = RowMappers.forConstructor(Row.class, "id", "firstName", "score");
+        final var actual = mapper.apply(resultSet);
+
+        assertThat(actual.id, isEqualTo(66L));
+        assertThat(actual.firstName, isEqualTo("foo"));
+        assertThat(actual.score, isEqualTo(1.5D));
+        verify(resultSet, never()).getLong("id");
+    }
+
+    @Test
+    void forConstructorReturnsNullForNullBoxedColumns() throws Exception {
+        final var resultSet = givenResultSet("ID", "FIRST_NAME", "SCORE");
+        doReturn(0D).when(resultSet).getDouble(3);
+        doReturn(true).when(resultSet).wasNull();
+
+        final var actual = RowMappers.forConstructor(Row.class, "id", "firstName", "score").apply(resultSet);
+
+        assertThat(actual.score, isNull());
+    }
+
+    @Test
+    void forConstructorResolvesMetaDataOncePerResultSet() throws Exception {
+        final var resultSet = givenResultSet("ID", "FIRST_NAME", "SCORE");
+        final var mapper = RowMappers.forConstructor(Row.class, "id", "firstName", "score");
+
+        mapper.apply(resultSet);
+        mapper.apply(resultSet);
+        mapper.apply(resultSet);
+        verify(resultSet, times(1)).getMetaData();
+
+        final var other = givenResultSet("SCORE", "ID", "FIRST_NAME");
+        doReturn(77L).when(other).getLong(2);
+        assertThat(mapper.apply(other).id, isEqualTo(77L));
+        verify(other, times(1)).getMetaData();
+    }
+
+    @Test
+    void forConstructorCouldBeSharedByConcurrentResultSets() throws Exception {
+        final var first = givenResultSet("ID", "FIRST_NAME", "SCORE");
+        doReturn(1L).when(first).getLong(1);
+        final var second = givenResultSet("SCORE", "ID", "FIRST_NAME");
+        doReturn(2L).when(second).getLong(2);
+        final var mapper = RowMappers.forConstructor(Row.class, "id", "firstName", "score");
+
+        final var mismatches = IntStream.range(0, 10_000).parallel()
+            .filter(i -> {
+                try {
+                    return mapper.apply(i % 2 == 0 ? first : second).id != (i % 2 == 0 ? 1L : 2L);
+                } catch (final SQLException e) {
+                    throw new UncheckedSqlException(e);
+                }
+            })
+            .count();
+
+        assertThat(mismatches, isEqualTo(0L));
+        verify(first, times(1)).getMetaData();
+        verify(second, times(1)).getMetaData();
+    }
+
+    @Test
+    void forConstructorFailsOnMissingColumn() throws Exception {
+        final var resultSet = givenResultSet("ID", "FIRST_NAME");
+
+        final var mapper = RowMappers.forConstructor(Row.class, "id", "firstName", "score");
+
+        assertThat(() -> mapper.apply(resultSet), throwsException(SQLException.class, "There is no column score\\."));
+    }
+
+    @Test
+    void forConstructorFailsOnWrongNumberOfColumns() {
+        assertThat(() -> RowMappers.forConstructor(Row.class, "id"), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void forConstructorFailsOnAmbiguousConstructors() {
+        assertThat(() -> RowMappers.forConstructor(OverloadedRow.class, "id"), throwsException(IllegalArgumentException.class, "There is more than one public constructor of .*"));
+    }
+
+    @Test
+    void forConstructorWithConstructorChoosesAmongOverloads() throws Exception {
+        final var resultSet = givenResultSet("ID");
+        doReturn(66L).when(resultSet).getLong(1);
+
+        final var actual = RowMappers.forConstructor(OverloadedRow.class.getConstructor(long.class), "id").apply(resultSet);
+
+        assertThat(actual.id, isEqualTo(66L));
+    }
+
+    @Test
+    void forRecordFailsOnNonRecord() {
+        assertThat(() -> RowMappers.forRecord(Row.class), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void resolving() throws Exception {
+        final var resultSet = givenResultSet("A", "B");
+        doReturn(2).when(resultSet).getInt(2);
+
+        final var actual = RowMappers.<Integer>resolving(columns -> {
+            final var b = columns.indexOf("b");
+            return current -> current.getInt(b) * columns.size();
+        }).apply(resultSet);
+
+        assertThat(actual, isEqualTo(4));
+    }
+
+    @Test
+    void columnsPreferFirstOfDuplicateLabels() throws Exception {
+        final var metaData = givenMetaData("ID", "id");
+
+        final var actual = new RowMappers.Columns(metaData);
+
+        assertThat(actual.indexOf("Id"), isEqualTo(1));
+    }
+
+    @Test
+    void columnsFailOnLabelsWhichOnlyDifferByUnderscore() throws Exception {
+        final var metaData = givenMetaData("a_b", "AB", "c");
+
+        final var actual = new RowMappers.Columns(metaData);
+
+        assertThat(() -> actual.indexOf("ab"), throwsException(SQLException.class, "The column ab is ambiguous between a_b and AB\\."));
+        assertThat(() -> actual.indexOf("a_b"), throwsException(SQLException.class));
+        assertThat(actual.indexOf("C"), isEqualTo(3));
+    }
+
+    static ResultSet givenResultSet(String... labels) throws SQLException {
+        final var resultSet = mock(ResultSet.class);
+        final var metaData = givenMetaData(labels);
+        doReturn(metaData).when(resultSet).getMetaData();
+        return resultSet;
+    }
+
+    static ResultSetMetaData givenMetaData(String... labels) throws SQLException {
+        final var metaData = mock(ResultSetMetaData.class);
+        doReturn(labels.length).when(metaData).getColumnCount();
+        for (int i = 0; i < labels.length; i++) {
+            doReturn(labels[i]).when(metaData).getColumnLabel(i + 1);
+        }
+        return metaData;
+    }
+
+    public static class Row {
+
+        final long id;
+        final String firstName;
+        final Double score;
+
+        public Row(long id, String firstName, Double score) {
+            this.id = id;
+            this.firstName = firstName;
+            this.score = score;
+        }
+
+    }
+
+    public static class OverloadedRow {
+
+        final long id;
+
+        public OverloadedRow(long id) {
+            this.id = id;
+        }
+
+        public OverloadedRow(String id) {
+            this(Long.parseLong(id));
+        }
+
+    }
+
+}
@@ -57,6 +57,21 @@ public class SpliteratorUtilsUnitTest {
         assertThat(((Batch<Long>) actual).batchSize().get(), isEqualTo(batchSize));
     }
 
+    @Test
+    void batchWithPool() {
+        //noinspection unchecked
+        final Spliterator<Long> source = mock(Spliterator.class);
+        final var pool = new BatchPool<Long>(1);
+
+        final var actual = SpliteratorUtils.batch(source, 10, pool);
+
+        assertThat(actual, isInstanceOf(RecyclingBatch.class));
+
+        assertThat(((RecyclingBatch<Long>) actual).source(), isSameAs(source));
+        assertThat(((RecyclingBatch<Long>) actual).batchSize().get(), isEqualTo(10));
+        assertThat(((RecyclingBatch<Long>) actual).pool(), isSameAs(pool));
+    }
+
     @Test
     void generate() {
         final Generator<Integer> generator = Optional::empty;
@@ -68,6 +83,29 @@ public class SpliteratorUtilsUnitTest {
         assertThat(((ContinuingSupplier<Integer>) actual).generator(), isSameAs(generator));
     }
 
+    @Test
+    void generateBulk() {
+        final BulkGenerator<Integer> generator = (sink, max) -> BulkGenerator.END;
+
+        final var actual = SpliteratorUtils.generateBulk(generator, 66);
+
+        assertThat(actual, isInstanceOf(BulkContinuingSupplier.class));
+
+        assertThat(((BulkContinuingSupplier<Integer>) actual).generator(), isSameAs(generator));
+        assertThat(((BulkContinuingSupplier<Integer>) actual).chunkSize(), isEqualTo(66));
+    }
+
+    @Test
+    void generateLong() {
+        final LongGenerator generator = target -> false;
+
+        final var actual = SpliteratorUtils.generateLong(generator);
+
+        assertThat(actual, isInstanceOf(ContinuingSupplier.OfLong.class));
+
+        assertThat(((ContinuingSupplier.OfLong) actual).generator(), isSameAs(generator));
+    }
+
     @Test
     public void constructor() {
         //noinspection InstantiationOfUtilityClass
@@ -0,0 +1,91 @@
+package org.echocat.jsu;
+
+import static java.util.Arrays.asList;
+import static org.echocat.jsu.SplittableGenerator.ofShards;
+import static org.echocat.jsu.SplittableGenerator.range;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class SplittableGeneratorUnitTest {
+
+    @Test
+    void rangeGeneratesAllValues() {
+        final var actual = range(3, 7);
+
+        assertThat(actual.estimateSize(), isEqualTo(4L));
+        assertThat(drain(actual), isEqualTo(asList(3L, 4L, 5L, 6L)));
+        assertThat(actual.estimateSize(), isEqualTo(0L));
+    }
+
+    @Test
+    void rangeSplitHandsOverFirstHalf() {
+        final var actual = range(0, 10);
+
+        final var fork = actual.trySplit();
+
+        assertThat(fork.estimateSize(), isEqualTo(5L));
+        assertThat(actual.estimateSize(), isEqualTo(5L));
+        assertThat(drain(fork), isEqualTo(asList(0L, 1L, 2L, 3L, 4L)));
+        assertThat(drain(actual), isEqualTo(asList(5L, 6L, 7L, 8L, 9L)));
+    }
+
+    @Test
+    void rangeDoesNotSplitSingleValue() {
+        assertThat(range(0, 1).trySplit(), isNull());
+        assertThat(range(0, 0).trySplit(), isNull());
+    }
+
+    @Test
+    void rangeRejectsInvertedBounds() {
+        assertThat(() -> range(1, 0), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void ofShardsGeneratesShardsOneAfterAnother() {
+        final var actual = ofShards(asList(shardOf(1, 2), shardOf(), shardOf(3)));
+
+        assertThat(drain(actual), isEqualTo(asList(1, 2, 3)));
+    }
+
+    @Test
+    void ofShardsSplitHandsOverFirstHalf() {
+        final var actual = ofShards(asList(shardOf(1, 2), shardOf(3), shardOf(4, 5), shardOf(6)));
+
+        final var fork = actual.trySplit();
+
+        assertThat(drain(fork), isEqualTo(asList(1, 2, 3)));
+        assertThat(drain(actual), isEqualTo(asList(4, 5, 6)));
+        assertThat(actual.estimateSize(), isEqualTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    void ofShardsDoesNotSplitSingleShard() {
+        assertThat(ofShards(asList(shardOf(1, 2))).trySplit(), isNull());
+    }
+
+    @Nonnull
+    private static <T> List<T> drain(@Nonnull Generator<T> generator) {
+        final var result = new ArrayList<T>();
+        for (var next = generator.generate(); next.isPresent(); next = generator.generate()) {
+            result.add(next.get());
+        }
+        return result;
+    }
+
+    @SafeVarargs
+    @Nonnull
+    private static <T> Generator<T> shardOf(@Nonnull T... elements) {
+        final var iterator = asList(elements).iterator();
+        return () -> iterator.hasNext() ? Optional.of(iterator.next()) : Optional.empty();
+    }
+
+}
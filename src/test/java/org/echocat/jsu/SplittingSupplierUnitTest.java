@@ -0,0 +1,51 @@
+package org.echocat.jsu;
+
+import static java.util.Spliterator.ORDERED;
+import static java.util.stream.Collectors.toList;
+import static org.echocat.jsu.SplittableGenerator.range;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+public class SplittingSupplierUnitTest {
+
+    @Test
+    void parallelStreamKeepsOrder() {
+        final var actual = StreamSupport.stream(SpliteratorUtils.generate(range(0, 100_000)), true).collect(toList());
+
+        assertThat(actual, isEqualTo(LongStream.range(0, 100_000).boxed().collect(toList())));
+    }
+
+    @Test
+    void trySplitForksGenerator() {
+        final var actual = SpliteratorUtils.generate(range(0, 10));
+
+        final var prefix = actual.trySplit();
+
+        assertThat(prefix.estimateSize(), isEqualTo(5L));
+        assertThat(actual.estimateSize(), isEqualTo(5L));
+        assertThat(prefix.characteristics() & ORDERED, isEqualTo(ORDERED));
+        assertThat(StreamSupport.stream(prefix, false).collect(toList()), isEqualTo(LongStream.range(0, 5).boxed().collect(toList())));
+    }
+
+    @Test
+    void trySplitReturnsNullIfGeneratorCouldNotBeSplit() {
+        assertThat(SpliteratorUtils.generate(range(0, 1)).trySplit(), isNull());
+    }
+
+    @Test
+    void constructor() {
+        final var generator = range(0, 1);
+
+        final var actual = new SplittingSupplier<>(generator);
+
+        assertThat(actual.generator(), isSameAs(generator));
+    }
+
+}
@@ -0,0 +1,180 @@
+package org.echocat.jsu;
+
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class StreamMetricsUnitTest {
+
+    @Test
+    void disabledInstrumentationReturnsOriginals() {
+        final var stream = Stream.of(1);
+        final Generator<Integer> generator = Optional::empty;
+
+        assertThat(StreamMetrics.installed(), isEqualTo(null));
+        assertThat(StreamMetrics.stage(StreamMetrics.GENERATE), isEqualTo(null));
+        assertThat(StreamMetrics.instrument(stream, "test"), isSameInstance(stream));
+        assertThat(StreamMetrics.timed(generator, "test"), isSameInstance(generator));
+    }
+
+    @Test
+    void instrumentCountsElementsAndLifetime() {
+        withInstalled(metrics -> {
+            try (final var stream = StreamMetrics.instrument(IntStream.range(0, 5000).boxed(), "test")) {
+                assertThat(stream.collect(Collectors.toList()).size(), isEqualTo(5000));
+            }
+            final var stage = metrics.findStage("test").orElseThrow();
+            assertThat(stage.getElements(), isEqualTo(5000L));
+            assertThat(stage.getOpened(), isEqualTo(1L));
+            assertThat(stage.getClosed(), isEqualTo(1L));
+            assertThat(stage.lifetime().count(), isEqualTo(1L));
+        });
+    }
+
+    @Test
+    void instrumentCountsElementsOfPartiallyConsumedStreams() {
+        withInstalled(metrics -> {
+            try (final var stream = StreamMetrics.instrument(Stream.iterate(0, i -> i + 1), "test")) {
+                assertThat(stream.limit(3).collect(Collectors.toList()), isEqualTo(List.of(0, 1, 2)));
+            }
+            assertThat(metrics.findStage("test").orElseThrow().getElements(), isEqualTo(3L));
+        });
+    }
+
+    @Test
+    void generateRecordsLatency() {
+        withInstalled(metrics -> {
+            final var remaining = new AtomicInteger(10);
+            try (final var stream = StreamUtils.generate(() -> remaining.getAndDecrement() > 0 ? Optional.of(1) : Optional.empty())) {
+                assertThat(stream.count(), isEqualTo(10L));
+            }
+            final var stage = metrics.findStage(StreamMetrics.GENERATE).orElseThrow();
+            assertThat(stage.getElements(), isEqualTo(10L));
+            assertThat(stage.getLatencyCount(), isEqualTo(11L));
+            assertThat(stage.getClosed(), isEqualTo(1L));
+        });
+    }
+
+    @Test
+    void generateSplittableRecordsLatencyOfEveryFork() {
+        withInstalled(metrics -> {
+            try (final var stream = StreamUtils.generate(SplittableGenerator.range(0, 1000), true)) {
+                assertThat(stream.count(), isEqualTo(1000L));
+            }
+            final var stage = metrics.findStage(StreamMetrics.GENERATE).orElseThrow();
+            assertThat(stage.getElements(), isEqualTo(1000L));
+            // Every fork ends with one empty call.
+            assertThat(stage.getLatencyCount() > 1000L, isEqualTo(true));
+        });
+    }
+
+    @Test
+    void generateBulkRecordsLatency() {
+        withInstalled(metrics -> {
+            final var remaining = new AtomicInteger(10);
+            try (final var stream = StreamUtils.generateBulk(BulkGenerator.of(() -> remaining.getAndDecrement() > 0 ? Optional.of(1) : Optional.empty()))) {
+                assertThat(stream.count(), isEqualTo(10L));
+            }
+            final var stage = metrics.findStage(StreamMetrics.GENERATE).orElseThrow();
+            assertThat(stage.getElements(), isEqualTo(10L));
+            assertThat(stage.getLatencyCount() > 0, isEqualTo(true));
+            assertThat(stage.getClosed(), isEqualTo(1L));
+        });
+    }
+
+    @Test
+    void resultSetRecordsLatency() throws Exception {
+        final var resultSet = ColumnVectorsUnitTest.givenResultSet(7);
+        withInstalled(metrics -> {
+            try (final var stream = JdbcUtils.toStream(resultSet)) {
+                assertThat(stream.count(), isEqualTo(7L));
+            }
+            final var stage = metrics.findStage(StreamMetrics.RESULT_SET).orElseThrow();
+            assertThat(stage.getElements(), isEqualTo(7L));
+            assertThat(stage.getLatencyCount(), isEqualTo(8L));
+        });
+    }
+
+    @Test
+    void prefetchingResultSetRecordsOpenAndClose() throws Exception {
+        final var resultSet = ColumnVectorsUnitTest.givenResultSet(7);
+        withInstalled(metrics -> {
+            try (final var stream = JdbcUtils.toPrefetchingStream(resultSet, row -> row.getLong(1), 2)) {
+                assertThat(stream.count(), isEqualTo(7L));
+            }
+            final var stage = metrics.findStage(StreamMetrics.RESULT_SET).orElseThrow();
+            assertThat(stage.getElements(), isEqualTo(7L));
+            assertThat(stage.getOpened(), isEqualTo(1L));
+            assertThat(stage.getClosed(), isEqualTo(1L));
+            assertThat(stage.lifetime().count(), isEqualTo(1L));
+        });
+    }
+
+    @Test
+    void batchRecordsSizesAndFillRatio() {
+        withInstalled(metrics -> {
+            try (final var stream = StreamUtils.batch(IntStream.range(0, 25).boxed(), 10)) {
+                assertThat(stream.collect(Collectors.toList()).size(), isEqualTo(3));
+            }
+            final var stage = metrics.findStage(StreamMetrics.BATCH).orElseThrow();
+            assertThat(stage.getBatches(), isEqualTo(3L));
+            assertThat(stage.batchSizes().sum(), isEqualTo(25L));
+            assertThat(stage.getBatchFillRatio(), isEqualTo(25d / 30d));
+        });
+    }
+
+    @Test
+    void listenersAreNotifiedOncePerStage() {
+        final var stages = new ArrayList<String>();
+        final var metrics = new StreamMetrics(stage -> stages.add(stage.getName()));
+
+        metrics.stageOf("a");
+        metrics.stageOf("a");
+        metrics.stageOf("b");
+        assertThat(stages, isEqualTo(List.of("a", "b")));
+
+        final var late = new ArrayList<String>();
+        metrics.addListener(stage -> late.add(stage.getName()));
+        assertThat(late.size(), isEqualTo(2));
+        assertThat(metrics.stages().size(), isEqualTo(2));
+    }
+
+    @Test
+    void jmxListenerRegistersStages() throws Exception {
+        final var server = ManagementFactory.getPlatformMBeanServer();
+        try (final var listener = new JmxMetricsListener(server)) {
+            final var metrics = new StreamMetrics(listener);
+            final var stage = metrics.stageOf("jmx-test");
+            stage.recordElements(42);
+
+            final var name = JmxMetricsListener.objectNameOf(stage);
+            assertThat(server.getAttribute(name, "Elements"), isEqualTo(42L));
+            listener.close();
+            assertThat(server.isRegistered(name), isEqualTo(false));
+        }
+    }
+
+    private static void withInstalled(@Nonnull Consumer<StreamMetrics> action) {
+        final var metrics = new StreamMetrics();
+        StreamMetrics.install(metrics);
+        try {
+            action.accept(metrics);
+        } finally {
+            StreamMetrics.install(null);
+        }
+    }
+
+}
@@ -1,96 +1,170 @@
 package org.echocat.jsu;
 
 import static java.lang.Long.MAX_VALUE;
-import static java.lang.System.gc;
-import static java.lang.management.ManagementFactory.getMemoryMXBean;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
 import static org.echocat.jsu.StreamUtils.*;
-import static org.echocat.units4j.bytes.ByteCount.valueOf;
-import static org.echocat.unittest.utils.matchers.CompareTo.isLessThan;
-import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
-import static org.hamcrest.MatcherAssert.assertThat;
 
-import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
-import javax.annotation.Nonnegative;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 
-import org.echocat.units4j.bytes.ByteCount;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(AllocationMeterExtension.class)
 public class StreamUtilsPerformanceTest {
 
-    private static final MemoryMXBean MEMORY_MX_BEAN = getMemoryMXBean();
-    private static final long POLLUTION_TEST_RUNS = 100000000;
-    private static final ByteCount POTENTIAL_LONGS_IN_MEMORY_ON_POLLUTION_TESTS = ByteCount.valueOf(POLLUTION_TEST_RUNS).multiply(8).divide(4);
+    private static final int ELEMENTS = 1_000_000;
+    private static final int BATCHES = 100_000;
+    private static final int BATCH_SIZE = 10;
+    // Above the Integer cache, so a boxed batch size would show up as one allocation per batch.
+    private static final int LARGE_BATCH_SIZE = 1000;
+
+    private static volatile Object sink;
+
+    @Test
+    void generateLongDoesNotAllocatePerElement(@Nonnull AllocationMeter meter) {
+        final var sum = new long[1];
+
+        meter.assertAtMost(0, ELEMENTS, () -> generateLong(endlessLongs())
+            .limit(ELEMENTS)
+            .forEach(actual -> sum[0] += actual));
+    }
+
+    @Test
+    void generateIntDoesNotAllocatePerElement(@Nonnull AllocationMeter meter) {
+        final var sum = new long[1];
+
+        meter.assertAtMost(0, ELEMENTS, () -> generateInt(endlessInts())
+            .limit(ELEMENTS)
+            .forEach(actual -> sum[0] += actual));
+    }
 
     @Test
-    void takeWhileDoesNotPolluteMemory() {
-        final var expectedSerial = new AtomicLong();
+    void generateDoesNotAllocatePerElement(@Nonnull AllocationMeter meter) {
+        final var generator = cycling(givenElements());
+        final var sum = new long[1];
+
+        // The generator itself does not allocate, so everything would be allocated by generate.
+        meter.assertAtMost(0, ELEMENTS, () -> generate(generator)
+            .limit(ELEMENTS)
+            .forEach(actual -> sum[0] += actual));
+    }
+
+    @Test
+    void takeWhileDoesNotAllocatePerElement(@Nonnull AllocationMeter meter) {
+        final var elements = givenElements();
+        final var sum = new long[1];
+
         //noinspection ConstantValue
-        final var stream = takeWhile(generate(endless()), candidate -> candidate <= MAX_VALUE)
-            .limit(POLLUTION_TEST_RUNS);
-
-        stream.forEach(actual -> {
-            final long expected = expectedSerial.getAndIncrement();
-            assertThat(actual, isEqualTo(expected));
-            if (actual % 100000 == 0) {
-                assertHeapIsNotPolluted(POTENTIAL_LONGS_IN_MEMORY_ON_POLLUTION_TESTS);
-            }
-        });
+        meter.assertAtMost(0, ELEMENTS, () -> StreamSupport.stream(SpliteratorUtils.takeWhile(cyclingSpliterator(elements), (Long candidate) -> candidate <= MAX_VALUE), false)
+            .limit(ELEMENTS)
+            .forEach(actual -> sum[0] += actual));
     }
 
     @Test
-    void generateDoesNotPolluteMemory() {
-        final var expectedSerial = new AtomicLong();
-        final var stream = generate(endless())
-            .limit(POLLUTION_TEST_RUNS);
-
-        stream.forEach(actual -> {
-            final long expected = expectedSerial.getAndIncrement();
-            assertThat(actual, isEqualTo(expected));
-            if (actual % 100000 == 0) {
-                assertHeapIsNotPolluted(POTENTIAL_LONGS_IN_MEMORY_ON_POLLUTION_TESTS);
+    void batchAllocatesAtMostOneListPerBatch(@Nonnull AllocationMeter meter) {
+        final var elements = givenElements();
+        final var sum = new long[1];
+        final var list = meter.bytesPerOperation(BATCHES, () -> {
+            for (int i = 0; i < BATCHES; i++) {
+                final var batch = new ArrayList<Long>(BATCH_SIZE);
+                batch.add(elements[0]);
+                sink = batch;
             }
         });
+
+        // Every additional object would take at least 16 bytes per batch; half of it is left for the JIT to vary.
+        meter.assertAtMost(list + 8, BATCHES, () -> batch(StreamSupport.stream(cyclingSpliterator(elements), false), BATCH_SIZE)
+            .limit(BATCHES)
+            .forEach(actualBatch -> sum[0] += actualBatch.get(0)));
     }
 
     @Test
-    void batchDoesNotPolluteMemory() {
-        final var expectedSerial = new AtomicLong();
-        final var baseStream = generate(endless())
-            .limit(POLLUTION_TEST_RUNS);
-        final var stream = batch(baseStream, 10);
-
-        stream.forEach(actualBatch -> {
-            for (final Long actual : actualBatch) {
-                final long expected = expectedSerial.getAndIncrement();
-                assertThat(actual, isEqualTo(expected));
-                if (actual % 100000 == 0) {
-                    assertHeapIsNotPolluted(POTENTIAL_LONGS_IN_MEMORY_ON_POLLUTION_TESTS);
+    void recyclingBatchDoesNotAllocatePerBatch(@Nonnull AllocationMeter meter) {
+        assertRecyclingBatchDoesNotAllocatePerBatch(meter, BATCHES, BATCH_SIZE);
+    }
+
+    @Test
+    void recyclingBatchDoesNotAllocatePerBatchAboveIntegerCache(@Nonnull AllocationMeter meter) {
+        assertRecyclingBatchDoesNotAllocatePerBatch(meter, BATCHES / 10, LARGE_BATCH_SIZE);
+    }
+
+    private static void assertRecyclingBatchDoesNotAllocatePerBatch(@Nonnull AllocationMeter meter, int batches, int batchSize) {
+        final var elements = givenElements();
+        final var pool = new BatchPool<Long>(1);
+        final var sum = new long[1];
+
+        meter.assertAtMost(0, batches, () -> batch(StreamSupport.stream(cyclingSpliterator(elements), false), batchSize, pool)
+            .limit(batches)
+            .forEach(actualBatch -> {
+                try (actualBatch) {
+                    for (int i = 0; i < actualBatch.size(); i++) {
+                        sum[0] += actualBatch.get(i);
+                    }
                 }
-            }
-        });
+            }));
     }
 
     @Nonnull
-    @Nonnegative
-    private static ByteCount getHeapSafe() {
-        //noinspection CallToSystemGC
-        gc();
-        return valueOf(MEMORY_MX_BEAN.getHeapMemoryUsage().getUsed());
+    private static Long[] givenElements() {
+        final var result = new Long[1000];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (long) i + 1000;
+        }
+        return result;
     }
 
-    @SuppressWarnings("SameParameterValue")
-    private static void assertHeapIsNotPolluted(@Nonnull @Nonnegative ByteCount maximumUsedMemory) {
-        final var actualUsage = getHeapSafe();
-        assertThat(actualUsage, isLessThan(maximumUsedMemory));
+    @Nonnull
+    private static <T> Generator<T> cycling(@Nonnull T[] elements) {
+        final List<Optional<T>> optionals = new ArrayList<>(elements.length);
+        for (final var element : elements) {
+            optionals.add(Optional.of(element));
+        }
+        final var index = new int[1];
+        return () -> {
+            final var result = optionals.get(index[0]);
+            index[0] = (index[0] + 1) % optionals.size();
+            return result;
+        };
+    }
+
+    @Nonnull
+    private static <T> Spliterator<T> cyclingSpliterator(@Nonnull T[] elements) {
+        return new AbstractSpliterator<>(MAX_VALUE, ORDERED | NONNULL) {
+            private int index;
+
+            @Override
+            public boolean tryAdvance(@Nonnull Consumer<? super T> action) {
+                action.accept(elements[index]);
+                index = (index + 1) % elements.length;
+                return true;
+            }
+        };
+    }
+
+    @Nonnull
+    private static LongGenerator endlessLongs() {
+        final var serial = new long[1];
+        return target -> {
+            target.accept(serial[0]++);
+            return true;
+        };
     }
 
     @Nonnull
-    private static Generator<Long> endless() {
-        final var serial = new AtomicLong();
-        return () -> Optional.of(serial.getAndIncrement());
+    private static IntGenerator endlessInts() {
+        final var serial = new int[1];
+        return target -> {
+            target.accept(serial[0]++);
+            return true;
+        };
     }
 
-}
\ No newline at end of file
+}
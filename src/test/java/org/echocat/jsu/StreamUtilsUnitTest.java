@@ -1,6 +1,8 @@
 package org.echocat.jsu;
 
 import static java.util.Arrays.asList;
+import static java.util.Spliterator.ORDERED;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.echocat.jsu.StreamUtils.*;
 import static org.echocat.unittest.utils.matchers.HasSameSizeAs.hasSameSizeAs;
@@ -9,10 +11,21 @@ import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
 import static org.echocat.unittest.utils.matchers.IterableMatchers.containsOnlyElementsThat;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 
@@ -106,6 +119,97 @@ public class StreamUtilsUnitTest {
         assertThat(actual.get(1), isEqualTo(asList(10L, 11L, 12L, 13L, 14L)));
     }
 
+    @Test
+    void batchInParallelKeepsBatchBoundaries() {
+        final var source = LongStream.range(0, 100_003).boxed().collect(toList());
+        final var expected = batch(source.stream(), 10).collect(toList());
+        final var actual = batch(source.stream(), 10).parallel().collect(toList());
+        assertThat(actual, hasSize(10_001));
+        assertThat(actual, isEqualTo(expected));
+    }
+
+    @Test
+    void batchByWeight() {
+        final var actual = batch(Stream.of("a", "bb", "ccc", "dddd", "e"), String::length, 5L, 2).collect(toList());
+        assertThat(actual, isEqualTo(asList(asList("a", "bb"), asList("ccc"), asList("dddd", "e"))));
+    }
+
+    @Test
+    void batchWithLinger() {
+        final var queue = new LinkedBlockingQueue<Object>(asList(1L, 2L, 3L, "end"));
+        final var actual = batch(PollingGenerator.of(queue, "end"), 2, Duration.ofSeconds(1)).collect(toList());
+        assertThat(actual, isEqualTo(asList(asList(1L, 2L), asList(3L))));
+    }
+
+    @Test
+    void batchOfLongStream() {
+        final var actual = batch(LongStream.range(0, 15), 10).collect(toList());
+        assertThat(actual, hasSize(2));
+        assertThat(actual.get(0), isEqualTo(new long[]{0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L}));
+        assertThat(actual.get(1), isEqualTo(new long[]{10L, 11L, 12L, 13L, 14L}));
+    }
+
+    @Test
+    void prefetchKeepsOrder() {
+        final var actual = prefetch(givenStreamOfSize(10000), 16).collect(toList());
+        assertThat(actual, isEqualTo(LongStream.range(0, 10000).boxed().collect(toList())));
+    }
+
+    @Test
+    void prefetchClosesSource() {
+        final var closed = new AtomicLong();
+        final var source = givenStreamOfSize(10).onClose(closed::incrementAndGet);
+        try (final var actual = prefetch(source, 2)) {
+            assertThat(actual.limit(1).count(), isEqualTo(1L));
+        }
+        assertThat(closed.get(), isEqualTo(1L));
+    }
+
+    @Test
+    void prefetchClosesSourceOnlyAfterItIsNotReadAnymore() throws Exception {
+        final var reading = new CountDownLatch(1);
+        final var readWhileClosing = new AtomicBoolean();
+        final var inside = new AtomicBoolean();
+        final var source = StreamSupport.stream(new AbstractSpliterator<Long>(Long.MAX_VALUE, ORDERED) {
+            private long serial;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Long> action) {
+                if (serial > 0) {
+                    inside.set(true);
+                    reading.countDown();
+                    // Like most JDBC drivers: a blocking read which ignores interrupts.
+                    final var until = System.nanoTime() + MILLISECONDS.toNanos(100);
+                    while (System.nanoTime() < until) {
+                        LockSupport.parkNanos(until - System.nanoTime());
+                    }
+                    inside.set(false);
+                }
+                action.accept(serial++);
+                return true;
+            }
+        }, false).onClose(() -> readWhileClosing.set(inside.get()));
+
+        try (final var actual = prefetch(source, 1)) {
+            assertThat(actual.iterator().next(), isEqualTo(0L));
+            reading.await();
+        }
+
+        assertThat(readWhileClosing.get(), isEqualTo(false));
+    }
+
+    @Test
+    void mapAsyncKeepsOrder() {
+        final var actual = mapAsync(givenStreamOfSize(1000), element -> element * 2, 16).collect(toList());
+        assertThat(actual, isEqualTo(LongStream.range(0, 1000).map(element -> element * 2).boxed().collect(toList())));
+    }
+
+    @Test
+    void mapAsyncUnorderedEmitsAllResults() {
+        final var actual = mapAsyncUnordered(givenStreamOfSize(1000), element -> element * 2, 16).mapToLong(Long::longValue).sum();
+        assertThat(actual, isEqualTo(999L * 1000L));
+    }
+
     @Test
     void generateSimple() {
         final var serial = new AtomicLong();
@@ -136,6 +240,95 @@ public class StreamUtilsUnitTest {
         assertThat(actual, isEqualTo(expected));
     }
 
+    @Test
+    void generateSplittableInParallel() {
+        final var actual = generate(SplittableGenerator.range(0, 100_000), true).collect(toList());
+
+        assertThat(actual, isEqualTo(LongStream.range(0, 100_000).boxed().collect(toList())));
+    }
+
+    @Test
+    void generateConcurrentSimple() {
+        final var serial = new AtomicLong();
+        final var actual = generateConcurrent(() -> {
+            final long current = serial.getAndIncrement();
+            return current < 100_000 ? Optional.of(current) : Optional.empty();
+        }).sorted().collect(toList());
+
+        assertThat(actual, isEqualTo(LongStream.range(0, 100_000).boxed().collect(toList())));
+    }
+
+    @Test
+    void generateConcurrentCouldBeLimited() {
+        final var serial = new AtomicLong();
+        final var actual = generateConcurrent(() -> Optional.of(serial.getAndIncrement())).limit(10_000).collect(toList());
+
+        assertThat(actual, hasSize(10_000));
+    }
+
+    @Test
+    void generateBulkSimple() {
+        final var serial = new AtomicLong();
+        final var actual = generateBulk((sink, max) -> {
+            if (serial.get() >= 10000) {
+                return BulkGenerator.END;
+            }
+            for (int i = 0; i < max; i++) {
+                sink.accept(serial.getAndIncrement());
+            }
+            return max;
+        }).collect(toList());
+        assertThat(actual, isEqualTo(LongStream.range(0, 10240).boxed().collect(toList())));
+    }
+
+    @Test
+    void generateBulkCouldBeLimited() {
+        final var serial = new AtomicLong();
+        final var actual = generateBulk((sink, max) -> {
+            sink.accept(serial.getAndIncrement());
+            return 1;
+        }).limit(100).collect(toList());
+        assertThat(actual, isEqualTo(LongStream.range(0, 100).boxed().collect(toList())));
+    }
+
+    @Test
+    void generateLongSimple() {
+        final var serial = new AtomicLong();
+        final var actual = generateLong(target -> {
+            final long current = serial.getAndIncrement();
+            if (current >= 10000) {
+                return false;
+            }
+            target.accept(current);
+            return true;
+        }).toArray();
+        assertThat(actual, isEqualTo(LongStream.range(0, 10000).toArray()));
+    }
+
+    @Test
+    void generateIntCouldBeLimited() {
+        final var serial = new AtomicInteger();
+        final var actual = generateInt(target -> {
+            target.accept(serial.getAndIncrement());
+            return true;
+        }).limit(10000).toArray();
+        assertThat(actual, isEqualTo(IntStream.range(0, 10000).toArray()));
+    }
+
+    @Test
+    void generateDoubleSimple() {
+        final var serial = new AtomicInteger();
+        final var actual = generateDouble(target -> {
+            final var current = serial.getAndIncrement();
+            if (current >= 100) {
+                return false;
+            }
+            target.accept(current);
+            return true;
+        }).sum();
+        assertThat(actual, isEqualTo(4950d));
+    }
+
     @Test
     void constructor() {
         //noinspection InstantiationOfUtilityClass
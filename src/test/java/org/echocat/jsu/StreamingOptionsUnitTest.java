@@ -0,0 +1,89 @@
+package org.echocat.jsu;
+
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.CONCUR_UPDATABLE;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static java.sql.ResultSet.TYPE_SCROLL_INSENSITIVE;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsNull.isNull;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class StreamingOptionsUnitTest {
+
+    @Test
+    void defaults() {
+        final var actual = StreamingOptions.defaults();
+
+        assertThat(actual.resultSetType(), isEqualTo(TYPE_FORWARD_ONLY));
+        assertThat(actual.resultSetConcurrency(), isEqualTo(CONCUR_READ_ONLY));
+        assertThat(actual.fetchSize(), isNull());
+        assertThat(actual.queryTimeout(), isNull());
+        assertThat(actual.autoCommit(), isNull());
+    }
+
+    @Test
+    void withers() {
+        final var actual = StreamingOptions.defaults()
+            .withResultSetType(TYPE_SCROLL_INSENSITIVE)
+            .withResultSetConcurrency(CONCUR_UPDATABLE)
+            .withFetchSize(66)
+            .withQueryTimeout(Duration.ofSeconds(11))
+            .withAutoCommit(true);
+
+        assertThat(actual.resultSetType(), isEqualTo(TYPE_SCROLL_INSENSITIVE));
+        assertThat(actual.resultSetConcurrency(), isEqualTo(CONCUR_UPDATABLE));
+        assertThat(actual.fetchSize(), isEqualTo(66));
+        assertThat(actual.queryTimeout(), isEqualTo(Duration.ofSeconds(11)));
+        assertThat(actual.autoCommit(), isEqualTo(true));
+        assertThat(StreamingOptions.defaults().fetchSize(), isNull());
+    }
+
+    @Test
+    void forMySql() {
+        assertThat(StreamingOptions.forMySql().fetchSize(), isEqualTo(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void forPostgreSql() {
+        assertThat(StreamingOptions.forPostgreSql(500), isEqualTo(StreamingOptions.defaults().withFetchSize(500).withAutoCommit(false)));
+    }
+
+    @Test
+    void applyToStatement() throws Exception {
+        final var statement = mock(Statement.class);
+
+        StreamingOptions.defaults().withFetchSize(66).withQueryTimeout(Duration.ofSeconds(11)).applyTo(statement);
+
+        verify(statement, times(1)).setFetchSize(66);
+        verify(statement, times(1)).setQueryTimeout(11);
+    }
+
+    @Test
+    void applyToConnectionRestoresPreviousAutoCommit() throws Exception {
+        final var connection = mock(Connection.class);
+        doReturn(true).when(connection).getAutoCommit();
+
+        final var restore = StreamingOptions.defaults().withAutoCommit(false).applyTo(connection);
+        verify(connection, times(1)).setAutoCommit(false);
+
+        restore.call();
+        verify(connection, times(1)).setAutoCommit(true);
+    }
+
+    @Test
+    void applyToConnectionLeavesAutoCommitUntouchedIfNotSet() throws Exception {
+        final var connection = mock(Connection.class);
+
+        StreamingOptions.defaults().applyTo(connection).call();
+
+        verifyNoInteractions(connection);
+    }
+
+}
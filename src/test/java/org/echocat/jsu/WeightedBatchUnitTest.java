@@ -0,0 +1,139 @@
+package org.echocat.jsu;
+
+import static java.util.stream.Collectors.toList;
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.IsSameAs.isSameAs;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.ToLongFunction;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnull;
+
+import org.junit.jupiter.api.Test;
+
+public class WeightedBatchUnitTest {
+
+    @Test
+    void closesBatchBeforeMaxWeightIsExceeded() {
+        final var source = List.of(3L, 4L, 2L, 5L, 1L, 1L, 1L);
+        final var actual = new WeightedBatch<>(source.spliterator(), Long::longValue, 7);
+
+        assertThat(asList(actual), isEqualTo(List.of(
+            List.of(3L, 4L),
+            List.of(2L, 5L),
+            List.of(1L, 1L, 1L)
+        )));
+    }
+
+    @Test
+    void emitsOversizedElementAsOwnBatch() {
+        final var source = List.of(1L, 10L, 2L, 3L);
+        final var actual = new WeightedBatch<>(source.spliterator(), Long::longValue, 5);
+
+        assertThat(asList(actual), isEqualTo(List.of(
+            List.of(1L),
+            List.of(10L),
+            List.of(2L, 3L)
+        )));
+    }
+
+    @Test
+    void closesBatchOnMaxCount() {
+        final var source = List.of(1L, 1L, 1L, 1L, 1L);
+        final var actual = new WeightedBatch<>(source.spliterator(), Long::longValue, 100, 2);
+
+        assertThat(asList(actual), isEqualTo(List.of(
+            List.of(1L, 1L),
+            List.of(1L, 1L),
+            List.of(1L)
+        )));
+    }
+
+    @Test
+    void weighsEveryElementOnlyOnce() {
+        final var source = List.of(3L, 4L, 2L, 5L, 1L, 1L, 1L);
+        final var weighed = new ArrayList<Long>();
+        final var actual = new WeightedBatch<>(source.spliterator(), (Long element) -> {
+            weighed.add(element);
+            return element;
+        }, 7);
+
+        assertThat(asList(actual).size(), isEqualTo(3));
+        assertThat(weighed, isEqualTo(source));
+    }
+
+    @Test
+    void doesNotOverflowOnHugeWeights() {
+        final var source = List.of(1L, Long.MAX_VALUE, 1L);
+        final var actual = new WeightedBatch<>(source.spliterator(), Long::longValue, Long.MAX_VALUE);
+
+        assertThat(asList(actual), isEqualTo(List.of(
+            List.of(1L),
+            List.of(Long.MAX_VALUE),
+            List.of(1L)
+        )));
+    }
+
+    @Test
+    void rejectsNegativeWeights() {
+        final var source = List.of(1L, -1L);
+        final var actual = new WeightedBatch<>(source.spliterator(), Long::longValue, 10);
+
+        assertThat(() -> asList(actual), throwsException(IllegalArgumentException.class, "The weight have to be non-negative but was -1\\."));
+    }
+
+    @Test
+    void emptySource() {
+        final var actual = new WeightedBatch<>(List.<Long>of().spliterator(), Long::longValue, 100);
+
+        assertThat(asList(actual), isEqualTo(List.of()));
+    }
+
+    @Test
+    void parallelStreamContainsAllElements() {
+        final var source = new ArrayList<Long>();
+        for (long i = 0; i < 10000; i++) {
+            source.add(i % 7);
+        }
+
+        final var actual = StreamSupport.stream(new WeightedBatch<>(source.spliterator(), Long::longValue, 20), true)
+            .flatMap(List::stream)
+            .collect(toList());
+
+        assertThat(actual, isEqualTo(source));
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThat(() -> new WeightedBatch<>(List.<Long>of().spliterator(), Long::longValue, 0), throwsException(IllegalArgumentException.class));
+        assertThat(() -> new WeightedBatch<>(List.<Long>of().spliterator(), Long::longValue, 1, 0), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    void constructor() {
+        //noinspection unchecked
+        final Spliterator<Long> source = mock(Spliterator.class);
+        final ToLongFunction<Long> weigher = Long::longValue;
+
+        final var actual = new WeightedBatch<>(source, weigher, 66L, 11);
+
+        assertThat(actual.source(), isSameAs(source));
+        assertThat(actual.weigher(), isSameAs(weigher));
+        assertThat(actual.maxWeight(), isEqualTo(66L));
+        assertThat(actual.maxCount(), isEqualTo(11));
+    }
+
+    @Nonnull
+    protected static <T> List<T> asList(@Nonnull Spliterator<T> source) {
+        final var result = new ArrayList<T>();
+        //noinspection StatementWithEmptyBody
+        while (source.tryAdvance(result::add)) {}
+        return result;
+    }
+
+}
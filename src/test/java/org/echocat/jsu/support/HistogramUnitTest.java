@@ -0,0 +1,91 @@
+package org.echocat.jsu.support;
+
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class HistogramUnitTest {
+
+    @Test
+    void emptyHistogram() {
+        final var histogram = new Histogram();
+
+        assertThat(histogram.count(), isEqualTo(0L));
+        assertThat(histogram.mean(), isEqualTo(0d));
+        assertThat(histogram.max(), isEqualTo(0L));
+        assertThat(histogram.valueAtPercentile(99), isEqualTo(0L));
+    }
+
+    @Test
+    void recordsSmallValuesExactly() {
+        final var histogram = new Histogram();
+        for (int i = 1; i <= 50; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.count(), isEqualTo(50L));
+        assertThat(histogram.sum(), isEqualTo(1275L));
+        assertThat(histogram.mean(), isEqualTo(25.5d));
+        assertThat(histogram.max(), isEqualTo(50L));
+        assertThat(histogram.valueAtPercentile(0), isEqualTo(1L));
+        assertThat(histogram.valueAtPercentile(50), isEqualTo(25L));
+        assertThat(histogram.valueAtPercentile(100), isEqualTo(50L));
+    }
+
+    @Test
+    void recordsLargeValuesWithBoundedRelativeError() {
+        final var histogram = new Histogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertWithin(histogram.valueAtPercentile(50), 50_000_000L);
+        assertWithin(histogram.valueAtPercentile(99), 99_000_000L);
+        assertThat(histogram.valueAtPercentile(100), isEqualTo(100_000_000L));
+    }
+
+    @Test
+    void recordsExtremeValues() {
+        final var histogram = new Histogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.valueAtPercentile(50), isEqualTo(0L));
+        assertThat(histogram.valueAtPercentile(100), isEqualTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    void recordsConcurrently() {
+        final var histogram = new Histogram();
+
+        IntStream.range(0, 100_000).parallel().forEach(histogram::record);
+
+        assertThat(histogram.count(), isEqualTo(100_000L));
+        assertThat(histogram.max(), isEqualTo(99_999L));
+    }
+
+    @Test
+    void indexesAreMonotonic() {
+        var previous = -1;
+        for (long value = 0; value < 1_000_000; value += 7) {
+            final var index = Histogram.indexOf(value);
+            assertThat(index >= previous, isEqualTo(true));
+            assertThat(Histogram.highestEquivalentValueOf(index) >= value, isEqualTo(true));
+            previous = index;
+        }
+    }
+
+    @Test
+    void valueAtPercentileRejectsInvalidPercentiles() {
+        assertThat(() -> new Histogram().valueAtPercentile(101), throwsException(IllegalArgumentException.class));
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        assertThat("Expected about " + expected + " but was " + actual + ".", Math.abs(actual - expected) <= expected / 32, isEqualTo(true));
+    }
+
+}
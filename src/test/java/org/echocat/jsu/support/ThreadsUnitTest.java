@@ -0,0 +1,36 @@
+package org.echocat.jsu.support;
+
+import static org.echocat.unittest.utils.matchers.IsEqualTo.isEqualTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class ThreadsUnitTest {
+
+    @Test
+    void threadFactoryCreatesRunnableThreads() throws Exception {
+        final var ran = new AtomicBoolean();
+
+        final var thread = Threads.threadFactory("test-").newThread(() -> ran.set(true));
+        thread.start();
+        thread.join();
+
+        assertThat(ran.get(), isEqualTo(true));
+        assertThat(thread.getName().startsWith("test-"), isEqualTo(true));
+        assertThat(thread.isDaemon(), isEqualTo(true));
+    }
+
+    @Test
+    void virtualThreadFactoryIsOnlyAvailableIfSupported() {
+        assertThat(Threads.virtualThreadFactory("test-") != null, isEqualTo(Threads.isVirtualThreadsSupported()));
+    }
+
+    @Test
+    void constructor() {
+        //noinspection InstantiationOfUtilityClass
+        new Threads();
+    }
+
+}